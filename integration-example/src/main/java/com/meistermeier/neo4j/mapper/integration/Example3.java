@@ -3,12 +3,11 @@ package com.meistermeier.neo4j.mapper.integration;
 import org.neo4j.driver.Value;
 import org.neo4j.mapper.core.convert.Neo4jPersistentPropertyConverter;
 import org.neo4j.mapper.core.mapping.DefaultNeo4jEntityConverter;
-import org.neo4j.mapper.core.mapping.EntityConstructor;
-import org.neo4j.mapper.core.mapping.Instantiator;
+import org.neo4j.mapper.core.mapping.Instantiators;
+import org.neo4j.mapper.core.mapping.MappingContext;
 import org.neo4j.mapper.core.mapping.Neo4jConversionService;
 import org.neo4j.mapper.core.mapping.NodeDescription;
 import org.neo4j.mapper.core.mapping.NodeDescriptionStore;
-import org.neo4j.mapper.core.mapping.ParameterValueProvider;
 import org.neo4j.mapper.core.mapping.RecordMapAccessor;
 import org.neo4j.mapper.cypher.CypherGenerator;
 
@@ -39,30 +38,27 @@ optionalLink: 'OutcomeOptionalLink'
 
 		String cypher = cypherMatch.returning(cypherReturn).build().getCypher();
 		System.out.println(cypher);
+		// One converter can be shared by all queries, the mapping context holds the state of a single query
+		var converter = new DefaultNeo4jEntityConverter(
+			Instantiators.usingPersistenceConstructor(),
+			new Neo4jConversionService() {
+				@Override public Object convert(String f, Class<?> componentType) {
+					return null;
+				}
+
+				@Override
+				public Object readValue(Value value, Class<?> type, Neo4jPersistentPropertyConverter<?> converter) {
+					return value.asString();
+				}
+			},
+			nodeDescriptionStore,
+			driver.defaultTypeSystem()
+		);
+
+		var mappingContext = new MappingContext();
 		driver.session()
 			.run(cypher)
-			.list(record -> new DefaultNeo4jEntityConverter(
-				nodeDescription -> new Instantiator() {
-					@Override
-					public <ET> ET createInstance(NodeDescription<ET> nodeDescription,
-						ParameterValueProvider<ET> parameterValueProvider) {
-						EntityConstructor<ET> persistenceConstructor = nodeDescription.getPersistenceConstructor();
-						return persistenceConstructor.createInstance(parameterValueProvider);
-					}
-				},
-				new Neo4jConversionService() {
-					@Override public Object convert(String f, Class<?> componentType) {
-						return null;
-					}
-
-					@Override
-					public Object readValue(Value value, Class<?> type, Neo4jPersistentPropertyConverter<?> converter) {
-						return value.asString();
-					}
-				},
-				nodeDescriptionStore,
-				driver.defaultTypeSystem()
-			).read(Quiz.Outcome.class, new RecordMapAccessor(record)))
+			.list(record -> converter.read(Quiz.Outcome.class, new RecordMapAccessor(record), mappingContext))
 			.forEach(System.out::println);
 
 		Environment.stopContainer();
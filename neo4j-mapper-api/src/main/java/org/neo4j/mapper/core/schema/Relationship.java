@@ -79,4 +79,13 @@ public @interface Relationship {
 	 * @return The direction of the relationship.
 	 */
 	Direction direction() default Direction.OUTGOING;
+
+	/**
+	 * Lazy relationships are left out of the queries loading the owning entity. The annotated collection is loaded on
+	 * first access instead. Only attributes of type {@link java.util.List}, {@link java.util.Set} or
+	 * {@link java.util.Collection} can be loaded lazily.
+	 *
+	 * @return True, if the relationship should be loaded on first access
+	 */
+	boolean lazy() default false;
 }
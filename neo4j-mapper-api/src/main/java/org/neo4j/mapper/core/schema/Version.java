@@ -0,0 +1,48 @@
+/*
+ * Copyright 2011-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.core.schema;
+
+import org.apiguardian.api.API;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a numeric attribute as the version of a node entity. The version is incremented with each save and is used for
+ * optimistic locking as well as for validating cached entities against the state of the database.
+ *
+ * <pre>
+ * &#64;Node
+ * public class MyEntity {
+ * 	&#64;Id String theId;
+ * 	&#64;Version Long version;
+ * }
+ * </pre>
+ *
+ * @author Gerrit Meier
+ * @since 1.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.ANNOTATION_TYPE})
+@Documented
+@Inherited
+@API(status = API.Status.STABLE, since = "1.0")
+public @interface Version {
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.benchmarks;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+import org.neo4j.cypherdsl.core.Condition;
+import org.neo4j.cypherdsl.core.Cypher;
+import org.neo4j.cypherdsl.core.Expression;
+import org.neo4j.cypherdsl.core.Statement;
+import org.neo4j.mapper.benchmarks.domain.Catalog;
+import org.neo4j.mapper.benchmarks.domain.City;
+import org.neo4j.mapper.benchmarks.domain.Country;
+import org.neo4j.mapper.benchmarks.domain.Movie;
+import org.neo4j.mapper.benchmarks.domain.Person;
+import org.neo4j.mapper.benchmarks.domain.Rating;
+import org.neo4j.mapper.benchmarks.domain.Review;
+import org.neo4j.mapper.benchmarks.domain.Studio;
+import org.neo4j.mapper.core.mapping.NodeDescription;
+import org.neo4j.mapper.core.mapping.PropertyFilter;
+import org.neo4j.mapper.core.mapping.RelationshipDescription;
+import org.neo4j.mapper.core.mapping.RelaxedPropertyPath;
+import org.neo4j.mapper.cypher.CypherGenerator;
+import org.neo4j.mapper.cypher.Neo4jOrder;
+import org.neo4j.mapper.cypher.Neo4jSort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the statements created by the {@link CypherGenerator}. Every operation comes in two flavours: The
+ * {@code build} benchmarks only create the statement (the AST of the Cypher-DSL), the {@code render} benchmarks
+ * create a statement and render it to Cypher. As statements memoize their Cypher, rendering a prebuilt statement would
+ * only measure a field access, the cost of rendering is the difference between both flavours.
+ * <p>
+ * The read operations run against entities of increasing size ({@link Schema}): from one relationship to an entity that
+ * fans out to all others and reaches four hops deep. The {@link CypherGenerator#getStatementCache() statement cache} is
+ * cleared before each operation it would serve, unless the benchmark is explicitly about a cache hit.
+ *
+ * @author Gerrit Meier
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CypherGeneratorBenchmarks {
+
+	private static final CypherGenerator GENERATOR = CypherGenerator.INSTANCE;
+
+	/**
+	 * Entities of increasing depth and fan-out. The descriptions are created per trial, so that nothing is shared with
+	 * other trials through caches keyed by the description.
+	 */
+	@State(Scope.Benchmark)
+	public static class Schema {
+
+		/**
+		 * City: one relationship, one hop. Person: two hops. Movie: three hops. Catalog: five relationships, four hops.
+		 */
+		@Param({ "City", "Person", "Movie", "Catalog" })
+		String entity;
+
+		NodeDescription<?> nodeDescription;
+		RelationshipDescription relationshipDescription;
+		Condition condition;
+		PropertyFilter propertyFilter;
+
+		@Setup
+		public void setup() {
+
+			Class<?> type = switch (entity) {
+				case "City" -> City.class;
+				case "Person" -> Person.class;
+				case "Movie" -> Movie.class;
+				case "Catalog" -> Catalog.class;
+				default -> throw new IllegalArgumentException("Unknown entity " + entity);
+			};
+			nodeDescription = NodeDescription.of(type);
+			relationshipDescription = nodeDescription.getRelationships().iterator().next();
+			condition = nodeDescription.getIdExpression().isEqualTo(Cypher.parameter("id"));
+
+			// Projects the id and the complete first relationship, everything else is filtered
+			RelaxedPropertyPath root = RelaxedPropertyPath.withRootType(type);
+			propertyFilter = PropertyFilter.from(Map.of(
+					root.append(nodeDescription.getIdDescription().getOptionalGraphPropertyName().orElseThrow()), true,
+					root.append(relationshipDescription.getFieldName()), true), nodeDescription);
+		}
+	}
+
+	/**
+	 * Entities covering the combinations of assigned and internal ids with and without a version property.
+	 */
+	@State(Scope.Benchmark)
+	public static class SaveTarget {
+
+		@Param({ "assigned", "assignedVersioned", "internal", "internalVersioned" })
+		String id;
+
+		NodeDescription<?> nodeDescription;
+
+		@Setup
+		public void setup() {
+			nodeDescription = NodeDescription.of(typeWith(id));
+		}
+
+		static Class<?> typeWith(String id) {
+			return switch (id) {
+				case "assigned" -> Country.class;
+				case "assignedVersioned" -> Studio.class;
+				case "internal" -> Review.class;
+				case "internalVersioned" -> Rating.class;
+				default -> throw new IllegalArgumentException("Unknown id " + id);
+			};
+		}
+	}
+
+	/**
+	 * Only entities with assigned ids can be saved in a batch.
+	 */
+	@State(Scope.Benchmark)
+	public static class BatchSaveTarget {
+
+		@Param({ "assigned", "assignedVersioned" })
+		String id;
+
+		NodeDescription<?> nodeDescription;
+
+		@Setup
+		public void setup() {
+			nodeDescription = NodeDescription.of(SaveTarget.typeWith(id));
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class Sort {
+
+		Neo4jSort sort = Neo4jSort.by("n.title", "released")
+				.and(Neo4jSort.by(Neo4jOrder.desc("n.`first.name`"), Neo4jOrder.asc("toLower(n.name)")));
+	}
+
+	@Benchmark
+	public Statement buildMatchOf(Schema schema) {
+		return GENERATOR.prepareMatchOf(schema.nodeDescription, schema.condition).returning(Cypher.asterisk()).build();
+	}
+
+	@Benchmark
+	public String renderMatchOf(Schema schema) {
+		return buildMatchOf(schema).getCypher();
+	}
+
+	@Benchmark
+	public Statement buildMatchOfRootIds(Schema schema) {
+		return GENERATOR.prepareMatchOf(schema.nodeDescription, null, schema.condition).returning(Cypher.asterisk()).build();
+	}
+
+	@Benchmark
+	public String renderMatchOfRootIds(Schema schema) {
+		return buildMatchOfRootIds(schema).getCypher();
+	}
+
+	@Benchmark
+	public Statement buildMatchOfRelationship(Schema schema) {
+		return GENERATOR.prepareMatchOf(schema.nodeDescription, schema.relationshipDescription, null, schema.condition)
+				.returning(Cypher.asterisk()).build();
+	}
+
+	@Benchmark
+	public String renderMatchOfRelationship(Schema schema) {
+		return buildMatchOfRelationship(schema).getCypher();
+	}
+
+	@Benchmark
+	public Collection<Expression> buildReturnStatementForMatch(Schema schema) {
+		return GENERATOR.createReturnStatementForMatch(schema.nodeDescription, path -> true);
+	}
+
+	@Benchmark
+	public String renderReturnStatementForMatch(Schema schema) {
+		return matchReturning(schema, buildReturnStatementForMatch(schema)).getCypher();
+	}
+
+	@Benchmark
+	public Collection<Expression> buildReturnStatementForMatchWithPropertyFilter(Schema schema) {
+		return GENERATOR.createReturnStatementForMatch(schema.nodeDescription, schema.propertyFilter::contains);
+	}
+
+	@Benchmark
+	public String renderReturnStatementForMatchWithPropertyFilter(Schema schema) {
+		return matchReturning(schema, buildReturnStatementForMatchWithPropertyFilter(schema)).getCypher();
+	}
+
+	/**
+	 * The overload without a predicate is served from the statement cache once it has been called.
+	 */
+	@Benchmark
+	public Collection<Expression> cachedReturnStatementForMatch(Schema schema) {
+		return GENERATOR.createReturnStatementForMatch(schema.nodeDescription);
+	}
+
+	@Benchmark
+	public Statement buildSaveOf(SaveTarget target) {
+		return GENERATOR.prepareSaveOf(target.nodeDescription, UnaryOperator.identity());
+	}
+
+	@Benchmark
+	public String renderSaveOf(SaveTarget target) {
+		return buildSaveOf(target).getCypher();
+	}
+
+	/**
+	 * Statements for multiple instances are cached and rendered before they are put into the cache, so there is no
+	 * separate build flavour. Clearing the cache is part of the measured operation but negligible compared to the
+	 * statement.
+	 */
+	@Benchmark
+	public String renderSaveOfMultipleInstancesOf(BatchSaveTarget target) {
+		GENERATOR.getStatementCache().clear();
+		return GENERATOR.prepareSaveOfMultipleInstancesOf(target.nodeDescription).getCypher();
+	}
+
+	@Benchmark
+	public String cachedSaveOfMultipleInstancesOf(BatchSaveTarget target) {
+		return GENERATOR.prepareSaveOfMultipleInstancesOf(target.nodeDescription).getCypher();
+	}
+
+	@Benchmark
+	public String renderOrderByFragment(Sort sort) {
+		return GENERATOR.createOrderByFragment(sort.sort);
+	}
+
+	private static Statement matchReturning(Schema schema, Collection<Expression> expressions) {
+		return Cypher.match(GENERATOR.createRootNode(schema.nodeDescription)).returning(expressions).build();
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.internal.types.InternalTypeSystem;
+import org.neo4j.driver.internal.value.NodeValue;
+import org.neo4j.driver.types.MapAccessor;
+import org.neo4j.mapper.benchmarks.domain.City;
+import org.neo4j.mapper.benchmarks.domain.Country;
+import org.neo4j.mapper.benchmarks.domain.Movie;
+import org.neo4j.mapper.benchmarks.domain.Person;
+import org.neo4j.mapper.benchmarks.domain.Release;
+import org.neo4j.mapper.benchmarks.domain.Studio;
+import org.neo4j.mapper.core.convert.Neo4jPersistentPropertyConverter;
+import org.neo4j.mapper.core.mapping.ConverterOptions;
+import org.neo4j.mapper.core.mapping.DefaultNeo4jEntityConverter;
+import org.neo4j.mapper.core.mapping.InMemoryMappingMetrics;
+import org.neo4j.mapper.core.mapping.Instantiators;
+import org.neo4j.mapper.core.mapping.MappingMetrics;
+import org.neo4j.mapper.core.mapping.Neo4jConversionService;
+import org.neo4j.mapper.core.mapping.NodeDescription;
+import org.neo4j.mapper.core.mapping.NodeDescriptionStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link DefaultNeo4jEntityConverter#read(Class, MapAccessor)} on synthetic records. Each invocation maps
+ * {@value #RECORDS} records, so that the reported throughput and the normalized allocation rate of the gc profiler
+ * ({@code gc.alloc.rate.norm}) are per record.
+ * <p>
+ * The converter is shared by all invocations, like it is in an application: Mapping plans and resolved label
+ * combinations are computed during warmup and only the steady state is measured.
+ *
+ * @author Gerrit Meier
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmarks {
+
+	static final int RECORDS = 100;
+
+	/**
+	 * The number of actors per movie, each one contributing a person, a city and a relationship to a country.
+	 */
+	@Param({ "1", "10" })
+	int fanOut;
+
+	/**
+	 * Compares the converter without metrics to one recording into memory, the difference is the cost of measuring.
+	 */
+	@Param({ "none", "inMemory" })
+	String metrics;
+
+	private DefaultNeo4jEntityConverter converter;
+
+	private List<MapAccessor> flatNodes;
+	private List<MapAccessor> recordsWithColumns;
+	private List<MapAccessor> deepProjections;
+	private List<MapAccessor> genericAggregates;
+	private List<MapAccessor> nodesWithDynamicLabels;
+
+	@Setup
+	public void setup() {
+
+		converter = createConverter("inMemory".equals(metrics) ? new InMemoryMappingMetrics() : MappingMetrics.NONE);
+
+		SyntheticGraph graph = new SyntheticGraph();
+		flatNodes = new ArrayList<>(RECORDS);
+		recordsWithColumns = new ArrayList<>(RECORDS);
+		deepProjections = new ArrayList<>(RECORDS);
+		genericAggregates = new ArrayList<>(RECORDS);
+		nodesWithDynamicLabels = new ArrayList<>(RECORDS);
+		for (int i = 0; i < RECORDS; i++) {
+			flatNodes.add(SyntheticGraph.record(List.of("n"), new NodeValue(graph.country(i))));
+			recordsWithColumns.add(SyntheticGraph.record(List.of("n", "score", "rank"),
+					new NodeValue(graph.person(i)), Values.value(i * 0.5), Values.value(i)));
+			deepProjections.add(SyntheticGraph.record(List.of("m"), graph.movieProjection(i, fanOut)));
+			genericAggregates.add(graph.movieAggregate(i, fanOut));
+			nodesWithDynamicLabels.add(SyntheticGraph.record(List.of("n"), new NodeValue(graph.release(i, 2))));
+		}
+	}
+
+	static DefaultNeo4jEntityConverter createConverter(MappingMetrics metrics) {
+
+		NodeDescriptionStore nodeDescriptionStore = new NodeDescriptionStore();
+		nodeDescriptionStore.put("Country", NodeDescription.of(Country.class));
+		nodeDescriptionStore.put("City", NodeDescription.of(City.class));
+		nodeDescriptionStore.put("Person", NodeDescription.of(Person.class));
+		nodeDescriptionStore.put("Movie", NodeDescription.of(Movie.class));
+		nodeDescriptionStore.put("Release", NodeDescription.of(Release.class));
+		nodeDescriptionStore.put("Studio", NodeDescription.of(Studio.class));
+
+		Neo4jConversionService conversionService = new Neo4jConversionService() {
+			@Override
+			public Object convert(String f, Class<?> componentType) {
+				return f;
+			}
+
+			@Override
+			public Object readValue(Value value, Class<?> type, Neo4jPersistentPropertyConverter<?> converter) {
+				return value == null || value.isNull() ? null : value.asObject();
+			}
+		};
+
+		return new DefaultNeo4jEntityConverter(Instantiators.usingPersistenceConstructor(), conversionService,
+				nodeDescriptionStore, InternalTypeSystem.TYPE_SYSTEM, ConverterOptions.builder().metrics(metrics).build());
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(RECORDS)
+	public void flatNodes(Blackhole blackhole) {
+		readAll(Country.class, flatNodes, blackhole);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(RECORDS)
+	public void recordsWithColumns(Blackhole blackhole) {
+		readAll(Person.class, recordsWithColumns, blackhole);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(RECORDS)
+	public void deepProjections(Blackhole blackhole) {
+		readAll(Movie.class, deepProjections, blackhole);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(RECORDS)
+	public void genericAggregates(Blackhole blackhole) {
+		readAll(Movie.class, genericAggregates, blackhole);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(RECORDS)
+	public void dynamicLabels(Blackhole blackhole) {
+		readAll(Release.class, nodesWithDynamicLabels, blackhole);
+	}
+
+	private <T> void readAll(Class<T> targetType, List<MapAccessor> records, Blackhole blackhole) {
+		for (MapAccessor record : records) {
+			blackhole.consume(converter.read(targetType, record));
+		}
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.internal.InternalNode;
+import org.neo4j.driver.internal.InternalRecord;
+import org.neo4j.driver.internal.InternalRelationship;
+import org.neo4j.driver.internal.value.NodeValue;
+import org.neo4j.driver.internal.value.RelationshipValue;
+import org.neo4j.driver.types.MapAccessor;
+import org.neo4j.driver.types.Node;
+import org.neo4j.driver.types.Relationship;
+import org.neo4j.mapper.core.mapping.Constants;
+import org.neo4j.mapper.core.mapping.RecordMapAccessor;
+
+/**
+ * Creates the records the driver would return for the benchmark domain, without a database. All values are derived
+ * from the index of the entity and ids are handed out sequentially, so that every run sees the same graph.
+ * <p>
+ * Aggregates are available in the two shapes the mapper reads: As nested map projections, keyed like
+ * {@link org.neo4j.mapper.core.mapping.RelationshipDescription#generateRelatedNodesCollectionName} does, and as the
+ * generic shape of a root node together with the lists of all related nodes and relationships.
+ *
+ * @author Gerrit Meier
+ */
+public final class SyntheticGraph {
+
+	/**
+	 * Actors share their countries, so that the generic shape contains nodes reachable over more than one path.
+	 */
+	private static final int NUMBER_OF_COUNTRIES = 4;
+
+	private long nextNodeId;
+	private long nextRelationshipId;
+
+	public Node country(int i) {
+		return node(List.of("Country"), Map.of(
+				"code", "C" + i,
+				"name", "Country " + i,
+				"population", 1_000_000L * (i + 1),
+				"area", 1_000.5 * (i + 1)));
+	}
+
+	public Node city(int i) {
+		return node(List.of("City"), Map.of("name", "City " + i));
+	}
+
+	public Node person(int i) {
+		return node(List.of("Person"), Map.of("name", "Person " + i, "born", 1950L + i % 50));
+	}
+
+	public Node movie(int i) {
+		return node(List.of("Movie"), Map.of("title", "Movie " + i, "released", 1980L + i % 40, "tagline", "Tagline of movie " + i));
+	}
+
+	/**
+	 * @param i The index of the release
+	 * @param numberOfDynamicLabels The number of labels in addition to the static one
+	 * @return A release node with surplus labels
+	 */
+	public Node release(int i, int numberOfDynamicLabels) {
+
+		List<String> labels = new ArrayList<>(numberOfDynamicLabels + 1);
+		labels.add("Release");
+		for (int j = 0; j < numberOfDynamicLabels; j++) {
+			labels.add("Edition" + (i + j) % 8);
+		}
+		return node(labels, Map.of("name", "Release " + i, "year", 2000L + i % 20));
+	}
+
+	/**
+	 * @param i The index of the movie
+	 * @param numberOfActors The number of actors, each one born in a city of their own
+	 * @return A movie with its actors, their birthplaces and the countries of those as nested map projections
+	 */
+	public Value movieProjection(int i, int numberOfActors) {
+
+		List<Node> countries = new ArrayList<>(NUMBER_OF_COUNTRIES);
+		for (int j = 0; j < NUMBER_OF_COUNTRIES; j++) {
+			countries.add(country(j));
+		}
+
+		List<Map<String, Object>> actors = new ArrayList<>(numberOfActors);
+		for (int j = 0; j < numberOfActors; j++) {
+			int actor = i * numberOfActors + j;
+			Map<String, Object> city = projection(city(actor),
+					Map.of("City_IN_Country", List.of(projection(countries.get(j % NUMBER_OF_COUNTRIES), Map.of()))));
+			actors.add(projection(person(actor), Map.of("Person_BORN_IN_City", List.of(city))));
+		}
+		return Values.value(projection(movie(i), Map.of("Movie_ACTED_IN_Person", actors)));
+	}
+
+	/**
+	 * @param i The index of the movie
+	 * @param numberOfActors The number of actors, each one born in a city of their own
+	 * @return The same aggregate as {@link #movieProjection(int, int)} in the generic shape
+	 */
+	public MapAccessor movieAggregate(int i, int numberOfActors) {
+
+		Node movie = movie(i);
+		Map<Long, Node> relatedNodes = new LinkedHashMap<>();
+		List<Relationship> relationships = new ArrayList<>();
+
+		List<Node> countries = new ArrayList<>(NUMBER_OF_COUNTRIES);
+		for (int j = 0; j < NUMBER_OF_COUNTRIES; j++) {
+			countries.add(country(j));
+		}
+
+		for (int j = 0; j < numberOfActors; j++) {
+			int actor = i * numberOfActors + j;
+			Node person = person(actor);
+			Node city = city(actor);
+			Node country = countries.get(j % NUMBER_OF_COUNTRIES);
+			relatedNodes.put(person.id(), person);
+			relatedNodes.put(city.id(), city);
+			relatedNodes.put(country.id(), country);
+			relationships.add(relationship(person, "ACTED_IN", movie));
+			relationships.add(relationship(person, "BORN_IN", city));
+			relationships.add(relationship(city, "IN", country));
+		}
+
+		return record(
+				List.of(Constants.NAME_OF_SYNTHESIZED_ROOT_NODE, Constants.NAME_OF_SYNTHESIZED_RELATED_NODES, Constants.NAME_OF_SYNTHESIZED_RELATIONS),
+				new NodeValue(movie),
+				Values.value(relatedNodes.values().stream().map(NodeValue::new).toList()),
+				Values.value(relationships.stream().map(RelationshipValue::new).toList()));
+	}
+
+	public Node node(List<String> labels, Map<String, Object> properties) {
+
+		Map<String, Value> values = new LinkedHashMap<>();
+		properties.forEach((key, value) -> values.put(key, Values.value(value)));
+		return new InternalNode(nextNodeId++, labels, values);
+	}
+
+	public Relationship relationship(Node start, String type, Node end) {
+		return new InternalRelationship(nextRelationshipId++, start.id(), end.id(), type);
+	}
+
+	/**
+	 * Creates the map projection of a node the way the generated statements return it.
+	 *
+	 * @param node The node to project
+	 * @param relatedNodes Lists of projections of related nodes, keyed by their collection name
+	 * @return The projection
+	 */
+	public static Map<String, Object> projection(Node node, Map<String, Object> relatedNodes) {
+
+		Map<String, Object> projection = new LinkedHashMap<>(node.asMap());
+		projection.put(Constants.NAME_OF_INTERNAL_ID, node.id());
+		projection.put(Constants.NAME_OF_LABELS, node.labels());
+		projection.putAll(relatedNodes);
+		return projection;
+	}
+
+	public static MapAccessor record(List<String> keys, Value... values) {
+		return new RecordMapAccessor(new InternalRecord(keys, values));
+	}
+}
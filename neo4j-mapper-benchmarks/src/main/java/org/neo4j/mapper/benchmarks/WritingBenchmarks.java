@@ -0,0 +1,121 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.mapper.benchmarks.domain.Country;
+import org.neo4j.mapper.benchmarks.domain.Person;
+import org.neo4j.mapper.benchmarks.domain.Studio;
+import org.neo4j.mapper.core.mapping.DefaultNeo4jEntityConverter;
+import org.neo4j.mapper.core.mapping.MappingMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link DefaultNeo4jEntityConverter#write(Object, Map)}, that is binding entities to the parameters of the
+ * statement created by {@code CypherGenerator#prepareSaveOf}. Each invocation writes {@value #ENTITIES} entities, so
+ * that the reported throughput and the normalized allocation rate are per entity.
+ *
+ * @author Gerrit Meier
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WritingBenchmarks {
+
+	static final int ENTITIES = 100;
+
+	private DefaultNeo4jEntityConverter converter;
+
+	private List<Country> countries;
+	private List<Studio> studios;
+	private List<Person> persons;
+
+	@Setup
+	public void setup() {
+
+		converter = MappingBenchmarks.createConverter(MappingMetrics.NONE);
+
+		countries = new ArrayList<>(ENTITIES);
+		studios = new ArrayList<>(ENTITIES);
+		persons = new ArrayList<>(ENTITIES);
+		for (int i = 0; i < ENTITIES; i++) {
+			Country country = new Country();
+			country.code = "C" + i;
+			country.name = "Country " + i;
+			country.population = 1_000_000L + i;
+			country.area = 1_000.0 + i;
+			countries.add(country);
+
+			Studio studio = new Studio();
+			studio.name = "Studio " + i;
+			studio.founded = 1900L + i;
+			studio.version = (long) i;
+			studios.add(studio);
+
+			Person person = new Person();
+			person.name = "Person " + i;
+			person.born = 1950L + i;
+			person.birthplace = List.of();
+			persons.add(person);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ENTITIES)
+	public void flatEntities(Blackhole blackhole) {
+		writeAll(countries, blackhole);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ENTITIES)
+	public void versionedEntities(Blackhole blackhole) {
+		writeAll(studios, blackhole);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ENTITIES)
+	public void entitiesWithRelationships(Blackhole blackhole) {
+		writeAll(persons, blackhole);
+	}
+
+	private void writeAll(List<?> entities, Blackhole blackhole) {
+		for (Object entity : entities) {
+			// Sized like the maps of Schema#getRequiredBinderFunctionFor
+			Map<String, Object> parameters = new HashMap<>(4);
+			converter.write(entity, parameters);
+			blackhole.consume(parameters);
+		}
+	}
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.benchmarks.domain;
+
+import java.util.List;
+
+import org.neo4j.mapper.core.schema.DynamicLabels;
+import org.neo4j.mapper.core.schema.Id;
+import org.neo4j.mapper.core.schema.Node;
+
+/**
+ * An entity whose nodes carry more labels than the static ones, resolved on every read.
+ *
+ * @author Gerrit Meier
+ */
+@Node
+public class Release {
+
+	@Id
+	public String name;
+
+	public Long year;
+
+	@DynamicLabels
+	public List<String> labels;
+}
@@ -1,9 +1,71 @@
 package org.neo4j.mapper.core.convert;
 
+import java.util.concurrent.Flow;
+import java.util.stream.Stream;
+
+import org.apiguardian.api.API;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.reactive.RxResult;
 import org.neo4j.driver.types.MapAccessor;
+import org.neo4j.mapper.core.mapping.MappingContext;
 
+/**
+ * Reads records into entities. This interface is implemented by the converters of the mapper and grows with them, it is
+ * not meant to be implemented elsewhere.
+ */
+@API(status = API.Status.INTERNAL, since = "6.0")
 public interface NodeReader {
     // Todo this one would be dope to have ;) Object read(MapAccessor record);
 
+    /**
+     * Maps a single record. Nodes are not mapped onto instances created by previous calls. Read the rows of an
+     * aggregate spanning several records with one {@link MappingContext} per query via
+     * {@link #read(Class, MapAccessor, MappingContext)}.
+     *
+     * @param targetClass The class of the entity to map
+     * @param record      The record to map
+     * @param <T>         The type of the entity
+     * @return The mapped entity
+     */
     <T> T read(Class<T> targetClass, MapAccessor record);
+
+    /**
+     * Maps a single record within the given context. All records read with the same context map the same node onto the
+     * same instance.
+     *
+     * @param targetClass    The class of the entity to map
+     * @param record         The record to map
+     * @param mappingContext The context of the query the record belongs to
+     * @param <T>            The type of the entity
+     * @return The mapped entity
+     */
+    <T> T read(Class<T> targetClass, MapAccessor record, MappingContext mappingContext);
+
+    /**
+     * Maps all records of a result lazily: Records are pulled from the result only when the stream is consumed. Objects
+     * that have not been referenced for a while are dropped from the identity map of the stream, so that memory stays
+     * bounded even for very large results. The returned stream must be consumed sequentially.
+     * <p>
+     * This trades identity for memory: A node that reappears after it has been dropped is mapped again, onto a new
+     * instance. Results that return the rows of one aggregate next to each other (for example sorted by the root) are
+     * not affected. For other results, widen the retention window of the converter or disable dropping altogether.
+     *
+     * @param targetClass The class of the entities to map
+     * @param result      The result to map
+     * @param <T>         The type of the entities
+     * @return A stream of mapped entities, one per record
+     */
+    <T> Stream<T> readAll(Class<T> targetClass, Result result);
+
+    /**
+     * Maps all records of a reactive result. Records are requested from the result only as entities are requested by
+     * the subscriber, one record per entity. Each subscription uses its own identity map, which is bounded the same way
+     * as the one of {@link #readAll(Class, Result)}.
+     *
+     * @param targetClass The class of the entities to map
+     * @param result      The reactive result to map
+     * @param <T>         The type of the entities
+     * @return A publisher of mapped entities, one per record
+     */
+    <T> Flow.Publisher<T> readAll(Class<T> targetClass, RxResult result);
 }
@@ -3,5 +3,15 @@ package org.neo4j.mapper.core.convert;
 import java.util.Map;
 
 public interface NodeWriter {
+
+    /**
+     * Writes an entity into the parameters of a statement saving a single node: The id goes into
+     * {@link org.neo4j.mapper.core.mapping.Constants#NAME_OF_ID}, the properties stored on the node into
+     * {@link org.neo4j.mapper.core.mapping.Constants#NAME_OF_PROPERTIES_PARAM} and the current version of versioned
+     * entities into {@link org.neo4j.mapper.core.mapping.Constants#NAME_OF_VERSION_PARAM}. Relationships are not written.
+     *
+     * @param entity The entity to write
+     * @param node   The parameters to write into
+     */
     void write(Object entity, Map<String, Object> node);
 }
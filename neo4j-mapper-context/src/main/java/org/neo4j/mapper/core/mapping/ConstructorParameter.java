@@ -16,6 +16,18 @@ public interface ConstructorParameter<T> {
 		};
 	}
 
+	static <T> ConstructorParameter<T> of(String name, Class<?> type) {
+		return new ConstructorParameter<T>() {
+			@Override public Class<?> getType() {
+				return type;
+			}
+
+			@Override public String getName() {
+				return name;
+			}
+		};
+	}
+
 	Class<?> getType();
 
 	String getName();
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.core.mapping;
+
+import org.apiguardian.api.API;
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.driver.Result;
+import org.neo4j.mapper.core.support.Assert;
+
+/**
+ * The optional features of a {@link DefaultNeo4jEntityConverter}. Options are immutable and can be shared between
+ * converters, they are created through a {@link #builder() builder}. Everything not configured is turned off.
+ *
+ * @author Gerrit Meier
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "6.0")
+public final class ConverterOptions {
+
+	private static final ConverterOptions DEFAULTS = builder().build();
+
+	@Nullable private final EntityCache entityCache;
+	@Nullable private final LazyAssociationLoader lazyAssociationLoader;
+	private final MappingMetrics metrics;
+	private final long streamingRetentionWindow;
+
+	/**
+	 * @return Options without cache, without loader for lazy associations, without metrics and with the
+	 * {@link DefaultNeo4jEntityConverter#DEFAULT_STREAMING_RETENTION_WINDOW default retention window}
+	 */
+	public static ConverterOptions defaults() {
+		return DEFAULTS;
+	}
+
+	/**
+	 * @return A builder starting from the {@link #defaults()}
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	private ConverterOptions(Builder builder) {
+		this.entityCache = builder.entityCache;
+		this.lazyAssociationLoader = builder.lazyAssociationLoader;
+		this.metrics = builder.metrics;
+		this.streamingRetentionWindow = builder.streamingRetentionWindow;
+	}
+
+	@Nullable
+	public EntityCache getEntityCache() {
+		return entityCache;
+	}
+
+	@Nullable
+	public LazyAssociationLoader getLazyAssociationLoader() {
+		return lazyAssociationLoader;
+	}
+
+	public MappingMetrics getMetrics() {
+		return metrics;
+	}
+
+	public long getStreamingRetentionWindow() {
+		return streamingRetentionWindow;
+	}
+
+	/**
+	 * Builds {@link ConverterOptions}.
+	 */
+	public static final class Builder {
+
+		@Nullable private EntityCache entityCache;
+		@Nullable private LazyAssociationLoader lazyAssociationLoader;
+		private MappingMetrics metrics = MappingMetrics.NONE;
+		private long streamingRetentionWindow = DefaultNeo4jEntityConverter.DEFAULT_STREAMING_RETENTION_WINDOW;
+
+		private Builder() {
+		}
+
+		/**
+		 * @param entityCache A cache shared between queries, entities are looked up in there before they are mapped
+		 * @return This builder
+		 */
+		public Builder entityCache(@Nullable EntityCache entityCache) {
+			this.entityCache = entityCache;
+			return this;
+		}
+
+		/**
+		 * @param lazyAssociationLoader The loader for lazy associations, required if any entity has a lazy association
+		 * @return This builder
+		 */
+		public Builder lazyAssociationLoader(@Nullable LazyAssociationLoader lazyAssociationLoader) {
+			this.lazyAssociationLoader = lazyAssociationLoader;
+			return this;
+		}
+
+		/**
+		 * @param metrics The metrics to record the mapping of records with
+		 * @return This builder
+		 */
+		public Builder metrics(MappingMetrics metrics) {
+
+			Assert.notNull(metrics, "MappingMetrics must not be null!");
+			this.metrics = metrics;
+			return this;
+		}
+
+		/**
+		 * An object that reappears in a stream or publisher after it has been dropped is mapped onto a new instance, see
+		 * {@link DefaultNeo4jEntityConverter#readAll(Class, Result)}.
+		 *
+		 * @param streamingRetentionWindow The number of records an object is retained without being referenced,
+		 * {@link DefaultNeo4jEntityConverter#RETAIN_ALL} to never drop objects
+		 * @return This builder
+		 */
+		public Builder streamingRetentionWindow(long streamingRetentionWindow) {
+
+			Assert.isTrue(streamingRetentionWindow > 0, "The streaming retention window must be positive!");
+			this.streamingRetentionWindow = streamingRetentionWindow;
+			return this;
+		}
+
+		public ConverterOptions build() {
+			return new ConverterOptions(this);
+		}
+	}
+}
@@ -20,25 +20,27 @@ import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.BiConsumer;
-import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.function.Predicate;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import org.jetbrains.annotations.Nullable;
+import org.neo4j.driver.Result;
 import org.neo4j.driver.Value;
 import org.neo4j.driver.Values;
+import org.neo4j.driver.reactive.RxResult;
 import org.neo4j.driver.internal.shaded.reactor.util.annotation.NonNull;
 import org.neo4j.driver.internal.value.NullValue;
 import org.neo4j.driver.types.Entity;
@@ -49,24 +51,61 @@ import org.neo4j.driver.types.Type;
 import org.neo4j.driver.types.TypeSystem;
 import org.neo4j.mapper.core.convert.Neo4jEntityConverter;
 import org.neo4j.mapper.core.convert.Neo4jPersistentPropertyConverter;
-import org.neo4j.mapper.core.schema.TargetNode;
 import org.neo4j.mapper.core.support.Assert;
 import org.neo4j.mapper.core.support.CollectionFactory;
-import org.neo4j.mapper.core.support.ReflectionUtils;
-
-interface KotlinDetector {
-	static boolean isKotlinType(Class<?> type) {
-		return false;
-	}
-}
 
+/**
+ * The default converter. It only holds state that is independent of a single query (the description store, the type
+ * system handles and the compiled mapping plans) and can therefore be shared between threads. The state of mapping a
+ * query lives in a {@link MappingContext}.
+ *
+ * @author Gerrit Meier
+ */
 public final class DefaultNeo4jEntityConverter implements Neo4jEntityConverter {
 
 	private final Instantiators entityInstantiators;
 	private final NodeDescriptionStore nodeDescriptionStore;
 	private final Neo4jConversionService conversionService;
 
-	private final KnownObjects knownObjects = new KnownObjects();
+	/**
+	 * The default number of records an object is kept in the identity map of a stream or publisher without being
+	 * referenced.
+	 */
+	public static final long DEFAULT_STREAMING_RETENTION_WINDOW = 1_000;
+
+	/**
+	 * A retention window that keeps all objects of a stream or publisher in its identity map.
+	 */
+	public static final long RETAIN_ALL = Long.MAX_VALUE;
+
+	/**
+	 * Chunks of a parallel read are not split below this size, mapping a handful of records is cheaper than forking.
+	 */
+	private static final int MIN_PARALLEL_CHUNK_SIZE = 64;
+
+	private final Map<NodeDescription<?>, MappingPlan<?>> mappingPlans = new ConcurrentHashMap<>();
+
+	/**
+	 * Optional cache of entities shared between queries.
+	 */
+	private final @Nullable EntityCache entityCache;
+
+	/**
+	 * Optional loader for lazy associations. Mapping an entity with a lazy association fails without one.
+	 */
+	private final @Nullable LazyAssociationLoader lazyAssociationLoader;
+
+	private final MappingMetrics metrics;
+
+	/**
+	 * Number of records an object is kept in the identity map of a stream or publisher without being referenced.
+	 */
+	private final long streamingRetentionWindow;
+
+	/**
+	 * Timestamps are only taken if they are recorded somewhere.
+	 */
+	private final boolean timed;
 
 	private final Type nodeType;
 	private final Type relationshipType;
@@ -75,15 +114,35 @@ public final class DefaultNeo4jEntityConverter implements Neo4jEntityConverter {
 
 	public DefaultNeo4jEntityConverter(Instantiators entityInstantiators, Neo4jConversionService conversionService,
 			NodeDescriptionStore nodeDescriptionStore, TypeSystem typeSystem) {
+		this(entityInstantiators, conversionService, nodeDescriptionStore, typeSystem, ConverterOptions.defaults());
+	}
+
+	/**
+	 * Creates a converter with optional features like an entity cache, a loader for lazy associations or metrics.
+	 *
+	 * @param entityInstantiators The instantiators to create entities with
+	 * @param conversionService The service converting property values
+	 * @param nodeDescriptionStore The descriptions of all known entities
+	 * @param typeSystem The type system of the driver
+	 * @param options The optional features to use
+	 */
+	public DefaultNeo4jEntityConverter(Instantiators entityInstantiators, Neo4jConversionService conversionService,
+			NodeDescriptionStore nodeDescriptionStore, TypeSystem typeSystem, ConverterOptions options) {
 
 		Assert.notNull(entityInstantiators, "EntityInstantiators must not be null!");
 		Assert.notNull(conversionService, "Neo4jConversionService must not be null!");
 		Assert.notNull(nodeDescriptionStore, "NodeDescriptionStore must not be null!");
 		Assert.notNull(typeSystem, "TypeSystem must not be null!");
+		Assert.notNull(options, "ConverterOptions must not be null!");
 
 		this.entityInstantiators = entityInstantiators;
 		this.conversionService = conversionService;
 		this.nodeDescriptionStore = nodeDescriptionStore;
+		this.entityCache = options.getEntityCache();
+		this.lazyAssociationLoader = options.getLazyAssociationLoader();
+		this.metrics = options.getMetrics();
+		this.timed = metrics != MappingMetrics.NONE;
+		this.streamingRetentionWindow = options.getStreamingRetentionWindow();
 
 		this.nodeType = typeSystem.NODE();
 		this.relationshipType = typeSystem.RELATIONSHIP();
@@ -93,24 +152,196 @@ public final class DefaultNeo4jEntityConverter implements Neo4jEntityConverter {
 
 	@Override
 	public <R> R read(Class<R> targetType, MapAccessor mapAccessor) {
+		return read(targetType, mapAccessor, new MappingContext());
+	}
+
+	@Override
+	public <R> R read(Class<R> targetType, MapAccessor mapAccessor, MappingContext mappingContext) {
+		return read(targetType, mapAccessor, mappingContext.getKnownObjects());
+	}
+
+	@Override
+	public <R> Stream<R> readAll(Class<R> targetType, Result result) {
+
+		// Each stream gets its own identity map, so that objects can be evicted once they have not been
+		// referenced for a while without affecting other streams or single reads.
+		KnownObjects knownObjectsOfStream = new KnownObjects();
+		return result.stream().map(record -> readNext(targetType, new RecordMapAccessor(record), knownObjectsOfStream));
+	}
+
+	@Override
+	public <R> Flow.Publisher<R> readAll(Class<R> targetType, RxResult result) {
+		return new MappingPublisher<>(result.records(), (record, knownObjectsOfSubscription) ->
+				readNext(targetType, record, knownObjectsOfSubscription));
+	}
 
+	/**
+	 * Reads the next record of a stream or publisher and evicts all objects that have not been referenced recently.
+	 */
+	private <R> R readNext(Class<R> targetType, MapAccessor mapAccessor, KnownObjects knownObjects) {
+
+		R entity = read(targetType, mapAccessor, knownObjects);
+		knownObjects.evictObjectsNotAccessedWithin(streamingRetentionWindow);
+		return entity;
+	}
+
+	private <R> R read(Class<R> targetType, MapAccessor mapAccessor, KnownObjects knownObjects) {
+		return readRecord(targetType, getRootNodeDescription(targetType), mapAccessor, knownObjects, null, 0);
+	}
+
+	/**
+	 * Maps a single record as the next record of the given identity map. All read paths go through here, so that events
+	 * and metrics are recorded the same way everywhere.
+	 *
+	 * @param rootIds If not {@literal null}, the internal id of the query root is stored at {@code index}
+	 */
+	private <R> R readRecord(Class<R> targetType, @Nullable NodeDescription<R> rootNodeDescription,
+			MapAccessor mapAccessor, KnownObjects knownObjects, @Nullable long[] rootIds, int index) {
+
+		ReadEvent event = new ReadEvent();
+		event.begin();
+		long start = timed ? System.nanoTime() : 0L;
 		knownObjects.nextRecord();
-		@SuppressWarnings("unchecked") // ¯\_(ツ)_/¯
-		NodeDescription<R> rootNodeDescription = (NodeDescription<R>) nodeDescriptionStore.getNodeDescription(targetType);
-		MapAccessor queryRoot = determineQueryRoot(mapAccessor, rootNodeDescription);
+		MapAccessor queryRoot = requireQueryRoot(mapAccessor, rootNodeDescription, knownObjects);
+		if (rootIds != null) {
+			rootIds[index] = getInternalId(queryRoot);
+		}
+		R entity = mapQueryRoot(mapAccessor, queryRoot, rootNodeDescription, knownObjects);
+		if (timed) {
+			metrics.recordMapped(rootNodeDescription, System.nanoTime() - start);
+		}
+		event.end(targetType, mapAccessor);
+		return entity;
+	}
+
+	/**
+	 * Maps a batch of records in parallel. This is meant for results whose records are independent of each other, like
+	 * flat projections or results with exactly one root per record: The batch is split into chunks, each chunk is mapped
+	 * on the given pool with its own identity map. The entities are returned in the order of the records. If the same
+	 * root node appears in more than one chunk, its records from later chunks are mapped again onto the instance created
+	 * for its first occurrence, so that relationships contained only in later chunks are added to that instance as well.
+	 * Related objects however are not shared between chunks.
+	 *
+	 * @param targetType The class of the entities to map
+	 * @param records The records to map
+	 * @param pool The pool to map the records on
+	 * @param <R> The type of the entities
+	 * @return The mapped entities, one per record
+	 */
+	public <R> List<R> readAllInParallel(Class<R> targetType, List<? extends MapAccessor> records, ForkJoinPool pool) {
+
+		Assert.notNull(pool, "A pool to map the records on is required");
+
+		int numberOfRecords = records.size();
+		Object[] entities = new Object[numberOfRecords];
+		long[] rootIds = new long[numberOfRecords];
+		KnownObjects[] identityMaps = new KnownObjects[numberOfRecords];
+		int chunkSize = Math.max(MIN_PARALLEL_CHUNK_SIZE, numberOfRecords / (pool.getParallelism() * 4));
+		pool.invoke(new ParallelMappingTask<>(targetType, records, entities, rootIds, identityMaps, 0, numberOfRecords, chunkSize));
+
+		// Resolve duplicate roots between chunks: The first occurrence wins and records of the same root from other
+		// chunks are mapped again with the identity map of the first one, adding their relationships to its instance.
+		NodeDescription<R> rootNodeDescription = getRootNodeDescription(targetType);
+		Map<Long, Integer> firstOccurrences = new HashMap<>();
+		List<R> result = new ArrayList<>(numberOfRecords);
+		for (int i = 0; i < numberOfRecords; i++) {
+			Integer first = rootIds[i] == KnownObjects.NO_ID ? null : firstOccurrences.putIfAbsent(rootIds[i], i);
+			if (first == null || identityMaps[first] == identityMaps[i]) {
+				result.add(targetType.cast(entities[i]));
+			} else {
+				result.add(remapRecord(rootNodeDescription, records.get(i), identityMaps[first]));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Maps a record that has already been read and measured once again with another identity map, without recording
+	 * it a second time.
+	 */
+	private <R> R remapRecord(NodeDescription<R> rootNodeDescription, MapAccessor mapAccessor, KnownObjects knownObjects) {
+
+		knownObjects.nextRecord();
+		MapAccessor queryRoot = requireQueryRoot(mapAccessor, rootNodeDescription, knownObjects);
+		return mapQueryRoot(mapAccessor, queryRoot, rootNodeDescription, knownObjects);
+	}
+
+	@SuppressWarnings("unchecked") // ¯\_(ツ)_/¯
+	private <R> NodeDescription<R> getRootNodeDescription(Class<R> targetType) {
+		return (NodeDescription<R>) nodeDescriptionStore.getNodeDescription(targetType);
+	}
+
+	private <R> MapAccessor requireQueryRoot(MapAccessor mapAccessor, @Nullable NodeDescription<R> rootNodeDescription,
+			KnownObjects knownObjects) {
+
+		MapAccessor queryRoot = determineQueryRoot(mapAccessor, rootNodeDescription, knownObjects);
 		if (queryRoot == null) {
 			throw new IllegalArgumentException(String.format("Could not find mappable nodes or relationships inside %s for %s", mapAccessor, rootNodeDescription));
 		}
+		return queryRoot;
+	}
+
+	private <R> R mapQueryRoot(MapAccessor mapAccessor, MapAccessor queryRoot, NodeDescription<R> rootNodeDescription,
+			KnownObjects knownObjects) {
 
 		try {
-			return map(queryRoot, queryRoot, rootNodeDescription);
+			return map(queryRoot, queryRoot, rootNodeDescription, knownObjects);
 		} catch (Exception e) {
 			throw new MappingException("Error mapping " + mapAccessor, e);
 		}
 	}
 
+	/**
+	 * Splits a range of records until it is small enough and maps it then with an identity map of its own. Each task
+	 * writes only to its own range of the shared result arrays.
+	 */
+	private final class ParallelMappingTask<R> extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Class<R> targetType;
+		private final List<? extends MapAccessor> records;
+		private final Object[] entities;
+		private final long[] rootIds;
+		private final KnownObjects[] identityMaps;
+		private final int from;
+		private final int to;
+		private final int chunkSize;
+
+		ParallelMappingTask(Class<R> targetType, List<? extends MapAccessor> records, Object[] entities, long[] rootIds,
+				KnownObjects[] identityMaps, int from, int to, int chunkSize) {
+			this.targetType = targetType;
+			this.records = records;
+			this.entities = entities;
+			this.rootIds = rootIds;
+			this.identityMaps = identityMaps;
+			this.from = from;
+			this.to = to;
+			this.chunkSize = chunkSize;
+		}
+
+		@Override
+		protected void compute() {
+
+			if (to - from > chunkSize) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new ParallelMappingTask<>(targetType, records, entities, rootIds, identityMaps, from, middle, chunkSize),
+						new ParallelMappingTask<>(targetType, records, entities, rootIds, identityMaps, middle, to, chunkSize));
+				return;
+			}
+
+			KnownObjects knownObjects = new KnownObjects();
+			NodeDescription<R> rootNodeDescription = getRootNodeDescription(targetType);
+			for (int i = from; i < to; i++) {
+				entities[i] = readRecord(targetType, rootNodeDescription, records.get(i), knownObjects, rootIds, i);
+				identityMaps[i] = knownObjects;
+			}
+		}
+	}
+
 	@Nullable
-	private <R> MapAccessor determineQueryRoot(MapAccessor mapAccessor, @Nullable NodeDescription<R> rootNodeDescription) {
+	private <R> MapAccessor determineQueryRoot(MapAccessor mapAccessor, @Nullable NodeDescription<R> rootNodeDescription,
+			KnownObjects knownObjects) {
 
 		if (rootNodeDescription == null) {
 			return null;
@@ -149,7 +380,7 @@ public final class DefaultNeo4jEntityConverter implements Neo4jEntityConverter {
 			throw new MappingException("More than one matching node in the record.");
 		} else if (!finalCandidates.isEmpty()) {
 			if (mapAccessor.size() > 1) {
-				queryRoot = mergeRootNodeWithRecord(finalCandidates.get(0), mapAccessor);
+				queryRoot = new NodeWithRecordMapAccessor(finalCandidates.get(0), mapAccessor);
 			} else {
 				queryRoot = finalCandidates.get(0);
 			}
@@ -172,46 +403,29 @@ public final class DefaultNeo4jEntityConverter implements Neo4jEntityConverter {
 		return target;
 	}
 
-	/**
-	 * Merges the root node of a query and the remaining record into one map, adding the internal ID of the node, too.
-	 * Merge happens only when the record contains additional values.
-	 *
-	 * @param node Node whose attributes are about to be merged
-	 * @param record Record that should be merged
-	 * @return A map accessor combining a {@link Node} and an arbitrary record
-	 */
-	private static MapAccessor mergeRootNodeWithRecord(Node node, MapAccessor record) {
-		Map<String, Object> mergedAttributes = new HashMap<>(node.size() + record.size() + 1);
-
-		mergedAttributes.put(Constants.NAME_OF_INTERNAL_ID, node.id());
-		mergedAttributes.put(Constants.NAME_OF_LABELS, node.labels());
-		mergedAttributes.putAll(node.asMap(Function.identity()));
-		mergedAttributes.putAll(record.asMap(Function.identity()));
-
-		return Values.value(mergedAttributes);
-	}
-
 	/**
 	 * @param queryResult The original query result or a reduced form like a node or similar
 	 * @param allValues The original query result
 	 * @param nodeDescription The node description of the current entity to be mapped from the result
+	 * @param knownObjects The objects already mapped
 	 * @param <ET> As in entity type
 	 * @return The mapped entity
 	 */
-	private <ET> ET map(MapAccessor queryResult, MapAccessor allValues, NodeDescription<ET> nodeDescription) {
-		Collection<Relationship> relationshipsFromResult = extractRelationships(allValues);
-		Collection<Node> nodesFromResult = extractNodes(allValues);
-		return map(queryResult, nodeDescription, null, relationshipsFromResult, nodesFromResult);
+	private <ET> ET map(MapAccessor queryResult, MapAccessor allValues, NodeDescription<ET> nodeDescription,
+			KnownObjects knownObjects) {
+		RecordIndex recordIndex = RecordIndex.of(allValues, nodeType, relationshipType, listType);
+		return map(queryResult, nodeDescription, null, recordIndex, knownObjects);
 	}
 
 	private <ET> ET map(MapAccessor queryResult, NodeDescription<ET> nodeDescription,
-			@Nullable Object lastMappedEntity, Collection<Relationship> relationshipsFromResult, Collection<Node> nodesFromResult) {
+			@Nullable Object lastMappedEntity, RecordIndex recordIndex, KnownObjects knownObjects) {
 
 		// if the given result does not contain an identifier to the mapped object cannot get temporarily saved
-		Long internalId = getInternalId(queryResult);
+		long internalId = getInternalId(queryResult);
 
 		Supplier<ET> mappedObjectSupplier = () -> {
 			if (knownObjects.isInCreation(internalId)) {
+				metrics.cycleDetected(nodeDescription);
 				throw new MappingException(
 						String.format(
 								"The node with id %s has a logical cyclic mapping dependency. " +
@@ -229,26 +443,48 @@ public final class DefaultNeo4jEntityConverter implements Neo4jEntityConverter {
 					.getNodeDescription();
 
 			ET instance = instantiate(concreteNodeDescription, queryResult,
-					nodeDescriptionAndLabels.getDynamicLabels(), lastMappedEntity, relationshipsFromResult, nodesFromResult);
+					nodeDescriptionAndLabels.getDynamicLabels(), lastMappedEntity, recordIndex, knownObjects);
 
 			knownObjects.removeFromInCreation(internalId);
 
-			populateProperties(queryResult, nodeDescription, internalId, instance, lastMappedEntity, relationshipsFromResult, nodesFromResult, false);
+			populateProperties(queryResult, nodeDescription, internalId, instance, lastMappedEntity, recordIndex, knownObjects, false);
 
 			PropertyAccessor<ET> propertyAccessor = concreteNodeDescription.getPropertyAccessor(instance);
 			ET bean = propertyAccessor.getBean();
 
 			// save final state of the bean
 			knownObjects.storeObject(internalId, bean);
+			metrics.entityInstantiated(concreteNodeDescription);
 			return bean;
 		};
 
 		@SuppressWarnings("unchecked")
 		ET mappedObject = (ET) knownObjects.getObject(internalId);
 		if (mappedObject == null) {
-			mappedObject = mappedObjectSupplier.get();
-			knownObjects.storeObject(internalId, mappedObject);
-		} else if (knownObjects.alreadyMappedInPreviousRecord(internalId)) {
+			Object cacheId = getCacheId(queryResult, nodeDescription, internalId);
+			if (cacheId != null && !isContainedCompletely(queryResult, nodeDescription, recordIndex)) {
+				// A partial instance must neither be served from the cache nor replace a complete one in there
+				cacheId = null;
+			}
+			Object version = cacheId == null ? null : getVersion(queryResult, nodeDescription);
+			mappedObject = cacheId == null ? null : entityCache.get(nodeDescription, cacheId, version);
+			if (mappedObject == null) {
+				mappedObject = mappedObjectSupplier.get();
+				if (cacheId != null) {
+					entityCache.put(nodeDescription, cacheId, version, mappedObject);
+				}
+			}
+			if (cacheId == null) {
+				knownObjects.storeObject(internalId, mappedObject);
+			} else {
+				// Other threads read the cached instance, so it must not be completed from later records
+				knownObjects.storeSharedObject(internalId, mappedObject);
+			}
+			return mappedObject;
+		}
+
+		metrics.identityMapHit(nodeDescription);
+		if (knownObjects.alreadyMappedInPreviousRecord(internalId) && !knownObjects.isShared(internalId)) {
 			// If the object were created in a run before, it _could_ have missing relationships
 			// (e.g. due to incomplete fetching by a custom query)
 			// in such cases we will add the additional data from the next record.
@@ -257,15 +493,15 @@ public final class DefaultNeo4jEntityConverter implements Neo4jEntityConverter {
 			// AND (!!!)
 			// 2. mutable target types
 			// because we cannot just create new instances
-			populateProperties(queryResult, nodeDescription, internalId, mappedObject, lastMappedEntity, relationshipsFromResult, nodesFromResult, true);
+			populateProperties(queryResult, nodeDescription, internalId, mappedObject, lastMappedEntity, recordIndex, knownObjects, true);
 		}
 		return mappedObject;
 	}
 
 
-	private <ET> void populateProperties(MapAccessor queryResult, NodeDescription<ET> nodeDescription, Long internalId,
+	private <ET> void populateProperties(MapAccessor queryResult, NodeDescription<ET> nodeDescription, long internalId,
 										 ET mappedObject, @Nullable Object lastMappedEntity,
-										 Collection<Relationship> relationshipsFromResult, Collection<Node> nodesFromResult, boolean objectAlreadyMapped) {
+										 RecordIndex recordIndex, KnownObjects knownObjects, boolean objectAlreadyMapped) {
 
 		List<String> allLabels = getLabels(queryResult, nodeDescription);
 		NodeDescriptionAndLabels nodeDescriptionAndLabels = nodeDescriptionStore
@@ -274,46 +510,209 @@ public final class DefaultNeo4jEntityConverter implements Neo4jEntityConverter {
 		@SuppressWarnings("unchecked")
 		NodeDescription<ET> concreteNodeDescription = (NodeDescription<ET>) nodeDescriptionAndLabels
 				.getNodeDescription();
+		MappingPlan<ET> mappingPlan = getMappingPlan(concreteNodeDescription);
 
-		if (!concreteNodeDescription.requiresPropertyPopulation()) {
+		if (!mappingPlan.requiresPropertyPopulation()) {
 			return;
 		}
 
 		PropertyAccessor<ET> propertyAccessor = concreteNodeDescription.getPropertyAccessor(mappedObject);
-		Predicate<GraphPropertyDescription> isConstructorParameter = concreteNodeDescription
-				.getPersistenceConstructor()::isConstructorParameter;
 
 		// if the object were mapped before, we assume that at least all properties are populated
 		if (!objectAlreadyMapped) {
-			boolean isKotlinType = KotlinDetector.isKotlinType(concreteNodeDescription.getUnderlyingClass());
 			// Fill simple properties
-			Consumer<GraphPropertyDescription> handler = populateFrom(queryResult, propertyAccessor,
-					isConstructorParameter, nodeDescriptionAndLabels.getDynamicLabels(), lastMappedEntity, isKotlinType);
-			concreteNodeDescription.doWithProperties(handler);
+			for (MappingPlan.Slot slot : mappingPlan.getPropertySlots()) {
+				populateFrom(queryResult, propertyAccessor, slot, nodeDescriptionAndLabels.getDynamicLabels(), lastMappedEntity, mappingPlan.isKotlinType());
+			}
 		}
 		// in a cyclic graph / with bidirectional relationships, we could end up in a state in which we
 		// reference the start again. Because it is getting still constructed, it won't be in the knownObjects
 		// store unless we temporarily put it there.
 		knownObjects.storeObject(internalId, mappedObject);
 
-		concreteNodeDescription.doWithAssociations(
-				populateFrom(queryResult, nodeDescription, propertyAccessor, isConstructorParameter, objectAlreadyMapped, relationshipsFromResult, nodesFromResult));
+		for (MappingPlan.Slot slot : mappingPlan.getAssociationSlots()) {
+			if (slot.getKind() != MappingPlan.Kind.LAZY_ASSOCIATION) {
+				populateFrom(queryResult, nodeDescription, propertyAccessor, slot, objectAlreadyMapped, recordIndex, knownObjects);
+			} else if (!objectAlreadyMapped) {
+				Collection<Object> lazyAssociation = createLazyAssociation(concreteNodeDescription, slot, internalId, knownObjects);
+				if (lazyAssociation != null) {
+					propertyAccessor.setProperty(slot.getProperty(), lazyAssociation);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return A collection loading the targets of the lazy association on first access, {@literal null} if the source
+	 *         has no internal id
+	 * @throws MappingException if no loader for lazy associations is configured
+	 */
+	@Nullable
+	private Collection<Object> createLazyAssociation(NodeDescription<?> sourceDescription, MappingPlan.Slot slot, long sourceId,
+			KnownObjects knownObjects) {
+
+		LazyAssociationLoader loader = this.lazyAssociationLoader;
+		if (loader == null) {
+			throw new MappingException(String.format(
+					"Cannot map the lazy association %s of %s without a LazyAssociationLoader",
+					slot.getProperty().getFieldName(), sourceDescription.getUnderlyingClass().getName()));
+		}
+		if (sourceId == KnownObjects.NO_ID) {
+			return null;
+		}
+
+		// The targets are mapped within the context of the source, so that they refer to the same instances
+		RelationshipDescription relationshipDescription = slot.getRelationshipDescription();
+		MappingContext mappingContext = new MappingContext(knownObjects);
+		return LazyCollections.of(slot.getProperty().getRawType(),
+				() -> loader.load(sourceDescription, relationshipDescription, sourceId, this, mappingContext));
+	}
+
+	@Override
+	public void write(Object entity, Map<String, Object> parameters) {
+
+		Assert.notNull(entity, "Entity must not be null!");
+		Assert.notNull(parameters, "Parameters must not be null!");
+
+		NodeDescription<?> nodeDescription = nodeDescriptionStore.getNodeDescription(entity.getClass());
+		if (nodeDescription == null) {
+			throw new UnknownEntityException(entity.getClass());
+		}
+		writeProperties(getMappingPlan(nodeDescription), entity, parameters);
+	}
+
+	private void writeProperties(MappingPlan<?> mappingPlan, Object entity, Map<String, Object> parameters) {
+
+		PropertyAccessor<Object> propertyAccessor = mappingPlan.getNodeDescription().getPropertyAccessor(entity);
+
+		List<MappingPlan.Slot> writeSlots = mappingPlan.getWriteSlots();
+		Map<String, Object> properties = new HashMap<>(capacityFor(writeSlots.size()));
+		for (MappingPlan.Slot slot : writeSlots) {
+			properties.put(slot.getProperty().getPropertyName(), writeValue(propertyAccessor, slot));
+		}
+		parameters.put(Constants.NAME_OF_PROPERTIES_PARAM, properties);
+
+		MappingPlan.Slot idSlot = mappingPlan.getIdSlot();
+		if (mappingPlan.getNodeDescription().isUsingInternalIds()) {
+			// Internal ids are passed as is, they are null for new entities
+			parameters.put(Constants.NAME_OF_ID, propertyAccessor.getProperty(idSlot.getProperty()));
+		} else {
+			parameters.put(Constants.NAME_OF_ID, writeValue(propertyAccessor, idSlot));
+		}
+
+		MappingPlan.Slot versionSlot = mappingPlan.getVersionSlot();
+		if (versionSlot != null) {
+			parameters.put(Constants.NAME_OF_VERSION_PARAM, propertyAccessor.getProperty(versionSlot.getProperty()));
+		}
+	}
+
+	private Object writeValue(PropertyAccessor<?> propertyAccessor, MappingPlan.Slot slot) {
+		return conversionService.writeValue(propertyAccessor.getProperty(slot.getProperty()), slot.getType(), slot.getConverter());
+	}
+
+	/**
+	 * @param expectedSize The number of entries a map will hold
+	 * @return The initial capacity of a hash map holding that many entries without rehashing
+	 */
+	private static int capacityFor(int expectedSize) {
+		return (int) Math.ceil(expectedSize / 0.75);
+	}
+
+	/**
+	 * Retrieves the plan for the given node description, compiling it on first access.
+	 *
+	 * @param nodeDescription The node description for which the plan should be retrieved
+	 * @param <ET> As in entity type
+	 * @return The mapping plan
+	 */
+	@SuppressWarnings("unchecked")
+	private <ET> MappingPlan<ET> getMappingPlan(NodeDescription<ET> nodeDescription) {
+		return (MappingPlan<ET>) mappingPlans.computeIfAbsent(nodeDescription, MappingPlan::of);
+	}
+
+	/**
+	 * @param queryResult The result to retrieve the internal id from
+	 * @return The internal id or {@link KnownObjects#NO_ID} if the result does not contain one
+	 */
+	private static long getInternalId(@NonNull MapAccessor queryResult) {
+		if (queryResult instanceof Node) {
+			return ((Node) queryResult).id();
+		}
+		Value internalId = queryResult.get(Constants.NAME_OF_INTERNAL_ID);
+		return internalId == null || internalId.isNull() ? KnownObjects.NO_ID : internalId.asLong();
 	}
 
+	/**
+	 * @return The id under which the entity is cached or {@literal null} if entities of the given description are not
+	 *         cached or the result does not contain an id
+	 */
 	@Nullable
-	private Long getInternalId(@NonNull MapAccessor queryResult) {
-		return queryResult instanceof Node
-				? (Long) ((Node) queryResult).id()
-				: queryResult.get(Constants.NAME_OF_INTERNAL_ID) == null || queryResult.get(Constants.NAME_OF_INTERNAL_ID).isNull()
-				? null
-				: queryResult.get(Constants.NAME_OF_INTERNAL_ID).asLong();
+	private Object getCacheId(MapAccessor queryResult, NodeDescription<?> nodeDescription, long internalId) {
+
+		if (entityCache == null || !entityCache.isCacheable(nodeDescription)) {
+			return null;
+		}
+
+		IdDescription idDescription = nodeDescription.getIdDescription();
+		if (idDescription == null || idDescription.isInternallyGeneratedId()) {
+			return internalId == KnownObjects.NO_ID ? null : internalId;
+		}
+		return idDescription.getOptionalGraphPropertyName()
+				.map(queryResult::get)
+				.filter(value -> !value.isNull())
+				.map(Value::asObject)
+				.orElse(null);
+	}
+
+	/**
+	 * Checks whether the record contains everything the entity is mapped from: All properties, either as a node or as a
+	 * map containing all of them, and the relationships, either projected or as relationship columns. Filtered or
+	 * projected reads and custom queries returning only parts of an entity don't pass this check.
+	 */
+	private boolean isContainedCompletely(MapAccessor queryResult, NodeDescription<?> nodeDescription, RecordIndex recordIndex) {
+
+		MappingPlan<?> mappingPlan = getMappingPlan(nodeDescription);
+		// Nodes contain all their properties, only maps can be projections
+		boolean node = queryResult instanceof Entity || queryResult instanceof NodeWithRecordMapAccessor;
+		if (!(node || queryResult.containsKey(Constants.NAME_OF_ALL_PROPERTIES))) {
+			for (String propertyName : mappingPlan.getReadPropertyNames()) {
+				if (!queryResult.containsKey(propertyName)) {
+					return false;
+				}
+			}
+		}
+		if (recordIndex.hasRelationships() || queryResult.containsKey(Constants.NAME_OF_SYNTHESIZED_RELATIONS)) {
+			return true;
+		}
+		for (RelationshipDescription relationshipDescription : mappingPlan.getEagerRelationships()) {
+			if (!queryResult.containsKey(relationshipDescription.generateRelatedNodesCollectionName(nodeDescription))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Nullable
+	private static Object getVersion(MapAccessor queryResult, NodeDescription<?> nodeDescription) {
+
+		if (!nodeDescription.hasVersionProperty()) {
+			return null;
+		}
+		Value version = queryResult.get(nodeDescription.getRequiredVersionProperty().getPropertyName());
+		return version == null || version.isNull() ? null : version.asObject();
 	}
 
 	@NonNull
 	private NodeDescription<?> getMostConcreteTargetNodeDescription(
 			NodeDescription<?> genericTargetNodeDescription, MapAccessor possibleValueNode) {
 
-		List<String> allLabels = getLabels(possibleValueNode, null);
+		return getMostConcreteTargetNodeDescription(genericTargetNodeDescription, getLabels(possibleValueNode, null));
+	}
+
+	@NonNull
+	private NodeDescription<?> getMostConcreteTargetNodeDescription(
+			NodeDescription<?> genericTargetNodeDescription, List<String> allLabels) {
+
 		NodeDescriptionAndLabels nodeDescriptionAndLabels = nodeDescriptionStore
 				.deriveConcreteNodeDescription(genericTargetNodeDescription, allLabels);
 		return (NodeDescription<?>) nodeDescriptionAndLabels
@@ -359,44 +758,42 @@ public final class DefaultNeo4jEntityConverter implements Neo4jEntityConverter {
 
 	private <ET> ET instantiate(NodeDescription<ET> nodeDescription, MapAccessor values,
 			Collection<String> surplusLabels, @Nullable Object lastMappedEntity,
-			Collection<Relationship> relationshipsFromResult, Collection<Node> nodesFromResult) {
+			RecordIndex recordIndex, KnownObjects knownObjects) {
 
+		MappingPlan<ET> mappingPlan = getMappingPlan(nodeDescription);
 		ParameterValueProvider<ET> parameterValueProvider = new ParameterValueProvider<>() {
 
 			@Override
 			public ET getParameterValue(ConstructorParameter<ET> parameter) {
-				GraphPropertyDescription matchingProperty = nodeDescription.getGraphProperty(parameter.getName()).get();
+				MappingPlan.Slot slot = mappingPlan.getConstructorSlot(parameter.getName());
+				GraphPropertyDescription matchingProperty = slot.getProperty();
 
 				Object result;
-				if (matchingProperty.isRelationship()) {
-					RelationshipDescription relationshipDescription = nodeDescription.getRelationships().stream()
-							.filter(r -> {
-								String propertyFieldName = matchingProperty.getFieldName();
-								return r.getFieldName().equals(propertyFieldName);
-							}).findFirst().get();
-					// If we cannot find any value it does not mean that there isn't any.
-					// The result set might contain associations not named CONCRETE_TYPE_TARGET but ABSTRACT_TYPE_TARGET.
-					// For this we bubble up the hierarchy of NodeDescriptions.
-					result = createInstanceOfRelationships(matchingProperty, values, relationshipDescription, nodeDescription, relationshipsFromResult, nodesFromResult)
-							.orElseGet(() -> {
-								NodeDescription<?> parentNodeDescription = nodeDescription.getParentNodeDescription();
-								ET resultValue = null;
-								while (parentNodeDescription != null) {
-									Optional<Object> value = createInstanceOfRelationships(matchingProperty, values, relationshipDescription, parentNodeDescription, relationshipsFromResult, nodesFromResult);
-									if (value.isPresent()) {
-										resultValue = (ET) value.get();
-										break;
+				switch (slot.getKind()) {
+					case ASSOCIATION -> {
+						RelationshipDescription relationshipDescription = slot.getRelationshipDescription();
+						// If we cannot find any value it does not mean that there isn't any.
+						// The result set might contain associations not named CONCRETE_TYPE_TARGET but ABSTRACT_TYPE_TARGET.
+						// For this we bubble up the hierarchy of NodeDescriptions.
+						result = createInstanceOfRelationships(matchingProperty, values, relationshipDescription, nodeDescription, recordIndex, knownObjects)
+								.orElseGet(() -> {
+									NodeDescription<?> parentNodeDescription = nodeDescription.getParentNodeDescription();
+									ET resultValue = null;
+									while (parentNodeDescription != null) {
+										Optional<Object> value = createInstanceOfRelationships(matchingProperty, values, relationshipDescription, parentNodeDescription, recordIndex, knownObjects);
+										if (value.isPresent()) {
+											resultValue = (ET) value.get();
+											break;
+										}
+										parentNodeDescription = parentNodeDescription.getParentNodeDescription();
 									}
-									parentNodeDescription = parentNodeDescription.getParentNodeDescription();
-								}
-								return resultValue;
-							});
-				} else if (matchingProperty.isDynamicLabels()) {
-					result = createDynamicLabelsProperty(matchingProperty.getType(), surplusLabels);
-				} else if (matchingProperty.isEntityWithRelationshipProperties()) {
-					result = lastMappedEntity;
-				} else {
-					result =  conversionService.readValue(extractValueOf(matchingProperty, values), parameter.getType(), matchingProperty.getOptionalConverter());
+									return resultValue;
+								});
+					}
+					case LAZY_ASSOCIATION -> result = createLazyAssociation(nodeDescription, slot, getInternalId(values), knownObjects);
+					case DYNAMIC_LABELS -> result = createDynamicLabelsProperty(slot.getProperty().getRawType(), surplusLabels);
+					case RELATIONSHIP_PROPERTIES_ENTITY -> result = lastMappedEntity;
+					default -> result = conversionService.readValue(extractValueOf(matchingProperty, values), parameter.getType(), slot.getConverter());
 				}
 				return (ET) result;
 			}
@@ -405,87 +802,71 @@ public final class DefaultNeo4jEntityConverter implements Neo4jEntityConverter {
 		return entityInstantiators.getInstantiatorFor(nodeDescription).createInstance(nodeDescription, parameterValueProvider);
 	}
 
-	private Consumer<GraphPropertyDescription> populateFrom(MapAccessor queryResult,
-			  PropertyAccessor<?> propertyAccessor, Predicate<GraphPropertyDescription> isConstructorParameter,
-			  Collection<String> surplusLabels, @Nullable Object targetNode, boolean ownerIsKotlinType) {
-
-		return property -> {
-			if (isConstructorParameter.test(property)) {
-				return;
-			}
+	private void populateFrom(MapAccessor queryResult, PropertyAccessor<?> propertyAccessor, MappingPlan.Slot slot,
+			Collection<String> surplusLabels, @Nullable Object targetNode, boolean ownerIsKotlinType) {
 
-			if (property.isDynamicLabels()) {
-				propertyAccessor.setProperty(property,
-						createDynamicLabelsProperty(property.getType(), surplusLabels));
-			} else if (property.getType().isAnnotationPresent(TargetNode.class)) {
+		GraphPropertyDescription property = slot.getProperty();
+		switch (slot.getKind()) {
+			case DYNAMIC_LABELS -> propertyAccessor.setProperty(property,
+					createDynamicLabelsProperty(slot.getProperty().getRawType(), surplusLabels));
+			case TARGET_NODE -> {
 				if (queryResult instanceof Relationship) {
 					propertyAccessor.setProperty(property, targetNode);
 				}
-			} else {
-				Object value = conversionService.readValue(extractValueOf(property, queryResult), property.getType(), property.getOptionalConverter());
-				Class<?> rawType = property.getType();
-				propertyAccessor.setProperty(property, getValueOrDefault(ownerIsKotlinType, rawType, value));
 			}
-		};
-	}
-
-	@Nullable
-	private static Object getValueOrDefault(boolean ownerIsKotlinType, Class<?> rawType, @Nullable Object value) {
-
-		return value == null && !ownerIsKotlinType && rawType.isPrimitive() ? ReflectionUtils.getPrimitiveDefault(rawType) : value;
+			default -> {
+				Object value = conversionService.readValue(extractValueOf(property, queryResult), slot.getType(), slot.getConverter());
+				propertyAccessor.setProperty(property, value == null && !ownerIsKotlinType ? slot.getDefaultValue() : value);
+			}
+		}
 	}
 
-	private Consumer<RelationshipDescription> populateFrom(MapAccessor queryResult, NodeDescription<?> baseDescription,
-			PropertyAccessor<?> propertyAccessor, Predicate<GraphPropertyDescription> isConstructorParameter,
-		    boolean objectAlreadyMapped, Collection<Relationship> relationshipsFromResult, Collection<Node> nodesFromResult) {
+	private void populateFrom(MapAccessor queryResult, NodeDescription<?> baseDescription,
+			PropertyAccessor<?> propertyAccessor, MappingPlan.Slot slot,
+			boolean objectAlreadyMapped, RecordIndex recordIndex, KnownObjects knownObjects) {
 
-		return association -> {
+		GraphPropertyDescription persistentProperty = slot.getProperty();
 
-			GraphPropertyDescription persistentProperty = association.getInverse();
+		if (objectAlreadyMapped) {
 
-			if (isConstructorParameter.test(persistentProperty)) {
-				return;
-			}
-
-			if (objectAlreadyMapped) {
-
-				// avoid multiple instances of the "same" object
-				boolean willCreateNewInstance = persistentProperty.getWither() != null;
-				if (willCreateNewInstance) {
-					throw new MappingException("Cannot create a new instance of an already existing object.");
-				}
+			// avoid multiple instances of the "same" object
+			boolean willCreateNewInstance = persistentProperty.getWither() != null;
+			if (willCreateNewInstance) {
+				throw new MappingException("Cannot create a new instance of an already existing object.");
 			}
+		}
 
-			Object propertyValue = propertyAccessor.getProperty(persistentProperty);
+		Object propertyValue = propertyAccessor.getProperty(persistentProperty);
 
-			boolean propertyValueNotNull = propertyValue != null;
+		boolean propertyValueNotNull = propertyValue != null;
 
-			boolean populatedCollection = persistentProperty.isCollectionLike()
-					&& propertyValueNotNull
-					&& !((Collection<?>) propertyValue).isEmpty();
+		boolean populatedCollection = persistentProperty.isCollectionLike()
+				&& propertyValueNotNull
+				&& !((Collection<?>) propertyValue).isEmpty();
 
-			boolean populatedMap = persistentProperty.isMap()
-					&& propertyValueNotNull
-					&& !((Map<?, ?>) propertyValue).isEmpty();
+		boolean populatedMap = persistentProperty.isMap()
+				&& propertyValueNotNull
+				&& !((Map<?, ?>) propertyValue).isEmpty();
 
-			boolean populatedScalarValue = !persistentProperty.isCollectionLike() && !persistentProperty.isMap()
-					&& propertyValueNotNull;
+		boolean populatedScalarValue = !persistentProperty.isCollectionLike() && !persistentProperty.isMap()
+				&& propertyValueNotNull;
 
-			boolean propertyAlreadyPopulated = populatedCollection || populatedMap || populatedScalarValue;
+		boolean propertyAlreadyPopulated = populatedCollection || populatedMap || populatedScalarValue;
 
-			// avoid unnecessary re-assignment of values
-			if (propertyAlreadyPopulated) {
-				return;
-			}
+		// avoid unnecessary re-assignment of values
+		if (propertyAlreadyPopulated) {
+			return;
+		}
 
-			createInstanceOfRelationships(persistentProperty, queryResult, (RelationshipDescription) association, baseDescription, relationshipsFromResult, nodesFromResult)
-					.ifPresent(value -> propertyAccessor.setProperty(persistentProperty, value));
-		};
+		createInstanceOfRelationships(persistentProperty, queryResult, slot.getRelationshipDescription(), baseDescription, recordIndex, knownObjects)
+				.ifPresent(value -> propertyAccessor.setProperty(persistentProperty, value));
 	}
 
 	private Optional<Object> createInstanceOfRelationships(GraphPropertyDescription persistentProperty, MapAccessor values,
-		   RelationshipDescription relationshipDescription, NodeDescription<?> baseDescription, Collection<Relationship> relationshipsFromResult,
-		   Collection<Node> nodesFromResult) {
+		   RelationshipDescription relationshipDescription, NodeDescription<?> baseDescription, RecordIndex recordIndex, KnownObjects knownObjects) {
+
+		RelationshipMappingEvent event = new RelationshipMappingEvent();
+		event.begin();
 
 		String typeOfRelationship = relationshipDescription.getType();
 		String sourceLabel = relationshipDescription.getSource().getPrimaryLabel();
@@ -525,53 +906,52 @@ public final class DefaultNeo4jEntityConverter implements Neo4jEntityConverter {
 
 		List<Object> relationshipsAndProperties = new ArrayList<>();
 
-		if (Values.NULL.equals(list)) {
-			Long sourceNodeId = getInternalId(values);
+		boolean projected = !Values.NULL.equals(list);
+		int numberOfRelatedEntities;
+		if (!projected) {
+			long sourceNodeId = getInternalId(values);
 
-			Function<Relationship, Long> sourceIdSelector = relationshipDescription.isIncoming() ? Relationship::endNodeId : Relationship::startNodeId;
-			Function<Relationship, Long> targetIdSelector = relationshipDescription.isIncoming() ? Relationship::startNodeId : Relationship::endNodeId;
+			ToLongFunction<Relationship> targetIdSelector = relationshipDescription.isIncoming() ? Relationship::startNodeId : Relationship::endNodeId;
 
-			// Retrieve all matching relationships from the result's list(s)
-			Collection<Relationship> allMatchingTypeRelationshipsInResult =
-					extractMatchingRelationships(relationshipsFromResult, relationshipDescription, typeOfRelationship,
-							(possibleRelationship) -> sourceIdSelector.apply(possibleRelationship).equals(sourceNodeId));
-
-			// Retrieve all nodes from the result's list(s)
-			Collection<Node> allNodesWithMatchingLabelInResult = extractMatchingNodes(nodesFromResult, targetLabel);
+			// Retrieve all matching relationships from the record's index and keep only those pointing to a node with the
+			// target label. The related objects are created in the order the target nodes appear in the record.
+			List<Relationship> allMatchingRelationshipsInResult = new ArrayList<>();
+			for (Relationship possibleRelationship : recordIndex.getRelationships(sourceNodeId, relationshipDescription.isIncoming(),
+					relationshipDescription.isDynamic() ? null : typeOfRelationship)) {
+				if (recordIndex.hasLabel(targetIdSelector.applyAsLong(possibleRelationship), targetLabel)) {
+					allMatchingRelationshipsInResult.add(possibleRelationship);
+				}
+			}
+			allMatchingRelationshipsInResult.sort(Comparator.comparingInt(r -> recordIndex.getPosition(targetIdSelector.applyAsLong(r))));
+			numberOfRelatedEntities = allMatchingRelationshipsInResult.size();
 
-			for (Node possibleValueNode : allNodesWithMatchingLabelInResult) {
-				long targetNodeId = possibleValueNode.id();
+			for (Relationship possibleRelationship : allMatchingRelationshipsInResult) {
+				long targetNodeId = targetIdSelector.applyAsLong(possibleRelationship);
+				Node possibleValueNode = recordIndex.getNode(targetNodeId);
 
 				NodeDescription<?> concreteTargetNodeDescription =
-						getMostConcreteTargetNodeDescription(genericTargetNodeDescription, possibleValueNode);
-
-				Set<Relationship> relationshipsProcessed = new HashSet<>();
-				for (Relationship possibleRelationship : allMatchingTypeRelationshipsInResult) {
-					if (targetIdSelector.apply(possibleRelationship) == targetNodeId) {
-
-						Object mappedObject = map(possibleValueNode, concreteTargetNodeDescription, null, relationshipsFromResult, nodesFromResult);
-						if (relationshipDescription.hasRelationshipProperties()) {
-
-							Object relationshipProperties = map(possibleRelationship,
-									(NodeDescription<?>) relationshipDescription.getRelationshipPropertiesEntity(),
-									mappedObject, relationshipsFromResult, nodesFromResult);
-							relationshipsAndProperties.add(relationshipProperties);
-							mappedObjectHandler.accept(possibleRelationship.type(), relationshipProperties);
-						} else {
-							mappedObjectHandler.accept(possibleRelationship.type(), mappedObject);
-						}
-						relationshipsProcessed.add(possibleRelationship);
-					}
+						getMostConcreteTargetNodeDescription(genericTargetNodeDescription, recordIndex.getLabels(targetNodeId));
+
+				Object mappedObject = map(possibleValueNode, concreteTargetNodeDescription, null, recordIndex, knownObjects);
+				if (relationshipDescription.hasRelationshipProperties()) {
+
+					Object relationshipProperties = map(possibleRelationship,
+							(NodeDescription<?>) relationshipDescription.getRelationshipPropertiesEntity(),
+							mappedObject, recordIndex, knownObjects);
+					relationshipsAndProperties.add(relationshipProperties);
+					mappedObjectHandler.accept(possibleRelationship.type(), relationshipProperties);
+				} else {
+					mappedObjectHandler.accept(possibleRelationship.type(), mappedObject);
 				}
-				allMatchingTypeRelationshipsInResult.removeAll(relationshipsProcessed);
 			}
 		} else {
+			numberOfRelatedEntities = list.size();
 			for (Value relatedEntity : list.asList(Function.identity())) {
 
 				NodeDescription<?> concreteTargetNodeDescription =
 						getMostConcreteTargetNodeDescription(genericTargetNodeDescription, relatedEntity);
 
-				Object valueEntry = map(relatedEntity, concreteTargetNodeDescription, null, relationshipsFromResult, nodesFromResult);
+				Object valueEntry = map(relatedEntity, concreteTargetNodeDescription, null, recordIndex, knownObjects);
 
 				if (relationshipDescription.hasRelationshipProperties()) {
 					String relationshipSymbolicName = sourceLabel
@@ -581,16 +961,19 @@ public final class DefaultNeo4jEntityConverter implements Neo4jEntityConverter {
 
 					Object relationshipProperties = map(relatedEntityRelationship,
 							(NodeDescription<?>) relationshipDescription.getRelationshipPropertiesEntity(),
-							valueEntry, relationshipsFromResult, nodesFromResult);
+							valueEntry, recordIndex, knownObjects);
 					relationshipsAndProperties.add(relationshipProperties);
 					mappedObjectHandler.accept(relatedEntity.get(RelationshipDescription.NAME_OF_RELATIONSHIP_TYPE).asString(), relationshipProperties);
 				} else {
-					mappedObjectHandler.accept(relatedEntity.get(RelationshipDescription.NAME_OF_RELATIONSHIP_TYPE).asString(),
+					// Only dynamic relationships project their type
+					mappedObjectHandler.accept(relatedEntity.get(RelationshipDescription.NAME_OF_RELATIONSHIP_TYPE).asString(typeOfRelationship),
 							valueEntry);
 				}
 			}
 		}
 
+		event.end(relationshipDescription, baseDescription, numberOfRelatedEntities, projected);
+
 		if (persistentProperty.isCollectionLike()) {
 			List<Object> returnedValues = relationshipDescription.hasRelationshipProperties() ?  relationshipsAndProperties : value;
 			Collection<Object> target = CollectionFactory.createCollection(persistentProperty.getRawType(), persistentProperty.getComponentType(), returnedValues.size());
@@ -607,58 +990,6 @@ public final class DefaultNeo4jEntityConverter implements Neo4jEntityConverter {
 		}
 	}
 
-	private Collection<Node> extractMatchingNodes(Collection<Node> allNodesInResult, String targetLabel) {
-
-		Predicate<Node> onlyWithMatchingLabels = n -> n.hasLabel(targetLabel);
-		return allNodesInResult.stream()
-				.filter(onlyWithMatchingLabels)
-				.collect(Collectors.toList());
-	}
-
-	private Collection<Node> extractNodes(MapAccessor allValues) {
-		Collection<Node> allNodesInResult = new ArrayList<>();
-		StreamSupport.stream(allValues.values().spliterator(), false)
-				.filter(MappingSupport.isListContainingOnly(listType, this.nodeType))
-				.flatMap(entry -> MappingSupport.extractNodesFromCollection(listType, entry).stream())
-				.forEach(allNodesInResult::add);
-
-		if (allNodesInResult.isEmpty()) {
-			StreamSupport.stream(allValues.values().spliterator(), false)
-					.filter(this.nodeType::isTypeOf)
-					.map(Value::asNode)
-					.forEach(allNodesInResult::add);
-		}
-
-		return allNodesInResult;
-	}
-
-	private Collection<Relationship> extractMatchingRelationships(Collection<Relationship> relationshipsFromResult,
-									  RelationshipDescription relationshipDescription, String typeOfRelationship,
-									  Predicate<Relationship> relationshipPredicate) {
-
-		Predicate<Relationship> onlyWithMatchingType = r -> r.type().equals(typeOfRelationship) || relationshipDescription.isDynamic();
-		return relationshipsFromResult.stream()
-				.filter(onlyWithMatchingType.and(relationshipPredicate))
-				.collect(Collectors.toList());
-	}
-
-	private Collection<Relationship> extractRelationships(MapAccessor allValues) {
-		Collection<Relationship> allRelationshipsInResult = new ArrayList<>();
-		StreamSupport.stream(allValues.values().spliterator(), false)
-				.filter(MappingSupport.isListContainingOnly(listType, this.relationshipType))
-				.flatMap(entry -> MappingSupport.extractRelationshipsFromCollection(listType, entry).stream())
-				.forEach(allRelationshipsInResult::add);
-
-		if (allRelationshipsInResult.isEmpty()) {
-			StreamSupport.stream(allValues.values().spliterator(), false)
-					.filter(this.relationshipType::isTypeOf)
-					.map(Value::asRelationship)
-					.forEach(allRelationshipsInResult::add);
-		}
-
-		return allRelationshipsInResult;
-	}
-
 	private static Value extractValueOf(GraphPropertyDescription property, MapAccessor propertyContainer) {
 		if (property.isInternalIdProperty()) {
 			return propertyContainer instanceof Entity ? Values.value(((Entity) propertyContainer).id())
@@ -692,113 +1023,4 @@ public final class DefaultNeo4jEntityConverter implements Neo4jEntityConverter {
 		});
 		return Values.value(hlp);
 	}
-
-	static class KnownObjects {
-
-		private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-		private final Lock read = lock.readLock();
-		private final Lock write = lock.writeLock();
-
-		private final Map<Long, Object> internalIdStore = new HashMap<>();
-		private final Map<Long, Boolean> internalNextRecord = new HashMap<>();
-		private final Set<Long> idsInCreation = new HashSet<>();
-
-		private void storeObject(@Nullable Long internalId, Object object) {
-			if (internalId == null) {
-				return;
-			}
-			try {
-				write.lock();
-				idsInCreation.remove(internalId);
-				internalIdStore.put(internalId, object);
-				internalNextRecord.put(internalId, false);
-			} finally {
-				write.unlock();
-			}
-		}
-
-		private void setInCreation(@Nullable Long internalId) {
-			if (internalId == null) {
-				return;
-			}
-			try {
-				write.lock();
-				idsInCreation.add(internalId);
-			} finally {
-				write.unlock();
-			}
-		}
-
-		private boolean isInCreation(@Nullable Long internalId) {
-			if (internalId == null) {
-				return false;
-			}
-			try {
-				read.lock();
-				return idsInCreation.contains(internalId);
-			} finally {
-				read.unlock();
-			}
-		}
-
-		@Nullable
-		private Object getObject(@Nullable Long internalId) {
-			if (internalId == null) {
-				return null;
-			}
-			try {
-
-				read.lock();
-
-				Object knownEntity = internalIdStore.get(internalId);
-
-				if (knownEntity != null) {
-					return knownEntity;
-				}
-
-			} finally {
-				read.unlock();
-			}
-			return null;
-		}
-
-		private void removeFromInCreation(@Nullable Long internalId) {
-			if (internalId == null) {
-				return;
-			}
-			try {
-				write.lock();
-				idsInCreation.remove(internalId);
-			} finally {
-				write.unlock();
-			}
-		}
-
-		private boolean alreadyMappedInPreviousRecord(@Nullable Long internalId) {
-			if (internalId == null) {
-				return false;
-			}
-			try {
-
-				read.lock();
-
-				Boolean nextRecord = internalNextRecord.get(internalId);
-
-				if (nextRecord != null) {
-					return nextRecord;
-				}
-
-			} finally {
-				read.unlock();
-			}
-			return false;
-		}
-
-		/**
-		 * Mark all currently existing objects as mapped.
-		 */
-		private void nextRecord() {
-			internalNextRecord.replaceAll((x, y) -> true);
-		}
-	}
 }
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.core.mapping;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+import org.apiguardian.api.API;
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.mapper.core.support.Assert;
+
+/**
+ * A cache of fully mapped entities shared between queries. Entries are keyed by the class mapped by the node description
+ * and the id of the entity (the internal id for database generated ids, the value of the id property otherwise), so
+ * that all descriptions of the same class share their entries. Each entry remembers the
+ * value of the {@link org.neo4j.mapper.core.schema.Version version property} it has been mapped with: A lookup with a
+ * different version misses and drops the entry, so that changes made through the mapper are never served stale.
+ * <p>
+ * The cache is bounded: Entries expire after a fixed time to live and the least recently used entries are evicted once
+ * the maximum size has been reached. Changes that don't increment a version are not detected, entities deleted or
+ * modified that way must be invalidated explicitly.
+ * <p>
+ * Cached instances are handed out to all threads reading the same node. Only immutable entities (or entities treated
+ * as such) should be cached, which is why by default only records without relationships are cached. Mutable entities
+ * can be cached with an explicit predicate. This makes the cache a good fit for reference data. Cached instances are never completed with relationships found in
+ * later records of a query. For the same reason, the converter only caches entities whose record contains all their
+ * properties and relationships, entities mapped from projections or filtered reads are neither cached nor served from
+ * the cache.
+ *
+ * @author Gerrit Meier
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "6.0")
+public final class EntityCache {
+
+	/**
+	 * Caches with at least this many entries are split into segments to reduce lock contention.
+	 */
+	private static final int MIN_SIZE_FOR_SEGMENTS = 256;
+	private static final int NUMBER_OF_SEGMENTS = 16;
+
+	private final Segment[] segments;
+	private final long timeToLiveNanos;
+	private final Predicate<NodeDescription<?>> cacheable;
+	private final LongSupplier nanoTime;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * Creates a cache for all node descriptions of records without relationships. Other classes may be mutable and are
+	 * therefore only cached when explicitly requested through {@link #of(int, Duration, Predicate)}.
+	 *
+	 * @param maximumSize The maximum number of entries
+	 * @param timeToLive The time after which an entry expires
+	 * @return A new cache
+	 */
+	public static EntityCache of(int maximumSize, Duration timeToLive) {
+		return of(maximumSize, timeToLive, nodeDescription -> nodeDescription.getUnderlyingClass().isRecord()
+				&& nodeDescription.getRelationships().isEmpty());
+	}
+
+	/**
+	 * Creates a cache for the node descriptions matching {@code cacheable}.
+	 *
+	 * @param maximumSize The maximum number of entries
+	 * @param timeToLive The time after which an entry expires
+	 * @param cacheable Decides which node descriptions are cached
+	 * @return A new cache
+	 */
+	public static EntityCache of(int maximumSize, Duration timeToLive, Predicate<NodeDescription<?>> cacheable) {
+		return new EntityCache(maximumSize, timeToLive, cacheable, System::nanoTime);
+	}
+
+	EntityCache(int maximumSize, Duration timeToLive, Predicate<NodeDescription<?>> cacheable, LongSupplier nanoTime) {
+
+		Assert.isTrue(maximumSize > 0, "The maximum size must be positive");
+		Assert.notNull(timeToLive, "The time to live must not be null");
+		Assert.isTrue(!(timeToLive.isNegative() || timeToLive.isZero()), "The time to live must be positive");
+		Assert.notNull(cacheable, "The predicate for cacheable node descriptions must not be null");
+
+		int numberOfSegments = maximumSize >= MIN_SIZE_FOR_SEGMENTS ? NUMBER_OF_SEGMENTS : 1;
+		this.segments = new Segment[numberOfSegments];
+		for (int i = 0; i < numberOfSegments; i++) {
+			// Spread the remainder, so that the segments add up to the maximum size
+			segments[i] = new Segment(maximumSize / numberOfSegments + (i < maximumSize % numberOfSegments ? 1 : 0));
+		}
+		this.timeToLiveNanos = toNanosSaturated(timeToLive);
+		this.cacheable = cacheable;
+		this.nanoTime = nanoTime;
+	}
+
+	/**
+	 * @param nodeDescription The node description to check
+	 * @return True, if entities of the given description are cached
+	 */
+	public boolean isCacheable(NodeDescription<?> nodeDescription) {
+		return cacheable.test(nodeDescription);
+	}
+
+	/**
+	 * Retrieves a cached entity. Expired entries and entries mapped with a different version are removed.
+	 *
+	 * @param nodeDescription The description of the entity
+	 * @param id The id of the entity
+	 * @param version The current version of the entity, {@literal null} for unversioned entities
+	 * @param <T> The type of the entity
+	 * @return The cached entity or {@literal null}
+	 */
+	@Nullable
+	public <T> T get(NodeDescription<T> nodeDescription, Object id, @Nullable Object version) {
+
+		Key key = new Key(nodeDescription.getUnderlyingClass(), id);
+		Entry entry = segmentFor(key).get(key, version, nanoTime.getAsLong(), timeToLiveNanos);
+		if (entry == null) {
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		return nodeDescription.getUnderlyingClass().cast(entry.entity);
+	}
+
+	/**
+	 * Stores a mapped entity.
+	 *
+	 * @param nodeDescription The description of the entity
+	 * @param id The id of the entity
+	 * @param version The version the entity has been mapped with, {@literal null} for unversioned entities
+	 * @param entity The entity
+	 */
+	public void put(NodeDescription<?> nodeDescription, Object id, @Nullable Object version, Object entity) {
+
+		Key key = new Key(nodeDescription.getUnderlyingClass(), id);
+		segmentFor(key).put(key, new Entry(entity, version, nanoTime.getAsLong()));
+	}
+
+	/**
+	 * Removes the entity with the given id, for example after it has been deleted.
+	 *
+	 * @param nodeDescription The description of the entity
+	 * @param id The id of the entity
+	 */
+	public void invalidate(NodeDescription<?> nodeDescription, Object id) {
+
+		Key key = new Key(nodeDescription.getUnderlyingClass(), id);
+		segmentFor(key).remove(key);
+	}
+
+	/**
+	 * Removes all entities of the given description.
+	 *
+	 * @param nodeDescription The description of the entities to remove
+	 */
+	public void invalidateAll(NodeDescription<?> nodeDescription) {
+		for (Segment segment : segments) {
+			segment.removeAll(nodeDescription.getUnderlyingClass());
+		}
+	}
+
+	/**
+	 * Removes all entities.
+	 */
+	public void invalidateAll() {
+		for (Segment segment : segments) {
+			segment.clear();
+		}
+	}
+
+	/**
+	 * @return The number of entries, including entries that have expired but have not been removed yet
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			size += segment.size();
+		}
+		return size;
+	}
+
+	/**
+	 * @return The number of lookups that returned a cached entity
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return The number of lookups that did not return a cached entity
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	private Segment segmentFor(Key key) {
+		return segments[(key.hashCode() & Integer.MAX_VALUE) % segments.length];
+	}
+
+	private static long toNanosSaturated(Duration duration) {
+		try {
+			return duration.toNanos();
+		} catch (ArithmeticException e) {
+			return Long.MAX_VALUE;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "EntityCache{size=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount() + "}";
+	}
+
+	/**
+	 * Node descriptions don't implement {@code equals} and the same class may be described more than once (for example
+	 * as the target of a relationship), so entries are keyed by the described class.
+	 */
+	private static final class Key {
+
+		private final Class<?> type;
+		private final Object id;
+		private final int hashCode;
+
+		Key(Class<?> type, Object id) {
+			this.type = type;
+			this.id = id;
+			this.hashCode = 31 * type.hashCode() + id.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key other)) {
+				return false;
+			}
+			return type == other.type && id.equals(other.id);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+	private static final class Entry {
+
+		private final Object entity;
+		private final @Nullable Object version;
+		private final long createdAt;
+
+		Entry(Object entity, @Nullable Object version, long createdAt) {
+			this.entity = entity;
+			this.version = version;
+			this.createdAt = createdAt;
+		}
+	}
+
+	/**
+	 * A part of the cache with a least recently used eviction policy of its own.
+	 */
+	private static final class Segment {
+
+		private final Map<Key, Entry> entries;
+
+		Segment(int maximumSize) {
+			this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+					return size() > maximumSize;
+				}
+			};
+		}
+
+		synchronized Entry get(Key key, @Nullable Object version, long now, long timeToLiveNanos) {
+
+			Entry entry = entries.get(key);
+			if (entry == null) {
+				return null;
+			}
+			if (now - entry.createdAt >= timeToLiveNanos || !Objects.equals(version, entry.version)) {
+				entries.remove(key);
+				return null;
+			}
+			return entry;
+		}
+
+		synchronized void put(Key key, Entry entry) {
+			entries.put(key, entry);
+		}
+
+		synchronized void remove(Key key) {
+			entries.remove(key);
+		}
+
+		synchronized void removeAll(Class<?> type) {
+			Iterator<Key> keys = entries.keySet().iterator();
+			while (keys.hasNext()) {
+				if (keys.next().type == type) {
+					keys.remove();
+				}
+			}
+		}
+
+		synchronized void clear() {
+			entries.clear();
+		}
+
+		synchronized int size() {
+			return entries.size();
+		}
+	}
+}
@@ -2,6 +2,18 @@ package org.neo4j.mapper.core.mapping;
 
 public interface EntityConstructor<T> {
 
+    /**
+     * Returns the persistence constructor of the given type. The constructor is resolved only once per type and invoked
+     * through a {@link java.lang.invoke.MethodHandle}. Records are created through their canonical constructor.
+     *
+     * @param type The type whose persistence constructor should be returned
+     * @param <T> The type of the entity to create
+     * @return The persistence constructor
+     */
+    static <T> EntityConstructor<T> of(Class<T> type) {
+        return MethodHandleEntityConstructor.of(type);
+    }
+
     boolean isConstructorParameter(GraphPropertyDescription property);
 
     T createInstance(ParameterValueProvider<T> parameterValueProvider);
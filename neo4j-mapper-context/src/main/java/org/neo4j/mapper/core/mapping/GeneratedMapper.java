@@ -0,0 +1,54 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.core.mapping;
+
+import org.apiguardian.api.API;
+
+/**
+ * Instantiation and property access for one entity, generated at compile time by the {@code neo4j-mapper-processor}.
+ * Generated mappers are registered as services and preferred over the handle based defaults by the node descriptions
+ * created through {@link NodeDescription#of(Class)}, so that mapping an entity doesn't need any reflection.
+ * <p>
+ * The generated class of an entity {@code com.example.Movie} is named {@code com.example.Movie_Neo4jMapper}, nested
+ * entities are prefixed with the names of their enclosing classes ({@code Outer_Inner_Neo4jMapper}).
+ *
+ * @param <T> The type of the entity
+ * @author Gerrit Meier
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "6.0")
+public interface GeneratedMapper<T> {
+
+	/**
+	 * The suffix of all generated mappers.
+	 */
+	String SUFFIX = "_Neo4jMapper";
+
+	/**
+	 * @return The type of the entity
+	 */
+	Class<T> getType();
+
+	/**
+	 * @return A constructor calling the persistence constructor of the entity directly
+	 */
+	EntityConstructor<T> getPersistenceConstructor();
+
+	/**
+	 * @param instance The instance to access
+	 * @return An accessor reading and writing the fields of the entity directly or through its getters and setters
+	 */
+	PropertyAccessor<T> getPropertyAccessor(T instance);
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.core.mapping;
+
+import java.util.Optional;
+import java.util.ServiceLoader;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Finds the {@link GeneratedMapper generated mapper} of a type. Mappers are looked up once per type through the
+ * {@link ServiceLoader} of the class loader that defined the type. Only the mapper whose class name matches the type is
+ * instantiated.
+ *
+ * @author Gerrit Meier
+ */
+final class GeneratedMappers {
+
+	private static final ClassValue<Optional<GeneratedMapper<?>>> MAPPERS = new ClassValue<>() {
+		@Override
+		protected Optional<GeneratedMapper<?>> computeValue(Class<?> type) {
+			return Optional.ofNullable(findMapper(type));
+		}
+	};
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	static <T> GeneratedMapper<T> find(Class<T> type) {
+		return (GeneratedMapper<T>) MAPPERS.get(type).orElse(null);
+	}
+
+	@Nullable
+	@SuppressWarnings("rawtypes") // A class literal of a generic type is always raw
+	private static GeneratedMapper<?> findMapper(Class<?> type) {
+
+		ClassLoader classLoader = type.getClassLoader();
+		if (classLoader == null) {
+			return null;
+		}
+
+		String nameOfMapper = nameOfMapper(type);
+		ServiceLoader<GeneratedMapper> serviceLoader = ServiceLoader.load(GeneratedMapper.class, classLoader);
+		return serviceLoader.stream()
+				.filter(provider -> provider.type().getName().equals(nameOfMapper))
+				.findFirst()
+				.<GeneratedMapper<?>>map(ServiceLoader.Provider::get)
+				.filter(mapper -> mapper.getType() == type)
+				.orElse(null);
+	}
+
+	/**
+	 * @param type The type of an entity
+	 * @return The binary name of the generated mapper of the type
+	 */
+	static String nameOfMapper(Class<?> type) {
+
+		String packageName = type.getPackageName();
+		String nestedName = packageName.isEmpty() ? type.getName() : type.getName().substring(packageName.length() + 1);
+		return (packageName.isEmpty() ? "" : packageName + ".") + nestedName.replace('$', '_') + GeneratedMapper.SUFFIX;
+	}
+
+	private GeneratedMappers() {
+	}
+}
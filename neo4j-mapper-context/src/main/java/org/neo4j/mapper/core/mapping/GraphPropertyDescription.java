@@ -19,13 +19,17 @@ import org.apiguardian.api.API;
 import org.jetbrains.annotations.Nullable;
 import org.neo4j.mapper.core.convert.Neo4jPersistentPropertyConverter;
 import org.neo4j.mapper.core.schema.DynamicLabels;
+import org.neo4j.mapper.core.schema.Id;
 import org.neo4j.mapper.core.schema.Relationship;
+import org.neo4j.mapper.core.schema.TargetNode;
+import org.neo4j.mapper.core.schema.Version;
 import org.neo4j.mapper.core.support.Neo4jSimpleTypes;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
-import java.util.Collections;
+import java.lang.reflect.Type;
+import java.util.Collection;
 import java.util.Map;
 
 /**
@@ -175,7 +179,7 @@ public interface GraphPropertyDescription {
 
 			@Override
 			public boolean isIdProperty() {
-				return false;
+				return field.isAnnotationPresent(Id.class);
 			}
 
 			@Override
@@ -185,12 +189,12 @@ public interface GraphPropertyDescription {
 
 			@Override
 			public boolean isVersionProperty() {
-				return false;
+				return field.isAnnotationPresent(Version.class);
 			}
 
 			@Override
 			public boolean isCollectionLike() {
-				return Collections.class.isAssignableFrom(field.getType());
+				return Collection.class.isAssignableFrom(field.getType());
 			}
 
 			@Override
@@ -220,7 +224,7 @@ public interface GraphPropertyDescription {
 
 			@Override
 			public boolean isAnnotationPresent(Class<? extends Annotation> annotationType) {
-				return false;
+				return field.isAnnotationPresent(annotationType);
 			}
 
 			@Override
@@ -251,19 +255,31 @@ public interface GraphPropertyDescription {
 
 			@Override
 			public Class<?> getType() {
-				if (isMap()) {
+				if (isDynamicOneToManyAssociation()) {
+					return (Class<?>) ((ParameterizedType) getMapValueArgument()).getActualTypeArguments()[0];
+				} else if (isMap()) {
 					return getMapValueType();
 				}
 				return getComponentType();
 			}
 
+			@Override
+			public boolean isDynamicOneToManyAssociation() {
+				return isDynamicAssociation() && Collection.class.isAssignableFrom(getMapValueType());
+			}
+
+			private Type getMapValueArgument() {
+				return ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[1];
+			}
+
 			private Class<?> getMapValueType() {
-				return (Class<?>) ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[1];
+				Type valueType = getMapValueArgument();
+				return (Class<?>) (valueType instanceof ParameterizedType parameterizedType ? parameterizedType.getRawType() : valueType);
 			}
 
 			@Override
 			public Class<?> getRawType() {
-				return null;
+				return field.getType();
 			}
 
 			@Override
@@ -296,7 +312,8 @@ public interface GraphPropertyDescription {
 				var noSimpleType = !Neo4jSimpleTypes.NEO4J_NATIVE_TYPES.contains(type);
 
 				var hasAnnotation = field.isAnnotationPresent(Relationship.class);
-				return hasAnnotation || noSimpleType;
+				// The target of relationship properties is set from the relationship being mapped
+				return hasAnnotation || noSimpleType && !field.isAnnotationPresent(TargetNode.class);
 			}
 
 			@Override
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.core.mapping;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.apiguardian.api.API;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Keeps all measurements in memory, aggregated per entity class. Records are accounted to the class of their root
+ * entity, the other events to the class of the entity they concern. The converter does not hand out the same
+ * description instance for every occurrence of a class, so the metrics are keyed by the underlying class of the
+ * descriptions. Nothing is ever evicted, the number of entries is bounded by the number of entity classes.
+ * <p>
+ * The metrics can be read at any time, for example by a scheduled reporter, and are reset with {@link #reset()}.
+ *
+ * @author Gerrit Meier
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "6.0")
+public final class InMemoryMappingMetrics implements MappingMetrics {
+
+	private final Map<Class<?>, EntityMetrics> metrics = new ConcurrentHashMap<>();
+
+	@Override
+	public void recordMapped(NodeDescription<?> rootDescription, long durationNanos) {
+		metricsOf(rootDescription).latency.record(durationNanos);
+	}
+
+	@Override
+	public void entityInstantiated(NodeDescription<?> nodeDescription) {
+		metricsOf(nodeDescription).instantiated.increment();
+	}
+
+	@Override
+	public void identityMapHit(NodeDescription<?> nodeDescription) {
+		metricsOf(nodeDescription).identityMapHits.increment();
+	}
+
+	@Override
+	public void cycleDetected(NodeDescription<?> nodeDescription) {
+		metricsOf(nodeDescription).cyclesDetected.increment();
+	}
+
+	private EntityMetrics metricsOf(NodeDescription<?> nodeDescription) {
+
+		// Looking up first avoids locking the bin of an existing entry
+		Class<?> type = nodeDescription.getUnderlyingClass();
+		EntityMetrics entityMetrics = metrics.get(type);
+		return entityMetrics != null ? entityMetrics : metrics.computeIfAbsent(type, key -> new EntityMetrics());
+	}
+
+	/**
+	 * @param type The entity class to retrieve the metrics for
+	 * @return The metrics of the given class, {@literal null} if nothing has been recorded for it
+	 */
+	@Nullable
+	public EntityMetrics getMetrics(Class<?> type) {
+		return metrics.get(type);
+	}
+
+	/**
+	 * @return A live view of the metrics of all entity classes something has been recorded for
+	 */
+	public Map<Class<?>, EntityMetrics> getMetrics() {
+		return Collections.unmodifiableMap(metrics);
+	}
+
+	/**
+	 * Removes all metrics. Measurements recorded concurrently may get lost.
+	 */
+	public void reset() {
+		metrics.clear();
+	}
+
+	@Override
+	public String toString() {
+		return metrics.entrySet().stream()
+				.map(entry -> entry.getKey().getSimpleName() + "=" + entry.getValue())
+				.collect(Collectors.joining(", ", "InMemoryMappingMetrics{", "}"));
+	}
+
+	/**
+	 * The metrics of a single entity class.
+	 */
+	public static final class EntityMetrics {
+
+		private final LatencyHistogram latency = new LatencyHistogram();
+		private final LongAdder instantiated = new LongAdder();
+		private final LongAdder identityMapHits = new LongAdder();
+		private final LongAdder cyclesDetected = new LongAdder();
+
+		private EntityMetrics() {
+		}
+
+		/**
+		 * @return The number of records mapped to this class
+		 */
+		public long getRecordsMapped() {
+			return latency.getCount();
+		}
+
+		/**
+		 * @return The time it took to map the records, per record
+		 */
+		public LatencyHistogram getLatency() {
+			return latency;
+		}
+
+		public long getInstantiated() {
+			return instantiated.sum();
+		}
+
+		public long getIdentityMapHits() {
+			return identityMapHits.sum();
+		}
+
+		public long getCyclesDetected() {
+			return cyclesDetected.sum();
+		}
+
+		@Override
+		public String toString() {
+			return "EntityMetrics{recordsMapped=" + getRecordsMapped() + ", instantiated=" + getInstantiated()
+					+ ", identityMapHits=" + getIdentityMapHits() + ", cyclesDetected=" + getCyclesDetected()
+					+ ", latency=" + latency + "}";
+		}
+	}
+}
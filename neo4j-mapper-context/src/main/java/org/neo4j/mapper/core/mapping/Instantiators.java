@@ -10,4 +10,33 @@ package org.neo4j.mapper.core.mapping;
 public interface Instantiators {
 
 	Instantiator getInstantiatorFor(NodeDescription<?> nodeDescription);
+
+	/**
+	 * Returns instantiators that use the {@link NodeDescription#getPersistenceConstructor() persistence constructor} of
+	 * the node description. For the default node descriptions this constructor is resolved once per entity and invoked
+	 * through a {@link java.lang.invoke.MethodHandle}, records are created through their canonical constructor.
+	 *
+	 * @return Instantiators using the persistence constructor
+	 */
+	static Instantiators usingPersistenceConstructor() {
+		return PersistenceConstructorInstantiator.INSTANCE;
+	}
+}
+
+/**
+ * Stateless instantiator delegating to the persistence constructor of a node description.
+ */
+enum PersistenceConstructorInstantiator implements Instantiators, Instantiator {
+
+	INSTANCE;
+
+	@Override
+	public Instantiator getInstantiatorFor(NodeDescription<?> nodeDescription) {
+		return this;
+	}
+
+	@Override
+	public <ET> ET createInstance(NodeDescription<ET> nodeDescription, ParameterValueProvider<ET> parameterValueProvider) {
+		return nodeDescription.getPersistenceConstructor().createInstance(parameterValueProvider);
+	}
 }
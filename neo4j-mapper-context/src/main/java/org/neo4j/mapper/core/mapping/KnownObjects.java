@@ -0,0 +1,258 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.core.mapping;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Identity map of all objects created while mapping, keyed by the internal id of the node they have been created from.
+ * The map uses open addressing with linear probing over primitive arrays: Neither lookups nor updates of existing
+ * entries box the id or allocate. Next to the object, each entry carries state bits marking it as being in creation
+ * or as shared with other queries and the generation (epoch) of the record it has been mapped in. Moving on to the next
+ * record only increments the current epoch, so that checking whether an object has been mapped in a previous record is
+ * a single comparison.
+ * <p>
+ * Each entry also records the epoch it has been accessed last. This allows long-running consumers to evict objects that
+ * have not been referenced for a while and to keep the map bounded.
+ * <p>
+ * Instances are meant to be confined to the thread doing the mapping and are therefore not thread-safe.
+ *
+ * @author Gerrit Meier
+ */
+final class KnownObjects {
+
+	/**
+	 * Marker for results without an internal id. Objects for those are never stored.
+	 */
+	static final long NO_ID = Long.MIN_VALUE;
+
+	private static final int DEFAULT_CAPACITY = 64;
+
+	private static final byte OCCUPIED = 1;
+	private static final byte IN_CREATION = 1 << 1;
+	private static final byte SHARED = 1 << 2;
+
+	private long[] keys;
+	private Object[] values;
+	private byte[] states;
+	private long[] epochs;
+	private long[] lastAccessEpochs;
+	private long currentEpoch;
+	private long lastEvictionEpoch;
+	private int size;
+	private int resizeThreshold;
+
+	KnownObjects() {
+		allocate(DEFAULT_CAPACITY);
+	}
+
+	void storeObject(long internalId, Object object) {
+		if (internalId == NO_ID) {
+			return;
+		}
+		int index = indexForUpdate(internalId);
+		values[index] = object;
+		states[index] = OCCUPIED;
+		epochs[index] = currentEpoch;
+		lastAccessEpochs[index] = currentEpoch;
+	}
+
+	/**
+	 * Stores an object that is shared with other queries, for example through an {@link EntityCache}. Shared objects are
+	 * never completed from later records.
+	 */
+	void storeSharedObject(long internalId, Object object) {
+		storeObject(internalId, object);
+		int index = indexOf(internalId);
+		if (index >= 0) {
+			states[index] |= SHARED;
+		}
+	}
+
+	boolean isShared(long internalId) {
+		int index = indexOf(internalId);
+		return index >= 0 && (states[index] & SHARED) != 0;
+	}
+
+	void setInCreation(long internalId) {
+		if (internalId == NO_ID) {
+			return;
+		}
+		int index = indexForUpdate(internalId);
+		states[index] |= IN_CREATION;
+		lastAccessEpochs[index] = currentEpoch;
+	}
+
+	boolean isInCreation(long internalId) {
+		int index = indexOf(internalId);
+		return index >= 0 && (states[index] & IN_CREATION) != 0;
+	}
+
+	void removeFromInCreation(long internalId) {
+		int index = indexOf(internalId);
+		if (index >= 0) {
+			states[index] &= ~IN_CREATION;
+		}
+	}
+
+	@Nullable
+	Object getObject(long internalId) {
+		int index = indexOf(internalId);
+		if (index < 0) {
+			return null;
+		}
+		lastAccessEpochs[index] = currentEpoch;
+		return values[index];
+	}
+
+	boolean alreadyMappedInPreviousRecord(long internalId) {
+		int index = indexOf(internalId);
+		return index >= 0 && values[index] != null && epochs[index] < currentEpoch;
+	}
+
+	/**
+	 * Mark all currently existing objects as mapped by starting a new epoch.
+	 */
+	void nextRecord() {
+		++currentEpoch;
+	}
+
+	/**
+	 * Drops all objects that have neither been stored nor retrieved during the given number of most recent records.
+	 * The map is only compacted once per window, so calling this after every record is cheap. Objects in creation are
+	 * always retained.
+	 *
+	 * @param numberOfRecords The number of records an object is retained without being accessed
+	 */
+	void evictObjectsNotAccessedWithin(long numberOfRecords) {
+
+		if (currentEpoch - lastEvictionEpoch < numberOfRecords) {
+			return;
+		}
+		lastEvictionEpoch = currentEpoch;
+
+		long oldestRetainedEpoch = currentEpoch - numberOfRecords;
+		int retained = 0;
+		for (int i = 0; i < states.length; i++) {
+			if (isRetained(i, oldestRetainedEpoch)) {
+				++retained;
+			} else {
+				states[i] = 0;
+				values[i] = null;
+			}
+		}
+
+		int capacity = DEFAULT_CAPACITY;
+		while (capacity / 2 < retained) {
+			capacity <<= 1;
+		}
+		rehash(capacity);
+	}
+
+	private boolean isRetained(int index, long oldestRetainedEpoch) {
+		return states[index] != 0 && ((states[index] & IN_CREATION) != 0 || lastAccessEpochs[index] >= oldestRetainedEpoch);
+	}
+
+	private int indexOf(long internalId) {
+		if (internalId == NO_ID) {
+			return -1;
+		}
+		int mask = keys.length - 1;
+		int index = hash(internalId) & mask;
+		while (states[index] != 0) {
+			if (keys[index] == internalId) {
+				return index;
+			}
+			index = (index + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the slot for the given id, claiming a free one if the id is not yet present.
+	 */
+	private int indexForUpdate(long internalId) {
+		int mask = keys.length - 1;
+		int index = hash(internalId) & mask;
+		while (states[index] != 0) {
+			if (keys[index] == internalId) {
+				return index;
+			}
+			index = (index + 1) & mask;
+		}
+		if (size >= resizeThreshold) {
+			rehash(keys.length << 1);
+			return indexForUpdate(internalId);
+		}
+		keys[index] = internalId;
+		states[index] = OCCUPIED;
+		++size;
+		return index;
+	}
+
+	private void rehash(int newCapacity) {
+		long[] oldKeys = keys;
+		Object[] oldValues = values;
+		byte[] oldStates = states;
+		long[] oldEpochs = epochs;
+		long[] oldLastAccessEpochs = lastAccessEpochs;
+
+		allocate(newCapacity);
+		int mask = newCapacity - 1;
+		for (int i = 0; i < oldStates.length; i++) {
+			if (oldStates[i] == 0) {
+				continue;
+			}
+			int index = hash(oldKeys[i]) & mask;
+			while (states[index] != 0) {
+				index = (index + 1) & mask;
+			}
+			keys[index] = oldKeys[i];
+			values[index] = oldValues[i];
+			states[index] = oldStates[i];
+			epochs[index] = oldEpochs[i];
+			lastAccessEpochs[index] = oldLastAccessEpochs[i];
+			++size;
+		}
+	}
+
+	private void allocate(int capacity) {
+		this.keys = new long[capacity];
+		this.values = new Object[capacity];
+		this.states = new byte[capacity];
+		this.epochs = new long[capacity];
+		this.lastAccessEpochs = new long[capacity];
+		this.size = 0;
+		this.resizeThreshold = capacity / 2 + capacity / 4;
+	}
+
+	/**
+	 * Internal ids are mostly dense and sequential, so the bits are spread (Fibonacci hashing) before masking.
+	 */
+	private static int hash(long internalId) {
+		long h = internalId * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	@Override
+	public String toString() {
+		return "KnownObjects{size=" + size + ", capacity=" + keys.length + "}";
+	}
+
+	int size() {
+		return size;
+	}
+}
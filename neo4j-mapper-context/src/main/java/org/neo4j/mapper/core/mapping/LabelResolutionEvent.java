@@ -0,0 +1,65 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.core.mapping;
+
+import java.util.List;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Emitted when the concrete node description for the labels of a node is resolved. Resolved label combinations are
+ * cached, so that only the first resolution of a combination is expensive.
+ *
+ * @author Gerrit Meier
+ */
+@Name("org.neo4j.mapper.ResolveLabels")
+@Label("Resolve Labels")
+@Description("Resolution of the concrete node description and the dynamic labels of a node")
+@Category({ "Neo4j Mapper", "Schema" })
+@Threshold("1 ms")
+final class LabelResolutionEvent extends Event {
+
+	@Label("Entity Type")
+	@Description("The type the node has been requested as")
+	Class<?> entityType;
+
+	@Label("Labels")
+	String labels;
+
+	@Label("Resolved Type")
+	Class<?> resolvedType;
+
+	@Label("Dynamic Labels")
+	@Description("The number of labels not covered by the resolved type")
+	int dynamicLabels;
+
+	void end(NodeDescription<?> entityDescription, List<String> labels, NodeDescriptionAndLabels result) {
+
+		end();
+		if (shouldCommit()) {
+			this.entityType = entityDescription.getUnderlyingClass();
+			this.labels = String.join(",", labels);
+			this.resolvedType = result.getNodeDescription().getUnderlyingClass();
+			this.dynamicLabels = result.getDynamicLabels().size();
+			commit();
+		}
+	}
+}
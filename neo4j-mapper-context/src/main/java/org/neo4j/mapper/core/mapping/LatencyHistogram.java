@@ -0,0 +1,137 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.core.mapping;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apiguardian.api.API;
+import org.neo4j.mapper.core.support.Assert;
+
+/**
+ * A histogram of durations in nanoseconds with one bucket per power of two. Bucket {@code i} counts the values between
+ * {@code 2^(i-1)} (inclusive) and {@code 2^i} (exclusive), bucket {@code 0} the value zero. Recording is lock-free and
+ * doesn't allocate, at the price of a relative error of up to a factor of two for percentiles.
+ * <p>
+ * Reads are not atomic with respect to concurrent recordings: A percentile taken while values are recorded reflects some,
+ * but not necessarily all of them.
+ *
+ * @author Gerrit Meier
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "6.0")
+public final class LatencyHistogram {
+
+	private static final int NUMBER_OF_BUCKETS = 64;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(NUMBER_OF_BUCKETS);
+	private final LongAdder totalNanos = new LongAdder();
+	private final AtomicLong maxNanos = new AtomicLong();
+
+	/**
+	 * @param durationNanos The duration to record, negative values (from a clock going backwards) count as zero
+	 */
+	public void record(long durationNanos) {
+
+		long value = Math.max(0, durationNanos);
+		buckets.incrementAndGet(bucketOf(value));
+		totalNanos.add(value);
+		long max = maxNanos.get();
+		while (value > max && !maxNanos.compareAndSet(max, value)) {
+			max = maxNanos.get();
+		}
+	}
+
+	private static int bucketOf(long value) {
+		return Long.SIZE - Long.numberOfLeadingZeros(value);
+	}
+
+	/**
+	 * @return The number of recorded values
+	 */
+	public long getCount() {
+
+		long count = 0;
+		for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+			count += buckets.get(i);
+		}
+		return count;
+	}
+
+	/**
+	 * @return The sum of all recorded values
+	 */
+	public long getTotalNanos() {
+		return totalNanos.sum();
+	}
+
+	/**
+	 * @return The largest recorded value
+	 */
+	public long getMaxNanos() {
+		return maxNanos.get();
+	}
+
+	/**
+	 * @return The mean of all recorded values, 0 if there are none
+	 */
+	public double getMeanNanos() {
+
+		long count = getCount();
+		return count == 0 ? 0.0 : (double) getTotalNanos() / count;
+	}
+
+	/**
+	 * Returns an upper bound of the given percentile: The largest value of the bucket containing it ({@code 2^i - 1} for
+	 * bucket {@code i}), but never more than the largest recorded value.
+	 *
+	 * @param percentile The percentile between 0 and 100
+	 * @return The upper bound of the percentile, 0 if no value has been recorded
+	 */
+	public long getPercentileNanos(double percentile) {
+
+		Assert.isTrue(percentile >= 0 && percentile <= 100, "The percentile must be between 0 and 100");
+
+		long[] counts = new long[NUMBER_OF_BUCKETS];
+		long count = 0;
+		for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+			counts[i] = buckets.get(i);
+			count += counts[i];
+		}
+		if (count == 0) {
+			return 0;
+		}
+
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+		long seen = 0;
+		int bucket = 0;
+		while (bucket < NUMBER_OF_BUCKETS - 1) {
+			seen += counts[bucket];
+			if (seen >= rank) {
+				break;
+			}
+			bucket++;
+		}
+		long upperBound = bucket == 0 ? 0 : (bucket == NUMBER_OF_BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1);
+		return Math.min(upperBound, getMaxNanos());
+	}
+
+	@Override
+	public String toString() {
+		return "LatencyHistogram{count=" + getCount() + ", mean=" + Math.round(getMeanNanos()) + "ns, p50="
+				+ getPercentileNanos(50) + "ns, p99=" + getPercentileNanos(99) + "ns, max=" + getMaxNanos() + "ns}";
+	}
+}
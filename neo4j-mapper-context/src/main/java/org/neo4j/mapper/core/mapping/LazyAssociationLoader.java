@@ -0,0 +1,48 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.core.mapping;
+
+import java.util.Collection;
+
+import org.apiguardian.api.API;
+import org.neo4j.mapper.core.convert.NodeReader;
+
+/**
+ * Loads the targets of a {@link RelationshipDescription#isLazy() lazy relationship}. The converter assigns a collection
+ * to lazy associations that calls the loader on first access, possibly long after the owning entity has been mapped
+ * and on a different thread.
+ *
+ * @author Gerrit Meier
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "6.0")
+@FunctionalInterface
+public interface LazyAssociationLoader {
+
+	/**
+	 * Loads and maps all nodes related to a source node.
+	 *
+	 * @param sourceDescription The description of the source node
+	 * @param relationshipDescription The lazy relationship
+	 * @param sourceId The internal id of the source node
+	 * @param nodeReader The reader to map the related nodes with
+	 * @param mappingContext The context of the query the source has been mapped in. Mapping the related nodes within
+	 * that context maps nodes that have already been mapped there, like the source itself, onto the same instances. The
+	 * context is not thread-safe, lazy associations must therefore not be accessed while the query is still mapped.
+	 * @return The mapped targets of the relationship
+	 */
+	Collection<?> load(NodeDescription<?> sourceDescription, RelationshipDescription relationshipDescription,
+			long sourceId, NodeReader nodeReader, MappingContext mappingContext);
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.core.mapping;
+
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Collections standing in for lazy associations. The content is loaded on first access of any method and delegated to
+ * afterwards. Loading happens at most once, even if the collection is accessed concurrently. Once loaded, the
+ * collections are mutable like the ones assigned to eager associations.
+ *
+ * @author Gerrit Meier
+ */
+final class LazyCollections {
+
+	/**
+	 * Creates a lazy collection assignable to an attribute of the given type.
+	 *
+	 * @param attributeType The type of the attribute
+	 * @param loader Loads the content of the collection
+	 * @return A lazy list or set
+	 */
+	static Collection<Object> of(Class<?> attributeType, Supplier<? extends Collection<?>> loader) {
+
+		if (Set.class.isAssignableFrom(attributeType)) {
+			return new LazySet(loader);
+		}
+		return new LazyList(loader);
+	}
+
+	/**
+	 * @param attributeType The type of the attribute
+	 * @return True, if a lazy collection can be assigned to an attribute of the given type
+	 */
+	static boolean isSupported(Class<?> attributeType) {
+		return attributeType == List.class || attributeType == Set.class || attributeType == Collection.class;
+	}
+
+	private static final class LazyList extends AbstractList<Object> implements RandomAccess {
+
+		private final Supplier<? extends Collection<?>> loader;
+		private volatile List<Object> loaded;
+
+		LazyList(Supplier<? extends Collection<?>> loader) {
+			this.loader = loader;
+		}
+
+		private List<Object> delegate() {
+			List<Object> result = loaded;
+			if (result == null) {
+				synchronized (this) {
+					result = loaded;
+					if (result == null) {
+						result = new ArrayList<>(loader.get());
+						loaded = result;
+					}
+				}
+			}
+			return result;
+		}
+
+		@Override
+		public Object get(int index) {
+			return delegate().get(index);
+		}
+
+		@Override
+		public int size() {
+			return delegate().size();
+		}
+
+		@Override
+		public Object set(int index, Object element) {
+			return delegate().set(index, element);
+		}
+
+		@Override
+		public void add(int index, Object element) {
+			delegate().add(index, element);
+		}
+
+		@Override
+		public Object remove(int index) {
+			return delegate().remove(index);
+		}
+
+		@Override
+		public String toString() {
+			return loaded == null ? "LazyList{not loaded}" : loaded.toString();
+		}
+	}
+
+	private static final class LazySet extends AbstractSet<Object> {
+
+		private final Supplier<? extends Collection<?>> loader;
+		private volatile Set<Object> loaded;
+
+		LazySet(Supplier<? extends Collection<?>> loader) {
+			this.loader = loader;
+		}
+
+		private Set<Object> delegate() {
+			Set<Object> result = loaded;
+			if (result == null) {
+				synchronized (this) {
+					result = loaded;
+					if (result == null) {
+						result = new LinkedHashSet<>(loader.get());
+						loaded = result;
+					}
+				}
+			}
+			return result;
+		}
+
+		@Override
+		public Iterator<Object> iterator() {
+			return delegate().iterator();
+		}
+
+		@Override
+		public int size() {
+			return delegate().size();
+		}
+
+		@Override
+		public boolean add(Object element) {
+			return delegate().add(element);
+		}
+
+		@Override
+		public boolean contains(Object element) {
+			return delegate().contains(element);
+		}
+
+		@Override
+		public String toString() {
+			return loaded == null ? "LazySet{not loaded}" : loaded.toString();
+		}
+	}
+
+	private LazyCollections() {
+	}
+}
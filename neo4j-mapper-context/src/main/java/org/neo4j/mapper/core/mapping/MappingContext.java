@@ -0,0 +1,50 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.core.mapping;
+
+import org.apiguardian.api.API;
+
+/**
+ * The state of mapping the records of one query (or one transaction): All objects mapped so far, keyed by the internal
+ * id of the node they have been created from, and the objects currently in creation. Records that are read with the
+ * same context map the same node onto the same instance.
+ * <p>
+ * A converter itself does not hold any state of a query and can be shared, a context however must be confined to one
+ * thread at a time. Open a new context per query or transaction and drop it afterwards.
+ *
+ * @author Gerrit Meier
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "6.0")
+public final class MappingContext {
+
+	private final KnownObjects knownObjects;
+
+	public MappingContext() {
+		this(new KnownObjects());
+	}
+
+	/**
+	 * Creates a context continuing the given identity map, used to hand the state of a running query to lazy
+	 * associations.
+	 */
+	MappingContext(KnownObjects knownObjects) {
+		this.knownObjects = knownObjects;
+	}
+
+	KnownObjects getKnownObjects() {
+		return knownObjects;
+	}
+}
@@ -7,7 +7,7 @@ public class MappingException extends RuntimeException {
         super(message);
     }
 
-	public MappingException(String message, Exception e) {
+	public MappingException(String message, Throwable e) {
 		super(message, e);
 	}
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.core.mapping;
+
+import org.apiguardian.api.API;
+
+/**
+ * Receives measurements from the {@link DefaultNeo4jEntityConverter} while it maps records. All methods are called on
+ * the mapping threads, concurrently and once per event, and must therefore be cheap and thread-safe. Implementations
+ * are expected to aggregate, not to report.
+ * <p>
+ * The converter only takes timestamps if a metrics implementation other than {@link #NONE} is configured.
+ *
+ * @author Gerrit Meier
+ * @see InMemoryMappingMetrics
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "6.0")
+public interface MappingMetrics {
+
+	/**
+	 * Ignores all measurements, this is the default of the converter.
+	 */
+	MappingMetrics NONE = new MappingMetrics() {
+		@Override
+		public String toString() {
+			return "MappingMetrics.NONE";
+		}
+	};
+
+	/**
+	 * Called after a record has been mapped.
+	 *
+	 * @param rootDescription The description of the entity the record has been mapped to
+	 * @param durationNanos The time it took to map the record, including all related entities
+	 */
+	default void recordMapped(NodeDescription<?> rootDescription, long durationNanos) {
+	}
+
+	/**
+	 * Called after an entity has been created and populated, either for the root of a record or for a related node.
+	 *
+	 * @param nodeDescription The concrete description of the entity
+	 */
+	default void entityInstantiated(NodeDescription<?> nodeDescription) {
+	}
+
+	/**
+	 * Called when a node that has already been mapped is taken from the identity map instead of being mapped again.
+	 *
+	 * @param nodeDescription The description the node has been looked up for
+	 */
+	default void identityMapHit(NodeDescription<?> nodeDescription) {
+	}
+
+	/**
+	 * Called when a node is encountered again while it is still being created, right before the mapping fails.
+	 *
+	 * @param nodeDescription The description the node has been looked up for
+	 */
+	default void cycleDetected(NodeDescription<?> nodeDescription) {
+	}
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.core.mapping;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.mapper.core.convert.Neo4jPersistentPropertyConverter;
+import org.neo4j.mapper.core.schema.TargetNode;
+import org.neo4j.mapper.core.support.ReflectionUtils;
+
+/**
+ * A precompiled plan how to map a record onto instances of a single {@link NodeDescription}. Everything that only
+ * depends on the metadata (which properties are passed to the constructor, which ones need to be populated afterwards,
+ * which converter is to be used and which associations need to be walked) is decided once when the plan is created.
+ * Mapping a record only executes the plan. The same holds for the other direction: The plan knows which properties are
+ * written as parameters when saving an instance.
+ *
+ * @param <T> The type of the underlying class
+ * @author Gerrit Meier
+ */
+final class MappingPlan<T> {
+
+	/**
+	 * The different ways a property gets its value.
+	 */
+	enum Kind {
+		/**
+		 * A plain property read from the graph and converted.
+		 */
+		SIMPLE,
+		/**
+		 * A collection receiving the labels not statically defined in the hierarchy.
+		 */
+		DYNAMIC_LABELS,
+		/**
+		 * The target node of a relationship with properties.
+		 */
+		TARGET_NODE,
+		/**
+		 * A property referring to the last mapped entity, used for relationship property containers.
+		 */
+		RELATIONSHIP_PROPERTIES_ENTITY,
+		/**
+		 * A relationship to other nodes.
+		 */
+		ASSOCIATION,
+		/**
+		 * A relationship to other nodes that is loaded on first access.
+		 */
+		LAZY_ASSOCIATION
+	}
+
+	/**
+	 * A single slot of the plan: One property together with everything needed to fill it.
+	 */
+	static final class Slot {
+
+		private final GraphPropertyDescription property;
+		private final Kind kind;
+		private final Class<?> type;
+		@Nullable private final Neo4jPersistentPropertyConverter<?> converter;
+		@Nullable private final RelationshipDescription relationshipDescription;
+		@Nullable private final Object defaultValue;
+
+		private Slot(GraphPropertyDescription property, Kind kind, @Nullable RelationshipDescription relationshipDescription) {
+			this.property = property;
+			this.kind = kind;
+			this.type = property.getType();
+			this.converter = property.getOptionalConverter();
+			this.relationshipDescription = relationshipDescription;
+			this.defaultValue = type.isPrimitive() ? ReflectionUtils.getPrimitiveDefault(type) : null;
+		}
+
+		GraphPropertyDescription getProperty() {
+			return property;
+		}
+
+		Kind getKind() {
+			return kind;
+		}
+
+		Class<?> getType() {
+			return type;
+		}
+
+		@Nullable
+		Neo4jPersistentPropertyConverter<?> getConverter() {
+			return converter;
+		}
+
+		@Nullable
+		RelationshipDescription getRelationshipDescription() {
+			return relationshipDescription;
+		}
+
+		/**
+		 * @return The default value to use for primitive properties when the graph does not provide a value.
+		 */
+		@Nullable
+		Object getDefaultValue() {
+			return defaultValue;
+		}
+	}
+
+	private final NodeDescription<T> nodeDescription;
+	private final EntityConstructor<T> persistenceConstructor;
+	private final Map<String, Slot> constructorSlots;
+	private final List<Slot> propertySlots;
+	private final List<Slot> associationSlots;
+	private final List<Slot> writeSlots;
+	private final List<String> readPropertyNames;
+	private final List<RelationshipDescription> eagerRelationships;
+	private final Slot idSlot;
+	@Nullable private final Slot versionSlot;
+	private final boolean requiresPropertyPopulation;
+	private final boolean kotlinType;
+
+	static <T> MappingPlan<T> of(NodeDescription<T> nodeDescription) {
+		return new MappingPlan<>(nodeDescription);
+	}
+
+	private MappingPlan(NodeDescription<T> nodeDescription) {
+
+		this.nodeDescription = nodeDescription;
+		this.persistenceConstructor = nodeDescription.getPersistenceConstructor();
+		this.requiresPropertyPopulation = nodeDescription.requiresPropertyPopulation();
+		this.kotlinType = KotlinDetector.isKotlinType(nodeDescription.getUnderlyingClass());
+
+		Map<String, RelationshipDescription> relationshipsByFieldName = new HashMap<>();
+		nodeDescription.doWithAssociations(relationshipDescription ->
+				relationshipsByFieldName.put(relationshipDescription.getInverse().getFieldName(), relationshipDescription));
+
+		Map<String, Slot> constructorSlots = new HashMap<>();
+		List<Slot> propertySlots = new ArrayList<>();
+		List<Slot> associationSlots = new ArrayList<>();
+		List<Slot> writeSlots = new ArrayList<>();
+		List<String> readPropertyNames = new ArrayList<>();
+		List<RelationshipDescription> eagerRelationships = new ArrayList<>();
+		boolean usingInternalIds = nodeDescription.isUsingInternalIds();
+		nodeDescription.doWithProperties(property -> {
+			RelationshipDescription relationshipDescription = relationshipsByFieldName.get(property.getFieldName());
+			Slot slot = new Slot(property, kindOf(property, relationshipDescription), relationshipDescription);
+
+			if (persistenceConstructor.isConstructorParameter(property)) {
+				constructorSlots.put(property.getFieldName(), slot);
+			} else if (slot.getKind() == Kind.ASSOCIATION || slot.getKind() == Kind.LAZY_ASSOCIATION) {
+				associationSlots.add(slot);
+			} else {
+				propertySlots.add(slot);
+			}
+
+			// Internal ids and versions are maintained by the database, they are passed separately if at all
+			if (slot.getKind() == Kind.SIMPLE && !property.isVersionProperty()
+					&& !(usingInternalIds && property.isIdProperty())) {
+				writeSlots.add(slot);
+			}
+
+			// Composite properties are spread over several prefixed keys and cannot be checked by name
+			if (slot.getKind() == Kind.SIMPLE && !property.isInternalIdProperty() && !property.isComposite()) {
+				readPropertyNames.add(property.getPropertyName());
+			} else if (slot.getKind() == Kind.ASSOCIATION) {
+				eagerRelationships.add(relationshipDescription);
+			}
+		});
+
+		this.constructorSlots = Collections.unmodifiableMap(constructorSlots);
+		this.propertySlots = Collections.unmodifiableList(propertySlots);
+		this.associationSlots = Collections.unmodifiableList(associationSlots);
+		this.writeSlots = Collections.unmodifiableList(writeSlots);
+		this.readPropertyNames = Collections.unmodifiableList(readPropertyNames);
+		this.eagerRelationships = Collections.unmodifiableList(eagerRelationships);
+		this.idSlot = new Slot(nodeDescription.getRequiredIdProperty(), Kind.SIMPLE, null);
+		this.versionSlot = nodeDescription.hasVersionProperty()
+				? new Slot(nodeDescription.getRequiredVersionProperty(), Kind.SIMPLE, null)
+				: null;
+	}
+
+	private static Kind kindOf(GraphPropertyDescription property, @Nullable RelationshipDescription relationshipDescription) {
+
+		if (relationshipDescription != null && relationshipDescription.isLazy()) {
+			if (!LazyCollections.isSupported(property.getRawType())) {
+				throw new MappingException(String.format(
+						"Cannot load %s lazily, only attributes of type List, Set or Collection are supported",
+						property.getFieldName()));
+			}
+			if (relationshipDescription.hasRelationshipProperties()) {
+				throw new MappingException(String.format(
+						"Cannot load %s lazily, relationships with properties are not supported", property.getFieldName()));
+			}
+			return Kind.LAZY_ASSOCIATION;
+		} else if (relationshipDescription != null) {
+			return Kind.ASSOCIATION;
+		} else if (property.isDynamicLabels()) {
+			return Kind.DYNAMIC_LABELS;
+		} else if (property.isEntityWithRelationshipProperties()) {
+			return Kind.RELATIONSHIP_PROPERTIES_ENTITY;
+		} else if (property.isAnnotationPresent(TargetNode.class)) {
+			return Kind.TARGET_NODE;
+		}
+		return Kind.SIMPLE;
+	}
+
+	NodeDescription<T> getNodeDescription() {
+		return nodeDescription;
+	}
+
+	EntityConstructor<T> getPersistenceConstructor() {
+		return persistenceConstructor;
+	}
+
+	/**
+	 * @param parameterName The name of a constructor parameter
+	 * @return The slot providing the value for the given parameter
+	 */
+	Slot getConstructorSlot(String parameterName) {
+
+		Slot slot = constructorSlots.get(parameterName);
+		if (slot == null) {
+			throw new MappingException(String.format("No property for constructor parameter %s of %s", parameterName,
+					nodeDescription.getUnderlyingClass().getName()));
+		}
+		return slot;
+	}
+
+	/**
+	 * @return All properties that are not passed to the constructor and not associations, in declaration order.
+	 */
+	List<Slot> getPropertySlots() {
+		return propertySlots;
+	}
+
+	/**
+	 * @return All associations that are not passed to the constructor, in declaration order.
+	 */
+	List<Slot> getAssociationSlots() {
+		return associationSlots;
+	}
+
+	/**
+	 * @return All properties that are stored on the node when saving an instance, in declaration order.
+	 */
+	List<Slot> getWriteSlots() {
+		return writeSlots;
+	}
+
+	/**
+	 * @return The graph property names of all simple properties read from a record, in declaration order.
+	 */
+	List<String> getReadPropertyNames() {
+		return readPropertyNames;
+	}
+
+	/**
+	 * @return All relationships that are read from a record instead of being loaded lazily, in declaration order.
+	 */
+	List<RelationshipDescription> getEagerRelationships() {
+		return eagerRelationships;
+	}
+
+	Slot getIdSlot() {
+		return idSlot;
+	}
+
+	@Nullable
+	Slot getVersionSlot() {
+		return versionSlot;
+	}
+
+	boolean requiresPropertyPopulation() {
+		return requiresPropertyPopulation;
+	}
+
+	boolean isKotlinType() {
+		return kotlinType;
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.core.mapping;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.function.BiFunction;
+
+import org.neo4j.driver.Record;
+import org.neo4j.driver.types.MapAccessor;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * A {@link Flow.Publisher} mapping the records of a reactive driver result. Demand is passed through unchanged to the
+ * records publisher: Each requested entity requests exactly one record, so that records are only fetched and mapped
+ * as fast as the subscriber consumes them. Every subscription maps its records with its own identity map.
+ *
+ * @param <T> The type of the mapped entities
+ * @author Gerrit Meier
+ */
+final class MappingPublisher<T> implements Flow.Publisher<T> {
+
+	private final Publisher<Record> records;
+	private final BiFunction<MapAccessor, KnownObjects, T> mappingFunction;
+
+	MappingPublisher(Publisher<Record> records, BiFunction<MapAccessor, KnownObjects, T> mappingFunction) {
+		this.records = records;
+		this.mappingFunction = mappingFunction;
+	}
+
+	@Override
+	public void subscribe(Flow.Subscriber<? super T> subscriber) {
+		Objects.requireNonNull(subscriber, "Subscriber must not be null");
+		records.subscribe(new MappingSubscriber<>(subscriber, mappingFunction));
+	}
+
+	/**
+	 * Subscribes to the records and acts as the subscription of the downstream subscriber at the same time. The reactive
+	 * streams specification guarantees that the signals of the records publisher are serialized, so the identity map
+	 * of a subscription is never accessed concurrently.
+	 */
+	private static final class MappingSubscriber<T> implements Subscriber<Record>, Flow.Subscription {
+
+		private final Flow.Subscriber<? super T> downstream;
+		private final BiFunction<MapAccessor, KnownObjects, T> mappingFunction;
+		private final KnownObjects knownObjects = new KnownObjects();
+
+		private volatile Subscription upstream;
+		private volatile boolean done;
+
+		MappingSubscriber(Flow.Subscriber<? super T> downstream, BiFunction<MapAccessor, KnownObjects, T> mappingFunction) {
+			this.downstream = downstream;
+			this.mappingFunction = mappingFunction;
+		}
+
+		@Override
+		public void onSubscribe(Subscription subscription) {
+			this.upstream = subscription;
+			downstream.onSubscribe(this);
+		}
+
+		@Override
+		public void onNext(Record record) {
+			if (done) {
+				return;
+			}
+
+			T entity;
+			try {
+				entity = mappingFunction.apply(new RecordMapAccessor(record), knownObjects);
+			} catch (RuntimeException e) {
+				done = true;
+				upstream.cancel();
+				downstream.onError(e);
+				return;
+			}
+			downstream.onNext(entity);
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			if (done) {
+				return;
+			}
+			done = true;
+			downstream.onError(throwable);
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+			downstream.onComplete();
+		}
+
+		@Override
+		public void request(long n) {
+			upstream.request(n);
+		}
+
+		@Override
+		public void cancel() {
+			done = true;
+			upstream.cancel();
+		}
+	}
+}
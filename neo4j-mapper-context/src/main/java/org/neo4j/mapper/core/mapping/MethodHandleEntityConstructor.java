@@ -0,0 +1,149 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.core.mapping;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * An {@link EntityConstructor} that resolves the persistence constructor of a class exactly once and invokes it through
+ * a {@link MethodHandle}. The constructor is chosen by the following rules:
+ * <ol>
+ *     <li>The canonical constructor for records</li>
+ *     <li>The only declared constructor if there is exactly one</li>
+ *     <li>The no-args constructor if there is one</li>
+ *     <li>The first public constructor otherwise</li>
+ * </ol>
+ *
+ * @param <T> The type of the entity to create
+ * @author Gerrit Meier
+ */
+final class MethodHandleEntityConstructor<T> implements EntityConstructor<T> {
+
+	private static final ClassValue<MethodHandleEntityConstructor<?>> CONSTRUCTORS = new ClassValue<>() {
+		@Override
+		protected MethodHandleEntityConstructor<?> computeValue(Class<?> type) {
+			return new MethodHandleEntityConstructor<>(type);
+		}
+	};
+
+	private final Class<T> type;
+	private final MethodHandle constructorHandle;
+	private final ConstructorParameter<T>[] parameters;
+	private final Set<String> parameterNames;
+
+	@SuppressWarnings("unchecked")
+	static <T> MethodHandleEntityConstructor<T> of(Class<T> type) {
+		return (MethodHandleEntityConstructor<T>) CONSTRUCTORS.get(type);
+	}
+
+	@SuppressWarnings("unchecked")
+	private MethodHandleEntityConstructor(Class<T> type) {
+
+		this.type = type;
+
+		Constructor<?> constructor = findPersistenceConstructor(type);
+		Class<?>[] parameterTypes = constructor.getParameterTypes();
+		String[] names = parameterNames(type, constructor);
+
+		this.parameters = (ConstructorParameter<T>[]) new ConstructorParameter<?>[parameterTypes.length];
+		for (int i = 0; i < parameterTypes.length; i++) {
+			this.parameters[i] = ConstructorParameter.of(names[i], parameterTypes[i]);
+		}
+		this.parameterNames = new HashSet<>(Arrays.asList(names));
+
+		try {
+			constructor.setAccessible(true);
+			this.constructorHandle = MethodHandles.lookup().unreflectConstructor(constructor)
+					.asType(MethodType.genericMethodType(parameterTypes.length))
+					.asSpreader(Object[].class, parameterTypes.length);
+		} catch (IllegalAccessException | RuntimeException e) {
+			throw new MappingException(String.format("Cannot access the persistence constructor of %s", type.getName()), e);
+		}
+	}
+
+	private static Constructor<?> findPersistenceConstructor(Class<?> type) {
+
+		if (type.isInterface() || type.isPrimitive() || type.isArray()) {
+			throw new MappingException(String.format("Cannot instantiate %s", type.getName()));
+		}
+
+		try {
+			if (type.isRecord()) {
+				Class<?>[] componentTypes = Arrays.stream(type.getRecordComponents())
+						.map(RecordComponent::getType)
+						.toArray(Class<?>[]::new);
+				return type.getDeclaredConstructor(componentTypes);
+			}
+
+			Constructor<?>[] declaredConstructors = type.getDeclaredConstructors();
+			if (declaredConstructors.length == 1) {
+				return declaredConstructors[0];
+			}
+			for (Constructor<?> declaredConstructor : declaredConstructors) {
+				if (declaredConstructor.getParameterCount() == 0) {
+					return declaredConstructor;
+				}
+			}
+			for (Constructor<?> declaredConstructor : declaredConstructors) {
+				if (Modifier.isPublic(declaredConstructor.getModifiers())) {
+					return declaredConstructor;
+				}
+			}
+		} catch (NoSuchMethodException e) {
+			throw new MappingException(String.format("No canonical constructor found for %s", type.getName()), e);
+		}
+		throw new MappingException(String.format("No persistence constructor found for %s", type.getName()));
+	}
+
+	private static String[] parameterNames(Class<?> type, Constructor<?> constructor) {
+
+		if (type.isRecord()) {
+			return Arrays.stream(type.getRecordComponents()).map(RecordComponent::getName).toArray(String[]::new);
+		}
+		return Arrays.stream(constructor.getParameters()).map(Parameter::getName).toArray(String[]::new);
+	}
+
+	@Override
+	public boolean isConstructorParameter(GraphPropertyDescription property) {
+		return parameterNames.contains(property.getFieldName());
+	}
+
+	@Override
+	public T createInstance(ParameterValueProvider<T> parameterValueProvider) {
+
+		Object[] values = new Object[parameters.length];
+		for (int i = 0; i < parameters.length; i++) {
+			values[i] = parameterValueProvider.getParameterValue(parameters[i]);
+		}
+
+		try {
+			return type.cast((Object) constructorHandle.invokeExact(values));
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new MappingException(String.format("Could not create an instance of %s", type.getName()), e);
+		}
+	}
+}
@@ -1,6 +1,8 @@
 package org.neo4j.mapper.core.mapping;
 
+import org.jetbrains.annotations.Nullable;
 import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
 import org.neo4j.mapper.core.convert.Neo4jPersistentPropertyConverter;
 
 public interface Neo4jConversionService {
@@ -8,4 +10,28 @@ public interface Neo4jConversionService {
 	Object convert(String f, Class<?> componentType);
 
 	Object readValue(Value value, Class<?> type, Neo4jPersistentPropertyConverter<?> converter);
+
+	/**
+	 * Converts the value of a property into a value that can be passed as a parameter. The default uses the converter of
+	 * the property if there is one, stores enums by their name and leaves everything else to the driver.
+	 *
+	 * @param value     The value of the property, may be {@literal null}
+	 * @param type      The type of the property
+	 * @param converter The converter of the property, if any
+	 * @return The value to store, {@link Values#NULL} for {@literal null}
+	 */
+	@SuppressWarnings("unchecked")
+	default Value writeValue(@Nullable Object value, Class<?> type, @Nullable Neo4jPersistentPropertyConverter<?> converter) {
+
+		if (converter != null) {
+			return ((Neo4jPersistentPropertyConverter<Object>) converter).write(value);
+		}
+		if (value == null) {
+			return Values.NULL;
+		}
+		if (value instanceof Enum<?> enumValue) {
+			return Values.value(enumValue.name());
+		}
+		return Values.value(value);
+	}
 }
@@ -19,18 +19,19 @@ import org.apiguardian.api.API;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.neo4j.cypherdsl.core.Expression;
+import org.neo4j.cypherdsl.core.SymbolicName;
+import org.neo4j.mapper.core.schema.GeneratedValue;
 import org.neo4j.mapper.core.schema.Id;
+import org.neo4j.mapper.core.schema.IdGenerator;
 import org.neo4j.mapper.core.schema.Node;
+import org.neo4j.mapper.core.schema.RelationshipId;
 import org.neo4j.mapper.core.schema.RelationshipProperties;
 import org.neo4j.mapper.core.support.Lazy;
 import org.neo4j.mapper.core.support.ReflectionUtils;
 import org.neo4j.mapper.core.support.StringUtils;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Parameter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -203,7 +204,12 @@ public interface NodeDescription<T> {
 	GraphPropertyDescription getPersistentNeo4jProperty(Class<? extends Annotation> targetNodeClass);
 
 	static <T> NodeDescription<T> of(Class<T> entityClass) {
-		return new NodeDescriptionImpl<>(entityClass);
+
+		NodeDescriptionEvent event = new NodeDescriptionEvent();
+		event.begin();
+		NodeDescription<T> nodeDescription = new NodeDescriptionImpl<>(entityClass);
+		event.end(nodeDescription);
+		return nodeDescription;
 	}
 
 	boolean requiresPropertyPopulation();
@@ -237,6 +243,9 @@ public interface NodeDescription<T> {
 		private final NodeDescription<?> parentNodeDescription = null;
 		private final Collection<GraphPropertyDescription> properties;
 		private final Collection<RelationshipDescription> relationships;
+		private final Lazy<IdDescription> idDescription = Lazy.of(this::computeIdDescription);
+		private final @Nullable GraphPropertyDescription versionProperty;
+		private final @Nullable GeneratedMapper<T> generatedMapper;
 
 		public NodeDescriptionImpl(Class<T> type) {
 			this.type = type;
@@ -244,6 +253,8 @@ public interface NodeDescription<T> {
 			this.idProperty = findIdProperty(type);
 			this.properties = parseProperties(type);
 			this.relationships = parseRelationships(properties);
+			this.versionProperty = properties.stream().filter(GraphPropertyDescription::isVersionProperty).findFirst().orElse(null);
+			this.generatedMapper = GeneratedMappers.find(type);
 		}
 
 		private List<GraphPropertyDescription> parseProperties(Class<T> type) {
@@ -255,13 +266,16 @@ public interface NodeDescription<T> {
 		private List<RelationshipDescription> parseRelationships(Collection<GraphPropertyDescription> properties) {
 			return properties.stream()
 					.filter(GraphPropertyDescription::isRelationship)
-					.map(RelationshipDescription::of)
+					.map(property -> RelationshipDescription.of(property, this))
 					.toList();
 		}
 
 		private GraphPropertyDescription findIdProperty(Class<?> type) {
+			// Relationship properties are identified by the relationship they are read from
+			Class<? extends Annotation> idAnnotation = type.isAnnotationPresent(RelationshipProperties.class)
+					? RelationshipId.class : Id.class;
 			List<Field> candidates = Arrays.stream(type.getDeclaredFields())
-					.filter(field -> field.isAnnotationPresent(Id.class)).toList();
+					.filter(field -> field.isAnnotationPresent(idAnnotation)).toList();
 			if (candidates.size() != 1) {
 				throw new IllegalStateException("No or too much id fields found for " + type + " namentlich " + candidates);
 			}
@@ -269,6 +283,22 @@ public interface NodeDescription<T> {
 			return GraphPropertyDescription.forField(candidates.get(0));
 		}
 
+		private IdDescription computeIdDescription() {
+
+			SymbolicName symbolicName = Constants.NAME_OF_TYPED_ROOT_NODE.apply(this);
+			GeneratedValue generatedValue = idProperty.findAnnotation(GeneratedValue.class);
+			if (generatedValue == null) {
+				return IdDescription.forAssignedIds(symbolicName, idProperty.getPropertyName());
+			}
+
+			Class<? extends IdGenerator<?>> generatorClass = generatedValue.generatorClass() != GeneratedValue.InternalIdGenerator.class
+					? generatedValue.generatorClass() : generatedValue.value();
+			if (generatorClass == GeneratedValue.InternalIdGenerator.class) {
+				return IdDescription.forInternallyGeneratedIds(symbolicName);
+			}
+			return IdDescription.forExternallyGeneratedIds(symbolicName, generatorClass, null, idProperty.getPropertyName());
+		}
+
 		@Override
 		public String getPrimaryLabel() {
 			return primaryLabel;
@@ -293,7 +323,8 @@ public interface NodeDescription<T> {
 
 		@Override
 		public String getMostAbstractParentLabel(NodeDescription<?> mostAbstractNodeDescription) {
-			return null;
+			// Hierarchies are not tracked yet, every description is its own most abstract parent
+			return primaryLabel;
 		}
 
 		@Override
@@ -387,7 +418,7 @@ public interface NodeDescription<T> {
 
 		@Override
 		public @Nullable IdDescription getIdDescription() {
-			return null;
+			return idDescription.get();
 		}
 
 		@Override
@@ -452,12 +483,12 @@ public interface NodeDescription<T> {
 
 		@Override
 		public boolean hasVersionProperty() {
-			return false;
+			return versionProperty != null;
 		}
 
 		@Override
 		public GraphPropertyDescription getVersionProperty() {
-			return null;
+			return versionProperty;
 		}
 
 		@Override
@@ -486,30 +517,7 @@ public interface NodeDescription<T> {
 
 		@Override
 		public EntityConstructor<T> getPersistenceConstructor() {
-			Constructor<?> constructor = type.getConstructors()[0];
-			return new EntityConstructor<T>() {
-				@Override
-				public boolean isConstructorParameter(GraphPropertyDescription property) {
-					return Arrays.stream(constructor.getParameters()).anyMatch(parameter ->
-						parameter.getName().equals(property.getFieldName()));
-				}
-
-				@Override
-				public T createInstance(ParameterValueProvider<T> parameterValueProvider) {
-					try {
-						Object[] parameters = new Object[constructor.getParameterCount()];
-						Parameter[] constructorParameters = constructor.getParameters();
-						for (int i = 0; i < constructorParameters.length; i++) {
-							Parameter parameter = constructorParameters[i];
-							parameters[i] = parameterValueProvider.getParameterValue(ConstructorParameter.of(parameter));
-						}
-						return (T) constructor.newInstance(parameters);
-					} catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
-						e.printStackTrace();
-					}
-					return null;
-				}
-			};
+			return generatedMapper != null ? generatedMapper.getPersistenceConstructor() : EntityConstructor.of(type);
 		}
 
 		@Override
@@ -538,29 +546,13 @@ public interface NodeDescription<T> {
 		}
 
 		@Override
-		public PropertyAccessor<?> getPropertyAccessor(Object instance) {
-			return new PropertyAccessor<Object>() {
-				@Override
-				public Object getProperty(GraphPropertyDescription graphPropertyDescription) {
-					return null;
-				}
-
-				@Override
-				public void setProperty(GraphPropertyDescription graphPropertyDescription, Object value) {
-					try {
-						getUnderlyingClass()
-							.getField(graphPropertyDescription.getFieldName())
-							.set(instance, value);
-					} catch (IllegalAccessException | NoSuchFieldException e) {
-						e.printStackTrace();
-					}
-
-				}
-
-				@Override public Object getBean() {
-					return instance;
-				}
-			};
+		@SuppressWarnings("unchecked")
+		public <IT> PropertyAccessor<IT> getPropertyAccessor(IT instance) {
+			// Instances of subclasses have fields the generated mapper doesn't know about
+			if (generatedMapper != null && instance.getClass() == type) {
+				return (PropertyAccessor<IT>) generatedMapper.getPropertyAccessor((T) instance);
+			}
+			return VarHandlePropertyAccessor.of(instance);
 		}
 	}
 
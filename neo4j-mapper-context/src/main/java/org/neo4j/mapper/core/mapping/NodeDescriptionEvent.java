@@ -0,0 +1,55 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.core.mapping;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Emitted when a node description is created from a class. This happens once per entity type and store, so the event
+ * is recorded without a threshold.
+ *
+ * @author Gerrit Meier
+ */
+@Name("org.neo4j.mapper.DescribeEntity")
+@Label("Describe Entity")
+@Description("Creation of the node description of an entity class")
+@Category({ "Neo4j Mapper", "Schema" })
+final class NodeDescriptionEvent extends Event {
+
+	@Label("Entity Type")
+	Class<?> entityType;
+
+	@Label("Primary Label")
+	String primaryLabel;
+
+	@Label("Relationships")
+	int relationships;
+
+	void end(NodeDescription<?> nodeDescription) {
+
+		end();
+		if (shouldCommit()) {
+			this.entityType = nodeDescription.getUnderlyingClass();
+			this.primaryLabel = nodeDescription.getPrimaryLabel();
+			this.relationships = nodeDescription.getRelationships().size();
+			commit();
+		}
+	}
+}
@@ -16,27 +16,52 @@
 package org.neo4j.mapper.core.mapping;
 
 import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.jetbrains.annotations.Nullable;
 
 /**
+ * Registry of all known node descriptions. Descriptions are indexed by their primary label and by their underlying
+ * class. The store can be safely shared between threads.
+ *
  * @author Gerrit Meier
  * @author Michael J. Simons
  */
 public final class NodeDescriptionStore {
 
-	private final Map<String, NodeDescription<?>> nodeDescriptionsByPrimaryLabel = new HashMap<>();
+	/**
+	 * Marker for classes that have been looked up without result.
+	 */
+	private static final Optional<NodeDescription<?>> NO_NODE_DESCRIPTION = Optional.empty();
+
+	private final Map<String, NodeDescription<?>> nodeDescriptionsByPrimaryLabel = new ConcurrentHashMap<>();
+
+	private final Map<Class<?>, NodeDescription<?>> nodeDescriptionsByClass = new ConcurrentHashMap<>();
+
+	/**
+	 * Lookups by a class that is not registered itself (a subclass or an interface) are resolved once against the class
+	 * index. Both hits and misses are cached until the content of this store changes.
+	 */
+	private final Map<Class<?>, Optional<NodeDescription<?>>> resolvedNodeDescriptions = new ConcurrentHashMap<>();
+
+	/**
+	 * The number of distinct label combinations is usually tiny compared to the number of times they get resolved.
+	 * Resolved combinations are therefore cached until the content of this store changes.
+	 */
+	private final Map<LabelSetKey, NodeDescriptionAndLabels> concreteNodeDescriptions = new ConcurrentHashMap<>();
 
 	public boolean containsKey(String primaryLabel) {
 		return nodeDescriptionsByPrimaryLabel.containsKey(primaryLabel);
@@ -47,7 +72,13 @@ public final class NodeDescriptionStore {
 	}
 
 	public <T> void put(String primaryLabel, NodeDescription<T> newEntity) {
-		nodeDescriptionsByPrimaryLabel.put(primaryLabel, newEntity);
+		NodeDescription<?> previousEntity = nodeDescriptionsByPrimaryLabel.put(primaryLabel, newEntity);
+		if (previousEntity != null && previousEntity != newEntity) {
+			nodeDescriptionsByClass.remove(previousEntity.getUnderlyingClass(), previousEntity);
+		}
+		nodeDescriptionsByClass.put(newEntity.getUnderlyingClass(), newEntity);
+		resolvedNodeDescriptions.clear();
+		concreteNodeDescriptions.clear();
 	}
 
 	public Set<Map.Entry<String, NodeDescription<?>>> entrySet() {
@@ -63,21 +94,68 @@ public final class NodeDescriptionStore {
 		return nodeDescriptionsByPrimaryLabel.get(primaryLabel);
 	}
 
+	/**
+	 * Retrieves the node description for a class. If the class itself has not been registered, the description of the
+	 * closest registered superclass is returned, followed by the one of the first registered interface.
+	 *
+	 * @param targetType The class to retrieve the description for
+	 * @return The node description or {@literal null} if no matching description has been registered
+	 */
 	@Nullable
 	public NodeDescription<?> getNodeDescription(Class<?> targetType) {
-		for (NodeDescription<?> nodeDescription : values()) {
-			if (nodeDescription.getUnderlyingClass().equals(targetType)) {
-				return nodeDescription;
+		NodeDescription<?> nodeDescription = nodeDescriptionsByClass.get(targetType);
+		if (nodeDescription != null) {
+			return nodeDescription;
+		}
+		return resolvedNodeDescriptions.computeIfAbsent(targetType, this::resolveNodeDescription).orElse(null);
+	}
+
+	private Optional<NodeDescription<?>> resolveNodeDescription(Class<?> targetType) {
+
+		for (Class<?> type = targetType.getSuperclass(); type != null && type != Object.class; type = type.getSuperclass()) {
+			NodeDescription<?> nodeDescription = nodeDescriptionsByClass.get(type);
+			if (nodeDescription != null) {
+				return Optional.of(nodeDescription);
+			}
+		}
+
+		Deque<Class<?>> interfaces = new ArrayDeque<>();
+		for (Class<?> type = targetType; type != null; type = type.getSuperclass()) {
+			interfaces.addAll(Arrays.asList(type.getInterfaces()));
+		}
+		Set<Class<?>> visited = new HashSet<>();
+		while (!interfaces.isEmpty()) {
+			Class<?> type = interfaces.poll();
+			if (!visited.add(type)) {
+				continue;
 			}
+			NodeDescription<?> nodeDescription = nodeDescriptionsByClass.get(type);
+			if (nodeDescription != null) {
+				return Optional.of(nodeDescription);
+			}
+			interfaces.addAll(Arrays.asList(type.getInterfaces()));
 		}
-		return null;
+		return NO_NODE_DESCRIPTION;
 	}
 
 	public NodeDescriptionAndLabels deriveConcreteNodeDescription(NodeDescription<?> entityDescription, List<String> labels) {
 
+		if (labels == null || labels.isEmpty()) {
+			return new NodeDescriptionAndLabels(entityDescription, Collections.emptyList());
+		}
+		LabelResolutionEvent event = new LabelResolutionEvent();
+		event.begin();
+		NodeDescriptionAndLabels result = concreteNodeDescriptions.computeIfAbsent(LabelSetKey.of(entityDescription, labels),
+				key -> computeConcreteNodeDescription(entityDescription, labels));
+		event.end(entityDescription, labels, result);
+		return result;
+	}
+
+	private NodeDescriptionAndLabels computeConcreteNodeDescription(NodeDescription<?> entityDescription, List<String> labels) {
+
 		boolean isConcreteClassThatFulfillsEverything = !Modifier.isAbstract(entityDescription.getUnderlyingClass().getModifiers()) && entityDescription.getStaticLabels().containsAll(labels);
 
-		if (labels == null || labels.isEmpty() || isConcreteClassThatFulfillsEverything) {
+		if (isConcreteClassThatFulfillsEverything) {
 			return new NodeDescriptionAndLabels(entityDescription, Collections.emptyList());
 		}
 
@@ -101,13 +179,60 @@ public final class NodeDescriptionStore {
 				List<String> staticLabels = childNodeDescription.getStaticLabels();
 				Set<String> surplusLabels = new HashSet<>(labels);
 				surplusLabels.removeAll(staticLabels);
-				return new NodeDescriptionAndLabels(childNodeDescription, surplusLabels);
+				return new NodeDescriptionAndLabels(childNodeDescription, Collections.unmodifiableSet(surplusLabels));
 			}
 		}
 
 		Set<String> surplusLabels = new HashSet<>(labels);
 		surplusLabels.remove(entityDescription.getPrimaryLabel());
 		surplusLabels.removeAll(entityDescription.getAdditionalLabels());
-		return new NodeDescriptionAndLabels(entityDescription, surplusLabels);
+		return new NodeDescriptionAndLabels(entityDescription, Collections.unmodifiableSet(surplusLabels));
+	}
+
+	/**
+	 * Key of a resolved label combination: The generic description together with the distinct labels in natural order,
+	 * so that the order in which the database returns the labels does not matter.
+	 */
+	private static final class LabelSetKey {
+
+		private final NodeDescription<?> nodeDescription;
+		private final String[] labels;
+		private final int hashCode;
+
+		static LabelSetKey of(NodeDescription<?> nodeDescription, List<String> labels) {
+
+			String[] sortedLabels = labels.toArray(new String[0]);
+			Arrays.sort(sortedLabels);
+			int distinct = 0;
+			for (int i = 0; i < sortedLabels.length; i++) {
+				if (i == 0 || !sortedLabels[i].equals(sortedLabels[distinct - 1])) {
+					sortedLabels[distinct++] = sortedLabels[i];
+				}
+			}
+			return new LabelSetKey(nodeDescription, distinct == sortedLabels.length ? sortedLabels : Arrays.copyOf(sortedLabels, distinct));
+		}
+
+		private LabelSetKey(NodeDescription<?> nodeDescription, String[] labels) {
+			this.nodeDescription = nodeDescription;
+			this.labels = labels;
+			this.hashCode = 31 * System.identityHashCode(nodeDescription) + Arrays.hashCode(labels);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof LabelSetKey)) {
+				return false;
+			}
+			LabelSetKey that = (LabelSetKey) o;
+			return nodeDescription == that.nodeDescription && Arrays.equals(labels, that.labels);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
 	}
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.core.mapping;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.types.MapAccessor;
+import org.neo4j.driver.types.Node;
+
+/**
+ * A read-only view combining the root node of a query with the remaining record. Keys are resolved against the record
+ * first, then against the properties of the node. In addition, the internal id and the labels of the node are exposed
+ * as {@link Constants#NAME_OF_INTERNAL_ID} and {@link Constants#NAME_OF_LABELS}. Neither the properties of the node nor
+ * the values of the record are copied.
+ *
+ * @author Gerrit Meier
+ */
+final class NodeWithRecordMapAccessor implements MapAccessor {
+
+	private final Node node;
+	private final MapAccessor record;
+
+	/**
+	 * The union of all keys, computed on first access.
+	 */
+	private Set<String> keys;
+
+	NodeWithRecordMapAccessor(Node node, MapAccessor record) {
+		this.node = node;
+		this.record = record;
+	}
+
+	@Override
+	public Iterable<String> keys() {
+		return getKeys();
+	}
+
+	@Override
+	public boolean containsKey(String key) {
+		return record.containsKey(key) || node.containsKey(key) || isVirtualKey(key);
+	}
+
+	@Override
+	public Value get(String key) {
+		if (record.containsKey(key)) {
+			return record.get(key);
+		} else if (node.containsKey(key)) {
+			return node.get(key);
+		} else if (Constants.NAME_OF_INTERNAL_ID.equals(key)) {
+			return Values.value(node.id());
+		} else if (Constants.NAME_OF_LABELS.equals(key)) {
+			return Values.value(node.labels());
+		}
+		return Values.NULL;
+	}
+
+	@Override
+	public int size() {
+		return getKeys().size();
+	}
+
+	@Override
+	public Iterable<Value> values() {
+		return values(Function.identity());
+	}
+
+	@Override
+	public <T> Iterable<T> values(Function<Value, T> mapFunction) {
+		Set<String> allKeys = getKeys();
+		List<T> values = new ArrayList<>(allKeys.size());
+		for (String key : allKeys) {
+			values.add(mapFunction.apply(get(key)));
+		}
+		return values;
+	}
+
+	@Override
+	public Map<String, Object> asMap() {
+		return asMap(Value::asObject);
+	}
+
+	@Override
+	public <T> Map<String, T> asMap(Function<Value, T> mapFunction) {
+		Set<String> allKeys = getKeys();
+		Map<String, T> map = new HashMap<>(allKeys.size() * 4 / 3 + 1);
+		for (String key : allKeys) {
+			map.put(key, mapFunction.apply(get(key)));
+		}
+		return map;
+	}
+
+	private static boolean isVirtualKey(String key) {
+		return Constants.NAME_OF_INTERNAL_ID.equals(key) || Constants.NAME_OF_LABELS.equals(key);
+	}
+
+	private Set<String> getKeys() {
+		Set<String> result = keys;
+		if (result == null) {
+			result = new LinkedHashSet<>();
+			result.add(Constants.NAME_OF_INTERNAL_ID);
+			result.add(Constants.NAME_OF_LABELS);
+			node.keys().forEach(result::add);
+			record.keys().forEach(result::add);
+			result = Collections.unmodifiableSet(result);
+			keys = result;
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "NodeWithRecordMapAccessor{node=" + node + ", record=" + record + "}";
+	}
+}
@@ -16,13 +16,12 @@
 package org.neo4j.mapper.core.mapping;
 
 import org.apiguardian.api.API;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.IntPredicate;
 
 /**
  * Something that makes sense of propertyPaths by having an understanding of projection classes.
@@ -44,9 +43,14 @@ public abstract class PropertyFilter {
 
 	public abstract boolean isNotFiltering();
 
+	/**
+	 * Compiles the projected paths once into a trie of their segments. A lookup walks the segments of the dot path
+	 * in place, so that checking a property costs O(depth) and doesn't allocate.
+	 */
 	private static class FilteringPropertyFilter extends PropertyFilter {
 		private final Set<Class<?>> rootClasses;
-		private final Map<String, Boolean> projectingPropertyPaths;
+		private final Segment root;
+		private final boolean empty;
 
 		private FilteringPropertyFilter(Map<RelaxedPropertyPath, Boolean> propertiesMap, NodeDescription<?> nodeDescription) {
 			Class<?> domainClass = nodeDescription.getUnderlyingClass();
@@ -63,10 +67,10 @@ public abstract class PropertyFilter {
 					.map(NodeDescription::getUnderlyingClass)
 					.forEach(rootClasses::add);
 
-			projectingPropertyPaths = new ConcurrentHashMap<>();
-			propertiesMap.keySet()
-					.forEach(propertyPath ->
-							projectingPropertyPaths.put(propertyPath.toDotPath(), propertiesMap.get(propertyPath)));
+			SegmentBuilder rootBuilder = new SegmentBuilder();
+			propertiesMap.forEach((propertyPath, projecting) -> rootBuilder.add(propertyPath.toDotPath(), projecting));
+			root = rootBuilder.build();
+			empty = propertiesMap.isEmpty();
 		}
 
 		@Override
@@ -79,18 +83,33 @@ public abstract class PropertyFilter {
 				return false;
 			}
 
-			// create a sorted list of the deepest paths first
-			Optional<String> candidate = projectingPropertyPaths.keySet().stream().sorted((o1, o2) -> {
-						IntPredicate dotOccurrencePredicate = character -> character == '.';
-						int depth1 = ((Long) o1.chars().filter(dotOccurrencePredicate).count()).intValue();
-						int depth2 = ((Long) o2.chars().filter(dotOccurrencePredicate).count()).intValue();
-
-						return Integer.compare(depth2, depth1);
-					})
-					.filter(d -> dotPath.contains(d) && dotPath.startsWith(d)).findFirst();
+			// The value of the deepest projected path that is a prefix of the dot path decides about nested properties
+			Boolean candidate = root.projecting;
+			Segment current = root;
+			int start = 0;
+			int length = dotPath.length();
+			while (true) {
+				int end = dotPath.indexOf('.', start);
+				if (end < 0) {
+					end = length;
+				}
+				current = current.child(dotPath, start, end - start);
+				if (current == null) {
+					break;
+				}
+				if (end == length) {
+					if (current.projecting != null) {
+						return true;
+					}
+					break;
+				}
+				if (current.projecting != null) {
+					candidate = current.projecting;
+				}
+				start = end + 1;
+			}
 
-			return projectingPropertyPaths.containsKey(dotPath)
-					|| (dotPath.contains(".") && candidate.isPresent() && projectingPropertyPaths.get(candidate.get()));
+			return dotPath.indexOf('.') >= 0 && candidate != null && candidate;
 		}
 
 		@Override
@@ -100,7 +119,74 @@ public abstract class PropertyFilter {
 
 		@Override
 		public boolean isNotFiltering() {
-			return projectingPropertyPaths.isEmpty();
+			return empty;
+		}
+	}
+
+	/**
+	 * One segment of the projected paths. Most projections have only a handful of properties per level, so the
+	 * children are scanned linearly by comparing regions of the dot path instead of hashing substrings of it.
+	 */
+	private static final class Segment {
+
+		private static final String[] NO_NAMES = new String[0];
+		private static final Segment[] NO_CHILDREN = new Segment[0];
+
+		/**
+		 * {@literal null} if no projected path ends in this segment.
+		 */
+		private final @Nullable Boolean projecting;
+		private final String[] names;
+		private final Segment[] children;
+
+		Segment(@Nullable Boolean projecting, String[] names, Segment[] children) {
+			this.projecting = projecting;
+			this.names = names;
+			this.children = children;
+		}
+
+		@Nullable
+		Segment child(String dotPath, int offset, int length) {
+			for (int i = 0; i < names.length; i++) {
+				String name = names[i];
+				if (name.length() == length && dotPath.regionMatches(offset, name, 0, length)) {
+					return children[i];
+				}
+			}
+			return null;
+		}
+	}
+
+	private static final class SegmentBuilder {
+
+		private @Nullable Boolean projecting;
+		private final Map<String, SegmentBuilder> children = new LinkedHashMap<>();
+
+		void add(String dotPath, Boolean projecting) {
+
+			SegmentBuilder current = this;
+			if (!dotPath.isEmpty()) {
+				for (String name : dotPath.split("\\.", -1)) {
+					current = current.children.computeIfAbsent(name, key -> new SegmentBuilder());
+				}
+			}
+			current.projecting = Boolean.TRUE.equals(projecting);
+		}
+
+		Segment build() {
+
+			if (children.isEmpty()) {
+				return new Segment(projecting, Segment.NO_NAMES, Segment.NO_CHILDREN);
+			}
+			String[] names = new String[children.size()];
+			Segment[] builtChildren = new Segment[children.size()];
+			int i = 0;
+			for (Map.Entry<String, SegmentBuilder> child : children.entrySet()) {
+				names[i] = child.getKey();
+				builtChildren[i] = child.getValue().build();
+				i++;
+			}
+			return new Segment(projecting, names, builtChildren);
 		}
 	}
 
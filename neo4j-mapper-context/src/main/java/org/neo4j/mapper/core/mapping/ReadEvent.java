@@ -0,0 +1,60 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.core.mapping;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+import org.neo4j.driver.types.MapAccessor;
+
+/**
+ * Emitted for each record mapped by the {@link DefaultNeo4jEntityConverter}. Records are mapped in microseconds, so
+ * only slow ones are recorded by default. Lower the threshold of {@code org.neo4j.mapper.Read} in the JFR settings to
+ * see all of them.
+ *
+ * @author Gerrit Meier
+ */
+@Name("org.neo4j.mapper.Read")
+@Label("Read Record")
+@Description("Mapping of one record onto an entity, including all related entities")
+@Category({ "Neo4j Mapper", "Mapping" })
+@Threshold("1 ms")
+final class ReadEvent extends Event {
+
+	@Label("Entity Type")
+	Class<?> entityType;
+
+	@Label("Record Size")
+	@Description("The number of columns of the record")
+	int recordSize;
+
+	/**
+	 * Ends the event and commits it, if it is enabled and above the threshold. The fields are only filled in that case.
+	 */
+	void end(Class<?> entityType, MapAccessor record) {
+
+		end();
+		if (shouldCommit()) {
+			this.entityType = entityType;
+			this.recordSize = record.size();
+			commit();
+		}
+	}
+}
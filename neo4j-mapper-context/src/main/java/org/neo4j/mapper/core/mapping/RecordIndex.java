@@ -0,0 +1,228 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.core.mapping;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.types.MapAccessor;
+import org.neo4j.driver.types.Node;
+import org.neo4j.driver.types.Relationship;
+import org.neo4j.driver.types.Type;
+
+/**
+ * An index over all nodes and relationships contained in a single record. It is built once per record, so that
+ * resolving the related nodes of an association becomes a couple of hash lookups instead of a scan over all nodes and
+ * relationships of the record.
+ * <p>
+ * Nodes are indexed by their id and keep the position of their first occurrence in the record as well as their labels.
+ * In addition, the ids of all nodes are indexed by label. Relationships are indexed by the id of their start
+ * respectively end node (depending on the direction they are traversed in) and their type.
+ *
+ * @author Gerrit Meier
+ */
+final class RecordIndex {
+
+	private final Map<Long, IndexedNode> nodesById;
+	private final Map<String, Set<Long>> nodeIdsByLabel;
+	private final Map<Long, Adjacency> outgoing;
+	private final Map<Long, Adjacency> incoming;
+
+	/**
+	 * Builds an index from all nodes and relationships in the given record. If the record contains lists of nodes
+	 * (respectively relationships), only those are taken into account, plain nodes (relationships) are used otherwise.
+	 *
+	 * @param allValues The record to index
+	 * @param nodeType The type of nodes in the current type system
+	 * @param relationshipType The type of relationships in the current type system
+	 * @param listType The type of lists in the current type system
+	 * @return A new index
+	 */
+	static RecordIndex of(MapAccessor allValues, Type nodeType, Type relationshipType, Type listType) {
+
+		Map<Long, IndexedNode> nodesById = new LinkedHashMap<>();
+		Map<String, Set<Long>> nodeIdsByLabel = new HashMap<>();
+		for (Node node : extractNodes(allValues, nodeType, listType)) {
+			if (nodesById.containsKey(node.id())) {
+				continue;
+			}
+			IndexedNode indexedNode = new IndexedNode(node, nodesById.size());
+			nodesById.put(node.id(), indexedNode);
+			for (String label : indexedNode.labels) {
+				nodeIdsByLabel.computeIfAbsent(label, l -> new HashSet<>()).add(node.id());
+			}
+		}
+
+		Map<Long, Adjacency> outgoing = new HashMap<>();
+		Map<Long, Adjacency> incoming = new HashMap<>();
+		Set<Long> indexedRelationships = new HashSet<>();
+		for (Relationship relationship : extractRelationships(allValues, relationshipType, listType)) {
+			if (!indexedRelationships.add(relationship.id())) {
+				continue;
+			}
+			outgoing.computeIfAbsent(relationship.startNodeId(), id -> new Adjacency()).add(relationship);
+			incoming.computeIfAbsent(relationship.endNodeId(), id -> new Adjacency()).add(relationship);
+		}
+
+		return new RecordIndex(nodesById, nodeIdsByLabel, outgoing, incoming);
+	}
+
+	private RecordIndex(Map<Long, IndexedNode> nodesById, Map<String, Set<Long>> nodeIdsByLabel,
+			Map<Long, Adjacency> outgoing, Map<Long, Adjacency> incoming) {
+		this.nodesById = nodesById;
+		this.nodeIdsByLabel = nodeIdsByLabel;
+		this.outgoing = outgoing;
+		this.incoming = incoming;
+	}
+
+	/**
+	 * @param id The id of a node
+	 * @return The node with the given id or {@literal null} if the record does not contain such a node
+	 */
+	@Nullable
+	Node getNode(long id) {
+		IndexedNode indexedNode = nodesById.get(id);
+		return indexedNode == null ? null : indexedNode.node;
+	}
+
+	/**
+	 * @return True, if the record contains any relationships
+	 */
+	boolean hasRelationships() {
+		return !outgoing.isEmpty();
+	}
+
+	/**
+	 * @param id The id of a node
+	 * @return The position of the first occurrence of the node in the record or {@link Integer#MAX_VALUE} for unknown nodes
+	 */
+	int getPosition(long id) {
+		IndexedNode indexedNode = nodesById.get(id);
+		return indexedNode == null ? Integer.MAX_VALUE : indexedNode.position;
+	}
+
+	/**
+	 * @param id The id of a node
+	 * @return The labels of the node with the given id, an empty list if the record does not contain such a node
+	 */
+	List<String> getLabels(long id) {
+		IndexedNode indexedNode = nodesById.get(id);
+		return indexedNode == null ? Collections.emptyList() : indexedNode.labels;
+	}
+
+	/**
+	 * @param id The id of a node
+	 * @param label The label to check
+	 * @return True, if the record contains a node with the given id and that node has the given label
+	 */
+	boolean hasLabel(long id, String label) {
+		return nodeIdsByLabel.getOrDefault(label, Collections.emptySet()).contains(id);
+	}
+
+	/**
+	 * Retrieves all relationships traversed from a given node.
+	 *
+	 * @param sourceNodeId The id of the node the relationships are traversed from
+	 * @param incoming Flag, if the relationships are incoming to the source node
+	 * @param type The type of the relationships, use {@literal null} for all types
+	 * @return The matching relationships in order of their occurrence in the record
+	 */
+	List<Relationship> getRelationships(long sourceNodeId, boolean incoming, @Nullable String type) {
+
+		Adjacency adjacency = (incoming ? this.incoming : this.outgoing).get(sourceNodeId);
+		if (adjacency == null) {
+			return Collections.emptyList();
+		}
+		return type == null ? adjacency.all : adjacency.byType.getOrDefault(type, Collections.emptyList());
+	}
+
+	private static Collection<Node> extractNodes(MapAccessor allValues, Type nodeType, Type listType) {
+
+		Collection<Node> allNodesInResult = new ArrayList<>();
+		for (Value value : allValues.values()) {
+			if (MappingSupport.isListContainingOnly(listType, nodeType).test(value)) {
+				allNodesInResult.addAll(MappingSupport.extractNodesFromCollection(listType, value));
+			}
+		}
+
+		if (allNodesInResult.isEmpty()) {
+			for (Value value : allValues.values()) {
+				if (nodeType.isTypeOf(value)) {
+					allNodesInResult.add(value.asNode());
+				}
+			}
+		}
+		return allNodesInResult;
+	}
+
+	private static Collection<Relationship> extractRelationships(MapAccessor allValues, Type relationshipType, Type listType) {
+
+		Collection<Relationship> allRelationshipsInResult = new ArrayList<>();
+		for (Value value : allValues.values()) {
+			if (MappingSupport.isListContainingOnly(listType, relationshipType).test(value)) {
+				allRelationshipsInResult.addAll(MappingSupport.extractRelationshipsFromCollection(listType, value));
+			}
+		}
+
+		if (allRelationshipsInResult.isEmpty()) {
+			for (Value value : allValues.values()) {
+				if (relationshipType.isTypeOf(value)) {
+					allRelationshipsInResult.add(value.asRelationship());
+				}
+			}
+		}
+		return allRelationshipsInResult;
+	}
+
+	private static final class IndexedNode {
+
+		private final Node node;
+		private final int position;
+		private final List<String> labels;
+
+		IndexedNode(Node node, int position) {
+			this.node = node;
+			this.position = position;
+
+			List<String> nodeLabels = new ArrayList<>();
+			node.labels().forEach(nodeLabels::add);
+			this.labels = Collections.unmodifiableList(nodeLabels);
+		}
+	}
+
+	/**
+	 * All relationships of a single node in one direction, both as a whole and grouped by type.
+	 */
+	private static final class Adjacency {
+
+		private final List<Relationship> all = new ArrayList<>();
+		private final Map<String, List<Relationship>> byType = new HashMap<>();
+
+		void add(Relationship relationship) {
+			all.add(relationship);
+			byType.computeIfAbsent(relationship.type(), type -> new ArrayList<>()).add(relationship);
+		}
+	}
+}
@@ -19,6 +19,8 @@ import org.apiguardian.api.API;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.neo4j.mapper.core.schema.Relationship;
+import org.neo4j.mapper.core.schema.RelationshipProperties;
+import org.neo4j.mapper.core.schema.TargetNode;
 import org.neo4j.mapper.core.support.Assert;
 import org.neo4j.mapper.core.support.StringUtils;
 
@@ -40,9 +42,19 @@ public interface RelationshipDescription {
 
 	String NAME_OF_RELATIONSHIP_TYPE = "__relationshipType__";
 
-	static RelationshipDescription of(GraphPropertyDescription relationshipProperty) {
+	/**
+	 * @param relationshipProperty The property defining the relationship
+	 * @param source The node description declaring the property
+	 * @return A description of the relationship
+	 */
+	static RelationshipDescription of(GraphPropertyDescription relationshipProperty, NodeDescription<?> source) {
 		return new RelationshipDescription() {
 			private Relationship relationshipAnnotation = relationshipProperty.findAnnotation(Relationship.class);
+			private final @Nullable NodeDescription<?> relationshipPropertiesEntity =
+					relationshipProperty.getType().isAnnotationPresent(RelationshipProperties.class)
+							? NodeDescription.of(relationshipProperty.getType()) : null;
+			// Node descriptions are compared by identity, so the target must be created only once
+			private volatile NodeDescription<?> target;
 
 			@Override
 			public String getType() {
@@ -88,19 +100,41 @@ public interface RelationshipDescription {
 				return relationshipProperty.isMap() ;
 			}
 
+			@Override
+			public boolean isLazy() {
+				return relationshipAnnotation != null && relationshipAnnotation.lazy();
+			}
+
 			@Override
 			public NodeDescription<?> getSource() {
-				return null;
+				return source;
 			}
 
 			@Override
 			public NodeDescription<?> getTarget() {
-				return NodeDescription.of(relationshipProperty.getType());
+				NodeDescription<?> result = target;
+				if (result == null) {
+					result = NodeDescription.of(getTargetType());
+					target = result;
+				}
+				return result;
+			}
+
+			private Class<?> getTargetType() {
+				if (relationshipPropertiesEntity == null) {
+					return relationshipProperty.getType();
+				}
+				return relationshipPropertiesEntity.getGraphPropertiesInHierarchy().stream()
+						.filter(property -> property.isAnnotationPresent(TargetNode.class))
+						.findFirst()
+						.map(GraphPropertyDescription::getType)
+						.orElseThrow(() -> new MappingException(String.format("%s does not declare a @TargetNode",
+								relationshipPropertiesEntity.getUnderlyingClass().getName())));
 			}
 
 			@Override
 			public String getFieldName() {
-				return null;
+				return relationshipProperty.getFieldName();
 			}
 
 			@Override
@@ -112,12 +146,12 @@ public interface RelationshipDescription {
 
 			@Override
 			public @Nullable NodeDescription<?> getRelationshipPropertiesEntity() {
-				return null;
+				return relationshipPropertiesEntity;
 			}
 
 			@Override
 			public boolean hasRelationshipProperties() {
-				return false;
+				return relationshipPropertiesEntity != null;
 			}
 
 			@Override
@@ -161,6 +195,15 @@ public interface RelationshipDescription {
 	 */
 	boolean isDynamic();
 
+	/**
+	 * A lazy relationship is not part of the query loading its source and is loaded on first access.
+	 *
+	 * @return True, if this relationship is loaded lazily
+	 */
+	default boolean isLazy() {
+		return false;
+	}
+
 	/**
 	 * The source of this relationship is described by the primary label of the node in question.
 	 *
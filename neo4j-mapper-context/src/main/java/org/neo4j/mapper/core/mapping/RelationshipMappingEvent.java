@@ -0,0 +1,68 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.core.mapping;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Emitted each time the related entities of one relationship of one entity are mapped. The duration includes mapping
+ * the related entities and in turn their relationships.
+ *
+ * @author Gerrit Meier
+ */
+@Name("org.neo4j.mapper.MapRelationship")
+@Label("Map Relationship")
+@Description("Mapping of the entities related to an entity through one relationship")
+@Category({ "Neo4j Mapper", "Mapping" })
+@Threshold("1 ms")
+final class RelationshipMappingEvent extends Event {
+
+	@Label("Source Type")
+	Class<?> sourceType;
+
+	@Label("Relationship Type")
+	String relationshipType;
+
+	@Label("Target Type")
+	Class<?> targetType;
+
+	@Label("Related Entities")
+	@Description("The number of related entities found in the record")
+	int relatedEntities;
+
+	@Label("Projected")
+	@Description("True if the related entities have been read from a map projection, false if from the generic shape")
+	boolean projected;
+
+	void end(RelationshipDescription relationshipDescription, NodeDescription<?> sourceDescription, int relatedEntities,
+			boolean projected) {
+
+		end();
+		if (shouldCommit()) {
+			this.sourceType = sourceDescription.getUnderlyingClass();
+			this.relationshipType = relationshipDescription.getType();
+			this.targetType = relationshipDescription.getTarget().getUnderlyingClass();
+			this.relatedEntities = relatedEntities;
+			this.projected = projected;
+			commit();
+		}
+	}
+}
@@ -83,6 +83,10 @@ public interface Schema {
 	 * <p>
 	 * In case the mapping function returns a {@literal null}, the Neo4j client will throw an exception and prevent
 	 * further processing.
+	 * <p>
+	 * Every record is mapped on its own, see {@link Neo4jEntityConverter#read(Class, MapAccessor)}. Queries returning
+	 * an aggregate in several records must create a function per query with
+	 * {@link #getRequiredMappingFunctionFor(Class, MappingContext)} instead.
 	 *
 	 * @param targetClass The target class to which to map to.
 	 * @param <T> Type of the target class
@@ -98,11 +102,41 @@ public interface Schema {
 		return (typeSystem, record) -> entityConverter.read(targetClass, record);
 	}
 
+	/**
+	 * Retrieves a schema based mapping function for the {@code targetClass} that maps all records within the given
+	 * context, so that the same node is mapped onto the same instance across all records of a query.
+	 *
+	 * @param targetClass The target class to which to map to.
+	 * @param mappingContext The context of the query the mapped records belong to
+	 * @param <T> Type of the target class
+	 * @return A mapping function bound to the given context
+	 * @throws UnknownEntityException When {@code targetClass} is not a managed class
+	 * @see #getRequiredMappingFunctionFor(Class)
+	 */
+	default <T> BiFunction<TypeSystem, MapAccessor, T> getRequiredMappingFunctionFor(Class<T> targetClass,
+			MappingContext mappingContext) {
+		NodeDescription<?> nodeDescription = getNodeDescription(targetClass);
+		if (nodeDescription == null) {
+			throw new UnknownEntityException(targetClass);
+		}
+		Neo4jEntityConverter entityConverter = getEntityConverter();
+		return (typeSystem, record) -> entityConverter.read(targetClass, record, mappingContext);
+	}
+
 	/**
 	 * @return The (reading and writing) converter used to read records into entities and write entities into maps.
 	 */
 	Neo4jEntityConverter getEntityConverter();
 
+	/**
+	 * Retrieves a function binding instances of the {@code sourceClass} to the parameters of the statement created by
+	 * {@code CypherGenerator#prepareSaveOf}.
+	 *
+	 * @param sourceClass The class of the entities to bind
+	 * @param <T> Type of the source class
+	 * @return A stateless and reusable binder function for the given class
+	 * @throws UnknownEntityException When {@code sourceClass} is not a managed class
+	 */
 	default <T> Function<T, Map<String, Object>> getRequiredBinderFunctionFor(Class<T> sourceClass) {
 
 		if (getNodeDescription(sourceClass) == null) {
@@ -111,8 +145,9 @@ public interface Schema {
 
 		Neo4jEntityConverter entityConverter = getEntityConverter();
 		return t -> {
-			Map<String, Object> parameters = new HashMap<>();
-			// entityConverter.write(t, parameters);
+			// Room for the id, the properties and the version without rehashing
+			Map<String, Object> parameters = new HashMap<>(4);
+			entityConverter.write(t, parameters);
 			return parameters;
 		};
 	}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.core.mapping;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A {@link PropertyAccessor} working on field handles that are looked up once per class. The handles are derived from
+ * {@link VarHandle var handles} obtained through a private lookup, so that private fields can be read and written without
+ * any reflection on the hot path. Final fields are written through a setter handle of the accessible field. The
+ * components of records are read-only.
+ *
+ * @param <T> The type of the bean
+ * @author Gerrit Meier
+ */
+final class VarHandlePropertyAccessor<T> implements PropertyAccessor<T> {
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private static final ClassValue<Map<String, FieldHandle>> FIELD_HANDLES = new ClassValue<>() {
+		@Override
+		protected Map<String, FieldHandle> computeValue(Class<?> type) {
+			return createFieldHandles(type);
+		}
+	};
+
+	private final T bean;
+	private final Map<String, FieldHandle> fieldHandles;
+
+	static <T> VarHandlePropertyAccessor<T> of(T bean) {
+		return new VarHandlePropertyAccessor<>(bean, FIELD_HANDLES.get(bean.getClass()));
+	}
+
+	private VarHandlePropertyAccessor(T bean, Map<String, FieldHandle> fieldHandles) {
+		this.bean = bean;
+		this.fieldHandles = fieldHandles;
+	}
+
+	@Override
+	public Object getProperty(GraphPropertyDescription graphPropertyDescription) {
+		return getFieldHandle(graphPropertyDescription).get(bean);
+	}
+
+	@Override
+	public void setProperty(GraphPropertyDescription graphPropertyDescription, Object value) {
+		getFieldHandle(graphPropertyDescription).set(bean, value);
+	}
+
+	@Override
+	public T getBean() {
+		return bean;
+	}
+
+	private FieldHandle getFieldHandle(GraphPropertyDescription graphPropertyDescription) {
+
+		FieldHandle fieldHandle = fieldHandles.get(graphPropertyDescription.getFieldName());
+		if (fieldHandle == null) {
+			throw new MappingException(String.format("No field %s on %s", graphPropertyDescription.getFieldName(),
+					bean.getClass().getName()));
+		}
+		return fieldHandle;
+	}
+
+	private static Map<String, FieldHandle> createFieldHandles(Class<?> type) {
+
+		Map<String, FieldHandle> fieldHandles = new HashMap<>();
+		Class<?> currentType = type;
+		while (currentType != null && currentType != Object.class) {
+			MethodHandles.Lookup lookup = null;
+			for (Field field : currentType.getDeclaredFields()) {
+				if (Modifier.isStatic(field.getModifiers()) || fieldHandles.containsKey(field.getName())) {
+					continue;
+				}
+				// Only ask for private access on types that actually contribute fields (not on java.lang.Record and the likes)
+				if (lookup == null) {
+					lookup = privateLookupIn(currentType);
+				}
+				fieldHandles.put(field.getName(), FieldHandle.of(lookup, field));
+			}
+			currentType = currentType.getSuperclass();
+		}
+		return Collections.unmodifiableMap(fieldHandles);
+	}
+
+	private static MethodHandles.Lookup privateLookupIn(Class<?> type) {
+		try {
+			return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+		} catch (IllegalAccessException e) {
+			throw new MappingException(String.format("Cannot access the fields of %s", type.getName()), e);
+		}
+	}
+
+	/**
+	 * Getter and - if the field is writable at all - setter of a single field, both adapted to the generic
+	 * {@code Object} signature, so that they can be invoked exactly.
+	 */
+	private static final class FieldHandle {
+
+		private final Field field;
+		private final MethodHandle getter;
+		@Nullable private final MethodHandle setter;
+
+		static FieldHandle of(MethodHandles.Lookup lookup, Field field) {
+
+			try {
+				VarHandle varHandle = lookup.unreflectVarHandle(field);
+				MethodHandle getter = varHandle.toMethodHandle(VarHandle.AccessMode.GET).asType(GETTER_TYPE);
+				MethodHandle setter;
+				if (!Modifier.isFinal(field.getModifiers())) {
+					setter = varHandle.toMethodHandle(VarHandle.AccessMode.SET).asType(SETTER_TYPE);
+				} else if (!field.getDeclaringClass().isRecord() && field.trySetAccessible()) {
+					setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+				} else {
+					setter = null;
+				}
+				return new FieldHandle(field, getter, setter);
+			} catch (IllegalAccessException e) {
+				throw new MappingException(String.format("Cannot access field %s of %s", field.getName(),
+						field.getDeclaringClass().getName()), e);
+			}
+		}
+
+		private FieldHandle(Field field, MethodHandle getter, @Nullable MethodHandle setter) {
+			this.field = field;
+			this.getter = getter;
+			this.setter = setter;
+		}
+
+		Object get(Object bean) {
+			try {
+				return (Object) getter.invokeExact(bean);
+			} catch (Throwable e) {
+				throw new MappingException(String.format("Cannot read field %s of %s", field.getName(),
+						field.getDeclaringClass().getName()), e);
+			}
+		}
+
+		void set(Object bean, @Nullable Object value) {
+			if (setter == null) {
+				throw new MappingException(String.format("Field %s of %s is read-only", field.getName(),
+						field.getDeclaringClass().getName()));
+			}
+			try {
+				setter.invokeExact(bean, value);
+			} catch (Throwable e) {
+				throw new MappingException(String.format("Cannot write field %s of %s", field.getName(),
+						field.getDeclaringClass().getName()), e);
+			}
+		}
+	}
+}
@@ -0,0 +1,965 @@
+package org.neo4j.mapper.core.mapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.internal.InternalNode;
+import org.neo4j.driver.internal.InternalRecord;
+import org.neo4j.driver.internal.InternalRelationship;
+import org.neo4j.driver.internal.types.InternalTypeSystem;
+import org.neo4j.driver.internal.value.NodeValue;
+import org.neo4j.driver.internal.value.RelationshipValue;
+import org.neo4j.driver.types.MapAccessor;
+import org.neo4j.driver.types.TypeSystem;
+import org.neo4j.mapper.core.convert.Neo4jEntityConverter;
+import org.neo4j.mapper.core.convert.Neo4jPersistentPropertyConverter;
+import org.neo4j.mapper.core.schema.DynamicLabels;
+import org.neo4j.mapper.core.schema.GeneratedValue;
+import org.neo4j.mapper.core.schema.Id;
+import org.neo4j.mapper.core.schema.IdGenerator;
+import org.neo4j.mapper.core.schema.Node;
+import org.neo4j.mapper.core.schema.Relationship;
+import org.neo4j.mapper.core.schema.RelationshipId;
+import org.neo4j.mapper.core.schema.RelationshipProperties;
+import org.neo4j.mapper.core.schema.TargetNode;
+import org.neo4j.mapper.core.schema.Version;
+
+class DefaultNeo4jEntityConverterTest {
+
+	private NodeDescriptionStore nodeDescriptionStore;
+
+	private DefaultNeo4jEntityConverter converter;
+
+	@BeforeEach
+	void setupConverter() {
+		nodeDescriptionStore = new NodeDescriptionStore();
+		nodeDescriptionStore.put("Movie", NodeDescription.of(Movie.class));
+		nodeDescriptionStore.put("Person", NodeDescription.of(Person.class));
+
+		converter = createConverter(ConverterOptions.defaults());
+	}
+
+	private DefaultNeo4jEntityConverter createConverter(ConverterOptions options) {
+
+		return new DefaultNeo4jEntityConverter(
+				Instantiators.usingPersistenceConstructor(),
+				new Neo4jConversionService() {
+					@Override
+					public Object convert(String f, Class<?> componentType) {
+						return f;
+					}
+
+					@Override
+					public Object readValue(Value value, Class<?> type, Neo4jPersistentPropertyConverter<?> converter) {
+						return value == null || value.isNull() ? null : value.asObject();
+					}
+				},
+				nodeDescriptionStore,
+				InternalTypeSystem.TYPE_SYSTEM,
+				options);
+	}
+
+	@Test
+	void shouldMapNodeOntoEntityWithFields() {
+
+		MapAccessor record = record("n", movieNode(1L, "The Matrix", 1999L));
+
+		Movie movie = converter.read(Movie.class, record);
+
+		assertThat(movie.title).isEqualTo("The Matrix");
+		assertThat(movie.released).isEqualTo(1999L);
+	}
+
+	@Test
+	void shouldUseDefaultValueForMissingPrimitives() {
+
+		MapAccessor record = record("n", new NodeValue(new InternalNode(1L, List.of("Movie"),
+				Map.of("title", Values.value("The Matrix")))));
+
+		Movie movie = converter.read(Movie.class, record);
+
+		assertThat(movie.title).isEqualTo("The Matrix");
+		assertThat(movie.rating).isZero();
+	}
+
+	@Test
+	void shouldMapNodeOntoRecordViaConstructor() {
+
+		MapAccessor record = record("n", new NodeValue(new InternalNode(2L, List.of("Person"),
+				Map.of("name", Values.value("Keanu Reeves"), "born", Values.value(1964L)))));
+
+		Person person = converter.read(Person.class, record);
+
+		assertThat(person).isEqualTo(new Person("Keanu Reeves", 1964L));
+	}
+
+	@Test
+	void shouldUseCanonicalConstructorOfRecords() {
+
+		nodeDescriptionStore.put("Genre", NodeDescription.of(Genre.class));
+		MapAccessor record = record("n", new NodeValue(new InternalNode(3L, List.of("Genre"),
+				Map.of("name", Values.value("Sci-Fi"), "description", Values.value("Science fiction")))));
+
+		Genre genre = converter.read(Genre.class, record);
+
+		assertThat(genre).isEqualTo(new Genre("Sci-Fi", "Science fiction"));
+	}
+
+	@Test
+	void shouldReuseInstancesOfAlreadyMappedNodes() {
+
+		MappingContext mappingContext = new MappingContext();
+		Movie first = converter.read(Movie.class, record("n", movieNode(1L, "The Matrix", 1999L)), mappingContext);
+		Movie second = converter.read(Movie.class, record("n", movieNode(1L, "The Matrix", 1999L)), mappingContext);
+
+		assertThat(second).isSameAs(first);
+	}
+
+	@Test
+	void shouldNotShareInstancesBetweenContexts() {
+
+		Movie first = converter.read(Movie.class, record("n", movieNode(1L, "The Matrix", 1999L)), new MappingContext());
+		Movie second = converter.read(Movie.class, record("n", movieNode(1L, "The Matrix", 1999L)), new MappingContext());
+
+		assertThat(second).isNotSameAs(first);
+		assertThat(second.title).isEqualTo(first.title);
+	}
+
+	@Test
+	void shouldNotShareInstancesBetweenReadsWithoutContext() {
+
+		Movie first = converter.read(Movie.class, record("n", movieNode(1L, "The Matrix", 1999L)));
+		Movie second = converter.read(Movie.class, record("n", movieNode(1L, "The Matrix", 1999L)));
+
+		assertThat(second).isNotSameAs(first);
+	}
+
+	@Test
+	void shouldMapAllRowsOfAnAggregateWithTheMappingFunctionOfOneQuery() {
+
+		nodeDescriptionStore.put("Festival", NodeDescription.of(Festival.class));
+		Value festivalNode = new NodeValue(new InternalNode(7L, List.of("Festival"), Map.of("name", Values.value("Berlinale"))));
+		BiFunction<TypeSystem, MapAccessor, Festival> mappingFunction = schema()
+				.getRequiredMappingFunctionFor(Festival.class, new MappingContext());
+
+		Festival first = mappingFunction.apply(InternalTypeSystem.TYPE_SYSTEM, synthesizedRecord(festivalNode,
+				List.of(movieNode(1L, "The Matrix", 1999L)), List.of(relationship(100L, 7L, 1L, "SHOWED"))));
+		Festival second = mappingFunction.apply(InternalTypeSystem.TYPE_SYSTEM, synthesizedRecord(festivalNode,
+				List.of(movieNode(2L, "Lost Highway", 1997L)), List.of(relationship(101L, 7L, 2L, "SHOWED"))));
+		Festival ofAnotherQuery = schema().getRequiredMappingFunctionFor(Festival.class)
+				.apply(InternalTypeSystem.TYPE_SYSTEM, synthesizedRecord(festivalNode, List.of(), List.of()));
+
+		assertThat(second).isSameAs(first);
+		assertThat(ofAnotherQuery).isNotSameAs(first);
+	}
+
+	private Schema schema() {
+		return new Schema() {
+			@Override
+			public NodeDescription<?> getNodeDescription(String primaryLabel) {
+				return nodeDescriptionStore.get(primaryLabel);
+			}
+
+			@Override
+			public NodeDescription<?> getNodeDescription(Class<?> underlyingClass) {
+				return nodeDescriptionStore.getNodeDescription(underlyingClass);
+			}
+
+			@Override
+			public Neo4jEntityConverter getEntityConverter() {
+				return converter;
+			}
+
+			@Override
+			public <T extends IdGenerator<?>> T getOrCreateIdGeneratorOfType(Class<T> idGeneratorType) {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public <T extends IdGenerator<?>> Optional<T> getIdGenerator(String reference) {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public void addIdentifierAnnotation(Class<? extends Annotation> identifierAnnotation) {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public Set<Class<? extends Annotation>> getIdentifierAnnotations() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	@Test
+	void shouldCombineRootNodeWithRemainingRecord() {
+
+		MapAccessor record = new RecordMapAccessor(new InternalRecord(List.of("n", "rating"),
+				new Value[] { movieNode(1L, "The Matrix", 1999L), Values.value(8.7) }));
+
+		Movie movie = converter.read(Movie.class, record);
+
+		assertThat(movie.title).isEqualTo("The Matrix");
+		assertThat(movie.released).isEqualTo(1999L);
+		assertThat(movie.rating).isEqualTo(8.7);
+	}
+
+	@Test
+	void shouldStreamResults() {
+
+		Result result = result(
+				new InternalRecord(List.of("n"), new Value[] { movieNode(1L, "The Matrix", 1999L) }),
+				new InternalRecord(List.of("n"), new Value[] { movieNode(2L, "The Matrix Reloaded", 2003L) }),
+				new InternalRecord(List.of("n"), new Value[] { movieNode(1L, "The Matrix", 1999L) }));
+
+		List<Movie> movies = converter.readAll(Movie.class, result).toList();
+
+		assertThat(movies).extracting(movie -> movie.title)
+				.containsExactly("The Matrix", "The Matrix Reloaded", "The Matrix");
+		assertThat(movies.get(2)).isSameAs(movies.get(0));
+	}
+
+	@Test
+	void shouldMapNodesReappearingAfterTheRetentionWindowOntoNewInstances() {
+
+		DefaultNeo4jEntityConverter forgetfulConverter = createConverter(ConverterOptions.builder().streamingRetentionWindow(2).build());
+
+		List<Movie> movies = forgetfulConverter.readAll(Movie.class, result(moviesReappearingAfterFourRecords())).toList();
+
+		assertThat(movies.get(5)).isNotSameAs(movies.get(0));
+		assertThat(movies.get(5).title).isEqualTo(movies.get(0).title);
+	}
+
+	@Test
+	void shouldRetainAllNodesIfConfigured() {
+
+		DefaultNeo4jEntityConverter retainingConverter = createConverter(ConverterOptions.builder()
+				.streamingRetentionWindow(DefaultNeo4jEntityConverter.RETAIN_ALL).build());
+
+		List<Movie> movies = retainingConverter.readAll(Movie.class, result(moviesReappearingAfterFourRecords())).toList();
+
+		assertThat(movies.get(5)).isSameAs(movies.get(0));
+	}
+
+	private static Record[] moviesReappearingAfterFourRecords() {
+		return new Record[] {
+				new InternalRecord(List.of("n"), new Value[] { movieNode(1L, "The Matrix", 1999L) }),
+				new InternalRecord(List.of("n"), new Value[] { movieNode(2L, "The Matrix Reloaded", 2003L) }),
+				new InternalRecord(List.of("n"), new Value[] { movieNode(3L, "The Matrix Revolutions", 2003L) }),
+				new InternalRecord(List.of("n"), new Value[] { movieNode(4L, "Lost Highway", 1997L) }),
+				new InternalRecord(List.of("n"), new Value[] { movieNode(5L, "Mulholland Drive", 2001L) }),
+				new InternalRecord(List.of("n"), new Value[] { movieNode(1L, "The Matrix", 1999L) })
+		};
+	}
+
+	@Test
+	void shouldMapRecordsInParallelInOriginalOrder() {
+
+		List<MapAccessor> records = new ArrayList<>();
+		for (int i = 0; i < 1_000; i++) {
+			records.add(record("n", movieNode(i % 600, "Movie " + (i % 600), 2000L)));
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			List<Movie> movies = converter.readAllInParallel(Movie.class, records, pool);
+
+			assertThat(movies).hasSize(1_000);
+			for (int i = 0; i < 1_000; i++) {
+				assertThat(movies.get(i).title).isEqualTo("Movie " + (i % 600));
+			}
+			assertThat(movies.get(600)).isSameAs(movies.get(0));
+			assertThat(movies.get(999)).isSameAs(movies.get(399));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void shouldKeepRelationshipsOfRootsSpanningChunks() {
+
+		nodeDescriptionStore.put("Festival", NodeDescription.of(Festival.class));
+		Value festivalNode = new NodeValue(new InternalNode(7L, List.of("Festival"), Map.of("name", Values.value("Berlinale"))));
+		List<MapAccessor> records = new ArrayList<>();
+		for (int i = 0; i < 299; i++) {
+			records.add(synthesizedRecord(festivalNode, List.of(), List.of()));
+		}
+		// Only the last record, which ends up in another chunk than the first one, contains the relationships
+		records.add(synthesizedRecord(festivalNode,
+				List.of(movieNode(1L, "The Matrix", 1999L), movieNode(2L, "Lost Highway", 1997L)),
+				List.of(new RelationshipValue(new InternalRelationship(100L, 7L, 1L, "SHOWED")),
+						new RelationshipValue(new InternalRelationship(101L, 7L, 2L, "SHOWED")))));
+
+		InMemoryMappingMetrics metrics = new InMemoryMappingMetrics();
+		DefaultNeo4jEntityConverter measuringConverter = createConverter(ConverterOptions.builder().metrics(metrics).build());
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			List<Festival> festivals = measuringConverter.readAllInParallel(Festival.class, records, pool);
+
+			assertThat(festivals).hasSize(300).allSatisfy(festival -> assertThat(festival).isSameAs(festivals.get(0)));
+			assertThat(festivals.get(0).movies).extracting(movie -> movie.title).containsExactly("The Matrix", "Lost Highway");
+			// Records of roots spanning chunks are mapped again but only recorded once
+			assertThat(metrics.getMetrics(Festival.class).getRecordsMapped()).isEqualTo(records.size());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private static MapAccessor synthesizedRecord(Value rootNode, List<Value> relatedNodes, List<Value> relationships) {
+		return new RecordMapAccessor(new InternalRecord(
+				List.of(Constants.NAME_OF_SYNTHESIZED_ROOT_NODE, Constants.NAME_OF_SYNTHESIZED_RELATED_NODES, Constants.NAME_OF_SYNTHESIZED_RELATIONS),
+				new Value[] { rootNode, Values.value(relatedNodes), Values.value(relationships) }));
+	}
+
+	@Test
+	void shouldPopulatePrivateFields() {
+
+		nodeDescriptionStore.put("Studio", NodeDescription.of(Studio.class));
+		MapAccessor record = record("n", new NodeValue(new InternalNode(4L, List.of("Studio"),
+				Map.of("name", Values.value("Warner Bros."), "founded", Values.value(1923L)))));
+
+		Studio studio = converter.read(Studio.class, record);
+
+		assertThat(studio.getName()).isEqualTo("Warner Bros.");
+		assertThat(studio.getFounded()).isEqualTo(1923L);
+	}
+
+	@Test
+	void shouldServeCachedEntitiesAcrossContexts() {
+
+		nodeDescriptionStore.put("Country", NodeDescription.of(Country.class));
+		EntityCache entityCache = EntityCache.of(100, Duration.ofMinutes(5), nodeDescription -> nodeDescription.getRelationships().isEmpty());
+		DefaultNeo4jEntityConverter cachingConverter = createConverter(ConverterOptions.builder().entityCache(entityCache).build());
+
+		Country first = cachingConverter.read(Country.class, record("n", countryNode(5L, "Germany", 1L)));
+		Country second = cachingConverter.read(Country.class, record("n", countryNode(5L, "Germany", 1L)));
+		Country updated = cachingConverter.read(Country.class, record("n", countryNode(5L, "Deutschland", 2L)));
+
+		assertThat(second).isSameAs(first);
+		assertThat(updated).isNotSameAs(first);
+		assertThat(updated.name).isEqualTo("Deutschland");
+		assertThat(entityCache.getHitCount()).isOne();
+	}
+
+	@Test
+	void shouldInvalidateEntitiesCachedThroughAnAssociation() {
+
+		nodeDescriptionStore.put("Country", NodeDescription.of(Country.class));
+		nodeDescriptionStore.put("Airport", NodeDescription.of(Airport.class));
+		EntityCache entityCache = EntityCache.of(100, Duration.ofMinutes(5), nodeDescription -> nodeDescription.getRelationships().isEmpty());
+		DefaultNeo4jEntityConverter cachingConverter = createConverter(ConverterOptions.builder().entityCache(entityCache).build());
+
+		Airport airport = cachingConverter.read(Airport.class, synthesizedRecord(
+				new NodeValue(new InternalNode(50L, List.of("Airport"), Map.of("code", Values.value("BER")))),
+				List.of(countryNode(5L, "Germany", 1L)),
+				List.of(relationship(120L, 50L, 5L, "LOCATED_IN"))));
+		Country cached = cachingConverter.read(Country.class, record("n", countryNode(5L, "Germany", 1L)));
+
+		assertThat(cached).isSameAs(airport.country);
+
+		entityCache.invalidate(nodeDescriptionStore.getNodeDescription(Country.class), "DE");
+		Country reread = cachingConverter.read(Country.class, record("n", countryNode(5L, "Germany", 1L)));
+
+		assertThat(reread).isNotSameAs(airport.country);
+	}
+
+	@Test
+	void shouldNotCompleteCachedEntitiesFromLaterRecords() {
+
+		nodeDescriptionStore.put("Festival", NodeDescription.of(Festival.class));
+		EntityCache entityCache = EntityCache.of(100, Duration.ofMinutes(5), nodeDescription -> true);
+		DefaultNeo4jEntityConverter cachingConverter = createConverter(ConverterOptions.builder().entityCache(entityCache).build());
+		Value festivalNode = new NodeValue(new InternalNode(7L, List.of("Festival"), Map.of("name", Values.value("Berlinale"))));
+
+		Festival cached = cachingConverter.read(Festival.class, synthesizedRecord(festivalNode, List.of(), List.of()));
+
+		MappingContext mappingContext = new MappingContext();
+		Festival first = cachingConverter.read(Festival.class, synthesizedRecord(festivalNode, List.of(), List.of()), mappingContext);
+		Festival second = cachingConverter.read(Festival.class, synthesizedRecord(festivalNode,
+				List.of(movieNode(1L, "The Matrix", 1999L)), List.of(relationship(100L, 7L, 1L, "SHOWED"))), mappingContext);
+
+		assertThat(first).isSameAs(cached);
+		assertThat(second).isSameAs(cached);
+		assertThat(cached.movies).isEmpty();
+	}
+
+	@Test
+	void shouldNotCacheProjectedEntities() {
+
+		nodeDescriptionStore.put("Country", NodeDescription.of(Country.class));
+		EntityCache entityCache = EntityCache.of(100, Duration.ofMinutes(5), nodeDescription -> nodeDescription.getRelationships().isEmpty());
+		DefaultNeo4jEntityConverter cachingConverter = createConverter(ConverterOptions.builder().entityCache(entityCache).build());
+
+		Country projected = cachingConverter.read(Country.class, record("n", Values.value(Map.of(
+				"code", "DE", "version", 1L, Constants.NAME_OF_INTERNAL_ID, 5L))));
+		Country complete = cachingConverter.read(Country.class, record("n", countryNode(5L, "Germany", 1L)));
+		Country cached = cachingConverter.read(Country.class, record("n", countryNode(5L, "Germany", 1L)));
+
+		assertThat(projected.name).isNull();
+		assertThat(complete).isNotSameAs(projected);
+		assertThat(complete.name).isEqualTo("Germany");
+		assertThat(cached).isSameAs(complete);
+		assertThat(entityCache.getHitCount()).isOne();
+	}
+
+	@Test
+	void shouldNotCacheEntitiesReadWithoutTheirRelationships() {
+
+		nodeDescriptionStore.put("Festival", NodeDescription.of(Festival.class));
+		EntityCache entityCache = EntityCache.of(100, Duration.ofMinutes(5), nodeDescription -> true);
+		DefaultNeo4jEntityConverter cachingConverter = createConverter(ConverterOptions.builder().entityCache(entityCache).build());
+		Value festivalNode = new NodeValue(new InternalNode(7L, List.of("Festival"), Map.of("name", Values.value("Berlinale"))));
+
+		Festival withoutRelationships = cachingConverter.read(Festival.class, record("n", festivalNode));
+		Festival complete = cachingConverter.read(Festival.class, synthesizedRecord(festivalNode,
+				List.of(movieNode(1L, "The Matrix", 1999L)), List.of(relationship(100L, 7L, 1L, "SHOWED"))));
+
+		assertThat(withoutRelationships.movies).isEmpty();
+		assertThat(complete).isNotSameAs(withoutRelationships);
+		assertThat(complete.movies).extracting(movie -> movie.title).containsExactly("The Matrix");
+		assertThat(cachingConverter.read(Festival.class, synthesizedRecord(festivalNode, List.of(), List.of()))).isSameAs(complete);
+	}
+
+	@Test
+	void shouldLoadLazyAssociationsOnFirstAccess() {
+
+		nodeDescriptionStore.put("Director", NodeDescription.of(Director.class));
+		List<Long> loadedSources = new ArrayList<>();
+		LazyAssociationLoader loader = (source, relationship, sourceId, reader, mappingContext) -> {
+			loadedSources.add(sourceId);
+			return List.of(reader.read(Movie.class, record("m", movieNode(2L, "Lost Highway", 1997L)), mappingContext));
+		};
+		DefaultNeo4jEntityConverter lazyConverter = createConverter(ConverterOptions.builder().lazyAssociationLoader(loader).build());
+
+		Director director = lazyConverter.read(Director.class, record("n", new NodeValue(new InternalNode(6L,
+				List.of("Director"), Map.of("name", Values.value("David Lynch"))))));
+
+		assertThat(loadedSources).isEmpty();
+		assertThat(director.directed).extracting(movie -> movie.title).containsExactly("Lost Highway");
+		assertThat(director.directed).hasSize(1);
+		assertThat(loadedSources).containsExactly(6L);
+	}
+
+	@Test
+	void shouldFailOnLazyAssociationsWithoutLoader() {
+
+		nodeDescriptionStore.put("Director", NodeDescription.of(Director.class));
+		MapAccessor record = record("n", new NodeValue(new InternalNode(6L, List.of("Director"), Map.of("name", Values.value("David Lynch")))));
+
+		assertThatExceptionOfType(MappingException.class)
+				.isThrownBy(() -> converter.read(Director.class, record))
+				.satisfies(e -> assertThat(e.getCause()).isInstanceOf(MappingException.class)
+						.hasMessageContaining("directed").hasMessageContaining("LazyAssociationLoader"));
+	}
+
+	@Test
+	void shouldRejectLazyRelationshipsWithProperties() {
+
+		nodeDescriptionStore.put("Agent", NodeDescription.of(Agent.class));
+		MapAccessor record = record("n", new NodeValue(new InternalNode(8L, List.of("Agent"), Map.of("name", Values.value("Ari")))));
+		DefaultNeo4jEntityConverter lazyConverter = createConverter(ConverterOptions.builder()
+				.lazyAssociationLoader((source, relationship, sourceId, reader, mappingContext) -> List.of()).build());
+
+		assertThatExceptionOfType(MappingException.class)
+				.isThrownBy(() -> lazyConverter.read(Agent.class, record))
+				.satisfies(e -> assertThat(e.getCause()).isInstanceOf(MappingException.class)
+						.hasMessageContaining("roles").hasMessageContaining("properties"));
+	}
+
+	@Test
+	void shouldMapRelatedEntitiesFromMapProjections() {
+
+		nodeDescriptionStore.put("Festival", NodeDescription.of(Festival.class));
+		MapAccessor record = record("n", Values.value(Map.of(
+				"name", "Berlinale",
+				Constants.NAME_OF_INTERNAL_ID, 7L,
+				"Festival_SHOWED_Movie", List.of(
+						Map.of("title", "The Matrix", "released", 1999L, Constants.NAME_OF_INTERNAL_ID, 1L),
+						Map.of("title", "Lost Highway", "released", 1997L, Constants.NAME_OF_INTERNAL_ID, 2L)))));
+
+		Festival festival = converter.read(Festival.class, record);
+
+		assertThat(festival.name).isEqualTo("Berlinale");
+		assertThat(festival.movies).extracting(movie -> movie.title).containsExactly("The Matrix", "Lost Highway");
+	}
+
+	@Test
+	void shouldMapRelatedEntitiesFromGenericRecords() {
+
+		nodeDescriptionStore.put("Festival", NodeDescription.of(Festival.class));
+		Value festivalNode = new NodeValue(new InternalNode(7L, List.of("Festival"), Map.of("name", Values.value("Berlinale"))));
+		MapAccessor record = new RecordMapAccessor(new InternalRecord(
+				List.of(Constants.NAME_OF_SYNTHESIZED_ROOT_NODE, Constants.NAME_OF_SYNTHESIZED_RELATED_NODES, Constants.NAME_OF_SYNTHESIZED_RELATIONS),
+				new Value[] {
+						festivalNode,
+						Values.value(List.of(movieNode(1L, "The Matrix", 1999L), movieNode(2L, "Lost Highway", 1997L))),
+						Values.value(List.of(
+								new RelationshipValue(new InternalRelationship(100L, 7L, 1L, "SHOWED")),
+								new RelationshipValue(new InternalRelationship(101L, 7L, 2L, "SHOWED"))))
+				}));
+
+		Festival festival = converter.read(Festival.class, record);
+
+		assertThat(festival.movies).extracting(movie -> movie.title).containsExactly("The Matrix", "Lost Highway");
+	}
+
+	@Test
+	void shouldPickTargetsByLabelAmongNodesWithSeveralLabels() {
+
+		nodeDescriptionStore.put("Festival", NodeDescription.of(Festival.class));
+		MapAccessor record = synthesizedRecord(
+				new NodeValue(new InternalNode(7L, List.of("Festival", "Event"), Map.of("name", Values.value("Berlinale")))),
+				List.of(new NodeValue(new InternalNode(30L, List.of("Person", "Director"), Map.of("name", Values.value("David Lynch")))),
+						new NodeValue(new InternalNode(2L, List.of("Classic", "Movie"), Map.of("title", Values.value("Lost Highway")))),
+						new NodeValue(new InternalNode(41L, List.of("Screening", "Event"), Map.of())),
+						new NodeValue(new InternalNode(1L, List.of("Movie", "SciFi", "Classic"), Map.of("title", Values.value("The Matrix"))))),
+				List.of(relationship(100L, 7L, 1L, "SHOWED"),
+						relationship(101L, 7L, 30L, "SHOWED"),
+						relationship(102L, 7L, 41L, "SHOWED"),
+						relationship(103L, 7L, 2L, "SHOWED")));
+
+		Festival festival = converter.read(Festival.class, record);
+
+		assertThat(festival.name).isEqualTo("Berlinale");
+		assertThat(festival.movies).extracting(movie -> movie.title).containsExactly("Lost Highway", "The Matrix");
+	}
+
+	@Test
+	void shouldMapOneToOneAndIncomingAssociationsThroughTheRecordIndex() {
+
+		nodeDescriptionStore.put("Premiere", NodeDescription.of(Premiere.class));
+		MapAccessor record = synthesizedRecord(
+				new NodeValue(new InternalNode(20L, List.of("Premiere"), Map.of("name", Values.value("Matrix Premiere")))),
+				List.of(countryNode(40L, "Germany", 1L), movieNode(2L, "Lost Highway", 1997L), movieNode(1L, "The Matrix", 1999L),
+						personNode(30L, "Keanu Reeves"), personNode(31L, "Carrie-Anne Moss")),
+				List.of(relationship(100L, 20L, 40L, "PREMIERE_OF"),
+						relationship(101L, 20L, 2L, "SHOWED"),
+						relationship(102L, 20L, 1L, "PREMIERE_OF"),
+						relationship(103L, 31L, 20L, "ATTENDED"),
+						relationship(104L, 30L, 20L, "ATTENDED"),
+						relationship(105L, 20L, 30L, "ATTENDED")));
+
+		Premiere premiere = converter.read(Premiere.class, record);
+
+		assertThat(premiere.movie.title).isEqualTo("The Matrix");
+		assertThat(premiere.guests).extracting(Person::name).containsExactly("Keanu Reeves", "Carrie-Anne Moss");
+	}
+
+	@Test
+	void shouldMapRelationshipPropertiesThroughTheRecordIndex() {
+
+		nodeDescriptionStore.put("Actor", NodeDescription.of(Actor.class));
+		MapAccessor record = synthesizedRecord(
+				new NodeValue(new InternalNode(21L, List.of("Actor"), Map.of("name", Values.value("Keanu Reeves")))),
+				List.of(movieNode(1L, "The Matrix", 1999L), movieNode(3L, "John Wick", 2014L)),
+				List.of(relationship(106L, 21L, 3L, "ACTED_IN", "John Wick"),
+						relationship(107L, 21L, 1L, "ACTED_IN", "Neo"),
+						relationship(108L, 21L, 1L, "DIRECTED", "Neo")));
+
+		Actor actor = converter.read(Actor.class, record);
+
+		assertThat(actor.roles).extracting(role -> role.name).containsExactly("Neo", "John Wick");
+		assertThat(actor.roles).extracting(role -> role.movie.title).containsExactly("The Matrix", "John Wick");
+	}
+
+	@Test
+	void shouldMapDynamicAssociationsThroughTheRecordIndex() {
+
+		nodeDescriptionStore.put("Cinema", NodeDescription.of(Cinema.class));
+		MapAccessor record = synthesizedRecord(
+				new NodeValue(new InternalNode(22L, List.of("Cinema"), Map.of("name", Values.value("Odeon")))),
+				List.of(movieNode(1L, "The Matrix", 1999L), movieNode(2L, "Lost Highway", 1997L), countryNode(40L, "Germany", 1L),
+						movieNode(3L, "John Wick", 2014L)),
+				List.of(relationship(109L, 22L, 1L, "MATINEE"),
+						relationship(110L, 22L, 3L, "LATE_SHOW"),
+						relationship(111L, 22L, 2L, "LATE_SHOW"),
+						relationship(112L, 22L, 40L, "LOCATED_IN"),
+						relationship(113L, 1L, 22L, "PREMIERED_IN")));
+
+		Cinema cinema = converter.read(Cinema.class, record);
+
+		assertThat(cinema.headliners).containsOnlyKeys("MATINEE", "LATE_SHOW");
+		assertThat(cinema.headliners.get("MATINEE").title).isEqualTo("The Matrix");
+		assertThat(cinema.screenings).containsOnlyKeys("MATINEE", "LATE_SHOW");
+		assertThat(cinema.screenings.get("LATE_SHOW")).extracting(movie -> movie.title).containsExactly("Lost Highway", "John Wick");
+	}
+
+	@Test
+	void shouldMapSurplusLabelsOntoDynamicLabels() {
+
+		nodeDescriptionStore.put("Release", NodeDescription.of(Release.class));
+		MapAccessor record = record("n", new NodeValue(new InternalNode(3L, List.of("Release", "Remastered"),
+				Map.of("name", Values.value("Blade Runner")))));
+
+		Release release = converter.read(Release.class, record);
+
+		assertThat(release.labels).containsExactly("Remastered");
+	}
+
+	@Test
+	void shouldRecordMappingMetrics() {
+
+		InMemoryMappingMetrics metrics = new InMemoryMappingMetrics();
+		DefaultNeo4jEntityConverter measuringConverter = createConverter(ConverterOptions.builder().metrics(metrics).build());
+
+		MappingContext mappingContext = new MappingContext();
+		measuringConverter.read(Movie.class, record("n", movieNode(1L, "The Matrix", 1999L)), mappingContext);
+		measuringConverter.read(Movie.class, record("n", movieNode(1L, "The Matrix", 1999L)), mappingContext);
+		measuringConverter.read(Movie.class, record("n", movieNode(2L, "Lost Highway", 1997L)), mappingContext);
+
+		InMemoryMappingMetrics.EntityMetrics movieMetrics = metrics.getMetrics(Movie.class);
+		assertThat(movieMetrics.getRecordsMapped()).isEqualTo(3);
+		assertThat(movieMetrics.getInstantiated()).isEqualTo(2);
+		assertThat(movieMetrics.getIdentityMapHits()).isOne();
+		assertThat(movieMetrics.getCyclesDetected()).isZero();
+		assertThat(movieMetrics.getLatency().getMaxNanos()).isPositive();
+	}
+
+	@Test
+	void shouldRecordMetricsOfRootsAndRelatedNodesPerClass() {
+
+		nodeDescriptionStore.put("Festival", NodeDescription.of(Festival.class));
+		InMemoryMappingMetrics metrics = new InMemoryMappingMetrics();
+		DefaultNeo4jEntityConverter measuringConverter = createConverter(ConverterOptions.builder().metrics(metrics).build());
+
+		MappingContext mappingContext = new MappingContext();
+		measuringConverter.read(Movie.class, record("n", movieNode(1L, "The Matrix", 1999L)), mappingContext);
+		for (String name : List.of("Berlinale", "Cannes")) {
+			measuringConverter.read(Festival.class, record("n", Values.value(Map.of(
+					"name", name,
+					Constants.NAME_OF_INTERNAL_ID, name.length(),
+					"Festival_SHOWED_Movie", List.of(
+							Map.of("title", "The Matrix", "released", 1999L, Constants.NAME_OF_INTERNAL_ID, 1L),
+							Map.of("title", "Lost Highway", "released", 1997L, Constants.NAME_OF_INTERNAL_ID, 2L))))),
+					mappingContext);
+		}
+
+		assertThat(metrics.getMetrics()).containsOnlyKeys(Movie.class, Festival.class);
+		InMemoryMappingMetrics.EntityMetrics movieMetrics = metrics.getMetrics(Movie.class);
+		assertThat(movieMetrics.getRecordsMapped()).isOne();
+		assertThat(movieMetrics.getInstantiated()).isEqualTo(2);
+		assertThat(movieMetrics.getIdentityMapHits()).isEqualTo(3);
+		assertThat(metrics.getMetrics(Festival.class).getRecordsMapped()).isEqualTo(2);
+	}
+
+	@Test
+	void shouldRecordReadAndRelationshipEvents() throws IOException {
+
+		nodeDescriptionStore.put("Festival", NodeDescription.of(Festival.class));
+		MapAccessor record = record("n", Values.value(Map.of(
+				"name", "Berlinale",
+				Constants.NAME_OF_INTERNAL_ID, 7L,
+				"Festival_SHOWED_Movie", List.of(
+						Map.of("title", "The Matrix", "released", 1999L, Constants.NAME_OF_INTERNAL_ID, 1L)))));
+
+		List<RecordedEvent> events;
+		try (Recording recording = new Recording()) {
+			recording.enable("org.neo4j.mapper.Read").withThreshold(Duration.ZERO);
+			recording.enable("org.neo4j.mapper.MapRelationship").withThreshold(Duration.ZERO);
+			recording.start();
+			converter.read(Festival.class, record);
+			recording.stop();
+
+			Path dump = Files.createTempFile("mapping", ".jfr");
+			try {
+				recording.dump(dump);
+				events = RecordingFile.readAllEvents(dump);
+			} finally {
+				Files.delete(dump);
+			}
+		}
+
+		assertThat(events)
+				.filteredOn(event -> "org.neo4j.mapper.Read".equals(event.getEventType().getName()))
+				.singleElement()
+				.satisfies(event -> assertThat(event.getClass("entityType").getName()).isEqualTo(Festival.class.getName()));
+		assertThat(events)
+				.filteredOn(event -> "org.neo4j.mapper.MapRelationship".equals(event.getEventType().getName()))
+				.singleElement()
+				.satisfies(event -> {
+					assertThat(event.getString("relationshipType")).isEqualTo("SHOWED");
+					assertThat(event.getInt("relatedEntities")).isOne();
+					assertThat(event.getBoolean("projected")).isTrue();
+				});
+	}
+
+	@Test
+	void shouldWriteEntitiesIntoSaveParameters() {
+
+		Movie movie = new Movie();
+		movie.title = "The Matrix";
+		movie.released = 1999L;
+		movie.rating = 8.7;
+
+		Map<String, Object> parameters = new HashMap<>();
+		converter.write(movie, parameters);
+
+		assertThat(parameters).containsOnlyKeys(Constants.NAME_OF_ID, Constants.NAME_OF_PROPERTIES_PARAM);
+		assertThat(parameters.get(Constants.NAME_OF_ID)).isEqualTo(Values.value("The Matrix"));
+		assertThat(parameters.get(Constants.NAME_OF_PROPERTIES_PARAM)).isEqualTo(Map.of(
+				"title", Values.value("The Matrix"),
+				"released", Values.value(1999L),
+				"rating", Values.value(8.7)));
+	}
+
+	@Test
+	void shouldWriteCurrentVersionSeparately() {
+
+		nodeDescriptionStore.put("Country", NodeDescription.of(Country.class));
+		Country country = new Country();
+		country.code = "DE";
+		country.version = 3L;
+
+		Map<String, Object> parameters = new HashMap<>();
+		converter.write(country, parameters);
+
+		assertThat(parameters.get(Constants.NAME_OF_VERSION_PARAM)).isEqualTo(3L);
+		assertThat(parameters.get(Constants.NAME_OF_PROPERTIES_PARAM)).isEqualTo(Map.of(
+				"code", Values.value("DE"),
+				"name", Values.NULL));
+	}
+
+	@Test
+	void shouldNotStoreInternalIdsAsProperties() {
+
+		nodeDescriptionStore.put("Ticket", NodeDescription.of(Ticket.class));
+		Ticket ticket = new Ticket();
+		ticket.seat = "12A";
+
+		Map<String, Object> parameters = new HashMap<>();
+		converter.write(ticket, parameters);
+
+		assertThat(parameters).containsEntry(Constants.NAME_OF_ID, null);
+		assertThat(parameters.get(Constants.NAME_OF_PROPERTIES_PARAM)).isEqualTo(Map.of("seat", Values.value("12A")));
+	}
+
+	@Test
+	void shouldNotWriteUnknownEntities() {
+
+		assertThatExceptionOfType(UnknownEntityException.class)
+				.isThrownBy(() -> converter.write(new Ticket(), new HashMap<>()));
+	}
+
+	private static Value countryNode(long id, String name, long version) {
+		return new NodeValue(new InternalNode(id, List.of("Country"),
+				Map.of("code", Values.value("DE"), "name", Values.value(name), "version", Values.value(version))));
+	}
+
+	private static Value movieNode(long id, String title, long released) {
+		return new NodeValue(new InternalNode(id, List.of("Movie"),
+				Map.of("title", Values.value(title), "released", Values.value(released))));
+	}
+
+	private static Value personNode(long id, String name) {
+		return new NodeValue(new InternalNode(id, List.of("Person"), Map.of("name", Values.value(name))));
+	}
+
+	private static Value relationship(long id, long start, long end, String type) {
+		return new RelationshipValue(new InternalRelationship(id, start, end, type));
+	}
+
+	private static Value relationship(long id, long start, long end, String type, String name) {
+		return new RelationshipValue(new InternalRelationship(id, start, end, type, Map.of("name", Values.value(name))));
+	}
+
+	private static Result result(Record... records) {
+		return (Result) Proxy.newProxyInstance(Result.class.getClassLoader(), new Class<?>[] { Result.class },
+				(proxy, method, args) -> {
+					if ("stream".equals(method.getName())) {
+						return Stream.of(records);
+					}
+					throw new UnsupportedOperationException(method.getName());
+				});
+	}
+
+	private static MapAccessor record(String key, Value value) {
+		return new RecordMapAccessor(new InternalRecord(List.of(key), new Value[] { value }));
+	}
+
+	@Node
+	public static class Movie {
+
+		@Id
+		public String title;
+
+		public Long released;
+
+		public double rating;
+	}
+
+	@Node
+	static class Studio {
+
+		@Id
+		private String name;
+
+		private Long founded;
+
+		String getName() {
+			return name;
+		}
+
+		Long getFounded() {
+			return founded;
+		}
+	}
+
+	@Node
+	static class Director {
+
+		@Id
+		String name;
+
+		@Relationship(type = "DIRECTED", lazy = true)
+		List<Movie> directed;
+	}
+
+	@Node
+	static class Agent {
+
+		@Id
+		String name;
+
+		@Relationship(type = "REPRESENTED", lazy = true)
+		List<Role> roles;
+	}
+
+	@Node
+	public static class Release {
+
+		@Id
+		public String name;
+
+		@DynamicLabels
+		public List<String> labels;
+	}
+
+	@Node
+	static class Festival {
+
+		@Id
+		String name;
+
+		@Relationship("SHOWED")
+		List<Movie> movies;
+	}
+
+	@Node
+	static class Premiere {
+
+		@Id
+		String name;
+
+		@Relationship("PREMIERE_OF")
+		Movie movie;
+
+		@Relationship(type = "ATTENDED", direction = Relationship.Direction.INCOMING)
+		List<Person> guests;
+	}
+
+	@Node
+	static class Actor {
+
+		@Id
+		String name;
+
+		@Relationship("ACTED_IN")
+		List<Role> roles;
+	}
+
+	@RelationshipProperties
+	static class Role {
+
+		@RelationshipId
+		Long id;
+
+		String name;
+
+		@TargetNode
+		Movie movie;
+	}
+
+	@Node
+	static class Cinema {
+
+		@Id
+		String name;
+
+		@Relationship
+		Map<String, Movie> headliners;
+
+		@Relationship
+		Map<String, List<Movie>> screenings;
+	}
+
+	@Node
+	static class Airport {
+
+		@Id
+		String code;
+
+		@Relationship("LOCATED_IN")
+		Country country;
+	}
+
+	@Node
+	static class Country {
+
+		@Id
+		String code;
+
+		String name;
+
+		@Version
+		Long version;
+	}
+
+	@Node
+	static class Ticket {
+
+		@Id
+		@GeneratedValue
+		Long id;
+
+		String seat;
+	}
+
+	@Node
+	public record Person(@Id String name, Long born) {
+	}
+
+	@Node
+	record Genre(@Id String name, String description) {
+
+		Genre(String name) {
+			this(name, null);
+		}
+	}
+}
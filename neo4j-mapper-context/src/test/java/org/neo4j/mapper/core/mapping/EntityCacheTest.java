@@ -0,0 +1,135 @@
+package org.neo4j.mapper.core.mapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.mapper.core.schema.Id;
+import org.neo4j.mapper.core.schema.Node;
+import org.neo4j.mapper.core.schema.Version;
+
+class EntityCacheTest {
+
+	private final AtomicLong now = new AtomicLong();
+
+	private final NodeDescription<Country> countries = NodeDescription.of(Country.class);
+
+	@Test
+	void shouldReturnCachedEntities() {
+
+		EntityCache entityCache = newCache(10);
+		Country germany = new Country();
+		entityCache.put(countries, "DE", 1L, germany);
+
+		assertThat(entityCache.get(countries, "DE", 1L)).isSameAs(germany);
+		assertThat(entityCache.get(countries, "FR", 1L)).isNull();
+		assertThat(entityCache.getHitCount()).isOne();
+		assertThat(entityCache.getMissCount()).isOne();
+	}
+
+	@Test
+	void shouldDropEntriesWithDifferentVersion() {
+
+		EntityCache entityCache = newCache(10);
+		entityCache.put(countries, "DE", 1L, new Country());
+
+		assertThat(entityCache.get(countries, "DE", 2L)).isNull();
+		assertThat(entityCache.size()).isZero();
+	}
+
+	@Test
+	void shouldExpireEntries() {
+
+		EntityCache entityCache = newCache(10);
+		entityCache.put(countries, "DE", null, new Country());
+
+		now.addAndGet(Duration.ofSeconds(59).toNanos());
+		assertThat(entityCache.get(countries, "DE", null)).isNotNull();
+
+		now.addAndGet(Duration.ofSeconds(1).toNanos());
+		assertThat(entityCache.get(countries, "DE", null)).isNull();
+	}
+
+	@Test
+	void shouldEvictLeastRecentlyUsedEntries() {
+
+		EntityCache entityCache = newCache(2);
+		entityCache.put(countries, "DE", null, new Country());
+		entityCache.put(countries, "FR", null, new Country());
+		entityCache.get(countries, "DE", null);
+		entityCache.put(countries, "IT", null, new Country());
+
+		assertThat(entityCache.get(countries, "DE", null)).isNotNull();
+		assertThat(entityCache.get(countries, "FR", null)).isNull();
+		assertThat(entityCache.get(countries, "IT", null)).isNotNull();
+	}
+
+	@Test
+	void shouldInvalidateEntries() {
+
+		EntityCache entityCache = newCache(1_000);
+		entityCache.put(countries, "DE", null, new Country());
+		entityCache.put(countries, "FR", null, new Country());
+		entityCache.put(countries, "IT", null, new Country());
+
+		entityCache.invalidate(countries, "DE");
+		assertThat(entityCache.get(countries, "DE", null)).isNull();
+		assertThat(entityCache.size()).isEqualTo(2);
+
+		entityCache.invalidateAll(countries);
+		assertThat(entityCache.size()).isZero();
+	}
+
+	@Test
+	void shouldShareEntriesBetweenDescriptionsOfTheSameClass() {
+
+		NodeDescription<?> countriesAsTarget = NodeDescription.of(Region.class).getRelationships().iterator().next().getTarget();
+		EntityCache entityCache = newCache(10);
+		Country germany = new Country();
+		entityCache.put(countriesAsTarget, "DE", null, germany);
+
+		assertThat(entityCache.get(countries, "DE", null)).isSameAs(germany);
+
+		entityCache.invalidate(countries, "DE");
+		assertThat(entityCache.get(countriesAsTarget, "DE", null)).isNull();
+	}
+
+	@Test
+	void shouldOnlyCacheRecordsWithoutRelationshipsByDefault() {
+
+		EntityCache entityCache = EntityCache.of(10, Duration.ofMinutes(1));
+
+		assertThat(entityCache.isCacheable(NodeDescription.of(Currency.class))).isTrue();
+		assertThat(entityCache.isCacheable(countries)).isFalse();
+		assertThat(entityCache.isCacheable(NodeDescription.of(Region.class))).isFalse();
+	}
+
+	private EntityCache newCache(int maximumSize) {
+		return new EntityCache(maximumSize, Duration.ofMinutes(1), nodeDescription -> true, now::get);
+	}
+
+	@Node
+	static class Country {
+
+		@Id
+		String code;
+
+		@Version
+		Long version;
+	}
+
+	@Node
+	record Currency(@Id String code, String name) {
+	}
+
+	@Node
+	static class Region {
+
+		@Id
+		String name;
+
+		Country country;
+	}
+}
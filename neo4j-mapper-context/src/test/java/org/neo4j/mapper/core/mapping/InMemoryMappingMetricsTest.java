@@ -0,0 +1,99 @@
+package org.neo4j.mapper.core.mapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.mapper.core.schema.Id;
+import org.neo4j.mapper.core.schema.Node;
+
+class InMemoryMappingMetricsTest {
+
+	private final NodeDescription<Country> countries = NodeDescription.of(Country.class);
+
+	@Test
+	void shouldAggregatePerEntityClass() {
+
+		InMemoryMappingMetrics metrics = new InMemoryMappingMetrics();
+		NodeDescription<Country> otherCountries = NodeDescription.of(Country.class);
+		metrics.recordMapped(countries, 100);
+		metrics.entityInstantiated(countries);
+		metrics.identityMapHit(otherCountries);
+		metrics.cycleDetected(otherCountries);
+
+		assertThat(metrics.getMetrics()).containsOnlyKeys(Country.class);
+		InMemoryMappingMetrics.EntityMetrics countryMetrics = metrics.getMetrics(Country.class);
+		assertThat(countryMetrics.getRecordsMapped()).isOne();
+		assertThat(countryMetrics.getInstantiated()).isOne();
+		assertThat(countryMetrics.getIdentityMapHits()).isOne();
+		assertThat(countryMetrics.getCyclesDetected()).isOne();
+
+		metrics.reset();
+
+		assertThat(metrics.getMetrics(Country.class)).isNull();
+	}
+
+	@Test
+	void shouldBoundPercentilesByPowersOfTwo() {
+
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 0; i < 99; i++) {
+			histogram.record(100);
+		}
+		histogram.record(5_000);
+
+		assertThat(histogram.getCount()).isEqualTo(100);
+		assertThat(histogram.getPercentileNanos(50)).isEqualTo(127);
+		assertThat(histogram.getPercentileNanos(99)).isEqualTo(127);
+		assertThat(histogram.getPercentileNanos(100)).isEqualTo(5_000);
+		assertThat(histogram.getMaxNanos()).isEqualTo(5_000);
+		assertThat(histogram.getMeanNanos()).isEqualTo(149.0);
+	}
+
+	@Test
+	void shouldHandleEdgeValues() {
+
+		LatencyHistogram histogram = new LatencyHistogram();
+
+		assertThat(histogram.getPercentileNanos(99)).isZero();
+		assertThatIllegalArgumentException().isThrownBy(() -> histogram.getPercentileNanos(101));
+
+		histogram.record(-1);
+		histogram.record(Long.MAX_VALUE);
+
+		assertThat(histogram.getPercentileNanos(50)).isZero();
+		assertThat(histogram.getPercentileNanos(100)).isEqualTo(Long.MAX_VALUE);
+	}
+
+	@Test
+	void shouldNotLoseConcurrentRecordings() throws InterruptedException {
+
+		InMemoryMappingMetrics metrics = new InMemoryMappingMetrics();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		for (int thread = 0; thread < 4; thread++) {
+			executor.submit(() -> {
+				for (int i = 1; i <= 10_000; i++) {
+					metrics.recordMapped(countries, i);
+				}
+			});
+		}
+		executor.shutdown();
+		assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+		LatencyHistogram latency = metrics.getMetrics(Country.class).getLatency();
+		assertThat(latency.getCount()).isEqualTo(40_000);
+		assertThat(latency.getMaxNanos()).isEqualTo(10_000);
+		assertThat(latency.getTotalNanos()).isEqualTo(4 * 10_000L * 10_001 / 2);
+	}
+
+	@Node
+	static class Country {
+
+		@Id
+		String code;
+	}
+}
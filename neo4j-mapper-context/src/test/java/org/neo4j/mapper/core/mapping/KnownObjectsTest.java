@@ -0,0 +1,126 @@
+package org.neo4j.mapper.core.mapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class KnownObjectsTest {
+
+	@Test
+	void shouldStoreAndRetrieveObjects() {
+
+		KnownObjects knownObjects = new KnownObjects();
+		Object object = new Object();
+		knownObjects.storeObject(23L, object);
+
+		assertThat(knownObjects.getObject(23L)).isSameAs(object);
+		assertThat(knownObjects.getObject(42L)).isNull();
+	}
+
+	@Test
+	void shouldIgnoreResultsWithoutId() {
+
+		KnownObjects knownObjects = new KnownObjects();
+		knownObjects.storeObject(KnownObjects.NO_ID, new Object());
+		knownObjects.setInCreation(KnownObjects.NO_ID);
+
+		assertThat(knownObjects.getObject(KnownObjects.NO_ID)).isNull();
+		assertThat(knownObjects.isInCreation(KnownObjects.NO_ID)).isFalse();
+		assertThat(knownObjects.size()).isZero();
+	}
+
+	@Test
+	void shouldTrackObjectsInCreation() {
+
+		KnownObjects knownObjects = new KnownObjects();
+		knownObjects.setInCreation(1L);
+
+		assertThat(knownObjects.isInCreation(1L)).isTrue();
+		assertThat(knownObjects.getObject(1L)).isNull();
+
+		knownObjects.storeObject(1L, new Object());
+
+		assertThat(knownObjects.isInCreation(1L)).isFalse();
+	}
+
+	@Test
+	void shouldMarkSharedObjects() {
+
+		KnownObjects knownObjects = new KnownObjects();
+		Object shared = new Object();
+		knownObjects.storeSharedObject(1L, shared);
+		knownObjects.storeObject(2L, new Object());
+
+		assertThat(knownObjects.getObject(1L)).isSameAs(shared);
+		assertThat(knownObjects.isShared(1L)).isTrue();
+		assertThat(knownObjects.isShared(2L)).isFalse();
+		assertThat(knownObjects.isShared(3L)).isFalse();
+	}
+
+	@Test
+	void shouldMarkObjectsMappedInPreviousRecords() {
+
+		KnownObjects knownObjects = new KnownObjects();
+		knownObjects.storeObject(1L, new Object());
+
+		assertThat(knownObjects.alreadyMappedInPreviousRecord(1L)).isFalse();
+
+		knownObjects.nextRecord();
+		knownObjects.storeObject(2L, new Object());
+
+		assertThat(knownObjects.alreadyMappedInPreviousRecord(1L)).isTrue();
+		assertThat(knownObjects.alreadyMappedInPreviousRecord(2L)).isFalse();
+	}
+
+	@Test
+	void shouldTreatObjectsStoredAgainAsMappedInCurrentRecord() {
+
+		KnownObjects knownObjects = new KnownObjects();
+		Object object = new Object();
+		knownObjects.storeObject(1L, object);
+		knownObjects.nextRecord();
+		knownObjects.nextRecord();
+
+		assertThat(knownObjects.alreadyMappedInPreviousRecord(1L)).isTrue();
+
+		knownObjects.storeObject(1L, object);
+
+		assertThat(knownObjects.alreadyMappedInPreviousRecord(1L)).isFalse();
+	}
+
+	@Test
+	void shouldEvictObjectsNotAccessedWithinWindow() {
+
+		KnownObjects knownObjects = new KnownObjects();
+		Object accessed = new Object();
+		knownObjects.storeObject(1L, accessed);
+		knownObjects.storeObject(2L, new Object());
+		knownObjects.setInCreation(3L);
+
+		for (int i = 0; i < 10; i++) {
+			knownObjects.nextRecord();
+			knownObjects.getObject(1L);
+			knownObjects.evictObjectsNotAccessedWithin(5);
+		}
+
+		assertThat(knownObjects.getObject(1L)).isSameAs(accessed);
+		assertThat(knownObjects.getObject(2L)).isNull();
+		assertThat(knownObjects.isInCreation(3L)).isTrue();
+		assertThat(knownObjects.size()).isEqualTo(2);
+	}
+
+	@Test
+	void shouldGrowBeyondInitialCapacity() {
+
+		KnownObjects knownObjects = new KnownObjects();
+		for (long i = 0; i < 10_000; i++) {
+			knownObjects.storeObject(i * 7, i);
+		}
+
+		assertThat(knownObjects.size()).isEqualTo(10_000);
+		for (long i = 0; i < 10_000; i++) {
+			assertThat(knownObjects.getObject(i * 7)).isEqualTo(i);
+		}
+		assertThat(knownObjects.getObject(1L)).isNull();
+	}
+}
@@ -0,0 +1,148 @@
+package org.neo4j.mapper.core.mapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.internal.InternalRecord;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+class MappingPublisherTest {
+
+	@Test
+	void shouldOnlyMapRequestedRecords() {
+
+		RecordsPublisher records = new RecordsPublisher(record("a"), record("b"), record("c"));
+		CollectingSubscriber subscriber = new CollectingSubscriber();
+		new MappingPublisher<>(records, (record, knownObjects) -> record.get("v").asString()).subscribe(subscriber);
+
+		assertThat(subscriber.items).isEmpty();
+
+		subscriber.subscription.request(2);
+
+		assertThat(subscriber.items).containsExactly("a", "b");
+		assertThat(records.requested).isEqualTo(2);
+		assertThat(subscriber.completed).isFalse();
+
+		subscriber.subscription.request(1);
+
+		assertThat(subscriber.items).containsExactly("a", "b", "c");
+		assertThat(subscriber.completed).isTrue();
+	}
+
+	@Test
+	void shouldShareIdentityMapWithinSubscription() {
+
+		List<KnownObjects> usedIdentityMaps = new ArrayList<>();
+		MappingPublisher<String> publisher = new MappingPublisher<>(new RecordsPublisher(record("a"), record("b")),
+				(record, knownObjects) -> {
+					usedIdentityMaps.add(knownObjects);
+					return record.get("v").asString();
+				});
+
+		CollectingSubscriber first = new CollectingSubscriber();
+		publisher.subscribe(first);
+		first.subscription.request(Long.MAX_VALUE);
+		CollectingSubscriber second = new CollectingSubscriber();
+		publisher.subscribe(second);
+		second.subscription.request(Long.MAX_VALUE);
+
+		assertThat(usedIdentityMaps).hasSize(4);
+		assertThat(usedIdentityMaps.get(1)).isSameAs(usedIdentityMaps.get(0));
+		assertThat(usedIdentityMaps.get(2)).isNotSameAs(usedIdentityMaps.get(0));
+	}
+
+	@Test
+	void shouldCancelUpstreamWhenMappingFails() {
+
+		RecordsPublisher records = new RecordsPublisher(record("a"), record("b"));
+		CollectingSubscriber subscriber = new CollectingSubscriber();
+		new MappingPublisher<String>(records, (record, knownObjects) -> {
+			throw new MappingException("Boom");
+		}).subscribe(subscriber);
+
+		subscriber.subscription.request(2);
+
+		assertThat(records.cancelled).isTrue();
+		assertThat(subscriber.error).isInstanceOf(MappingException.class);
+		assertThat(subscriber.items).isEmpty();
+	}
+
+	private static Record record(String value) {
+		return new InternalRecord(List.of("v"), new Value[] { Values.value(value) });
+	}
+
+	/**
+	 * Emits the given records synchronously, but only as many as requested.
+	 */
+	private static final class RecordsPublisher implements Publisher<Record> {
+
+		private final Record[] records;
+		private long requested;
+		private boolean cancelled;
+
+		RecordsPublisher(Record... records) {
+			this.records = records;
+		}
+
+		@Override
+		public void subscribe(Subscriber<? super Record> subscriber) {
+			subscriber.onSubscribe(new Subscription() {
+
+				private int next;
+
+				@Override
+				public void request(long n) {
+					requested += n;
+					while (n-- > 0 && next < records.length && !cancelled) {
+						subscriber.onNext(records[next++]);
+					}
+					if (next == records.length && !cancelled) {
+						subscriber.onComplete();
+					}
+				}
+
+				@Override
+				public void cancel() {
+					cancelled = true;
+				}
+			});
+		}
+	}
+
+	private static final class CollectingSubscriber implements Flow.Subscriber<String> {
+
+		private final List<String> items = new ArrayList<>();
+		private Flow.Subscription subscription;
+		private boolean completed;
+		private Throwable error;
+
+		@Override
+		public void onSubscribe(Flow.Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(String item) {
+			items.add(item);
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			this.error = throwable;
+		}
+
+		@Override
+		public void onComplete() {
+			this.completed = true;
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package org.neo4j.mapper.core.mapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.mapper.core.schema.Id;
+import org.neo4j.mapper.core.schema.Node;
+
+class NodeDescriptionStoreTest {
+
+	private final NodeDescription<Movie> movieDescription = NodeDescription.of(Movie.class);
+
+	private NodeDescriptionStore nodeDescriptionStore;
+
+	@BeforeEach
+	void setupStore() {
+		nodeDescriptionStore = new NodeDescriptionStore();
+		nodeDescriptionStore.put("Movie", movieDescription);
+	}
+
+	@Test
+	void shouldDeriveDynamicLabels() {
+
+		NodeDescriptionAndLabels result = nodeDescriptionStore
+				.deriveConcreteNodeDescription(movieDescription, List.of("Movie", "Classic"));
+
+		assertThat(result.getNodeDescription()).isSameAs(movieDescription);
+		assertThat(result.getDynamicLabels()).containsExactly("Classic");
+		assertThatExceptionOfType(UnsupportedOperationException.class)
+				.isThrownBy(() -> result.getDynamicLabels().add("Sci-Fi"));
+	}
+
+	@Test
+	void shouldResolveLabelSetsIndependentOfOrderAndDuplicates() {
+
+		NodeDescriptionAndLabels first = nodeDescriptionStore
+				.deriveConcreteNodeDescription(movieDescription, List.of("Movie", "Classic"));
+		NodeDescriptionAndLabels second = nodeDescriptionStore
+				.deriveConcreteNodeDescription(movieDescription, List.of("Classic", "Movie", "Classic"));
+
+		assertThat(second).isSameAs(first);
+	}
+
+	@Test
+	void shouldNotMixUpDifferentLabelSets() {
+
+		NodeDescriptionAndLabels first = nodeDescriptionStore
+				.deriveConcreteNodeDescription(movieDescription, List.of("Movie", "Classic"));
+		NodeDescriptionAndLabels second = nodeDescriptionStore
+				.deriveConcreteNodeDescription(movieDescription, List.of("Movie", "Blockbuster"));
+
+		assertThat(second.getDynamicLabels()).containsExactly("Blockbuster");
+		assertThat(first.getDynamicLabels()).containsExactly("Classic");
+	}
+
+	@Test
+	void shouldInvalidateResolvedLabelSetsWhenStoreChanges() {
+
+		NodeDescriptionAndLabels first = nodeDescriptionStore
+				.deriveConcreteNodeDescription(movieDescription, List.of("Movie", "Classic"));
+		nodeDescriptionStore.put("Other", NodeDescription.of(Movie.class));
+		NodeDescriptionAndLabels second = nodeDescriptionStore
+				.deriveConcreteNodeDescription(movieDescription, List.of("Movie", "Classic"));
+
+		assertThat(second).isNotSameAs(first);
+	}
+
+	@Test
+	void shouldFindNodeDescriptionByClass() {
+
+		assertThat(nodeDescriptionStore.getNodeDescription(Movie.class)).isSameAs(movieDescription);
+	}
+
+	@Test
+	void shouldFindNodeDescriptionBySubclass() {
+
+		assertThat(nodeDescriptionStore.getNodeDescription(DirectorsCut.class)).isSameAs(movieDescription);
+	}
+
+	@Test
+	void shouldPickUpNodeDescriptionsRegisteredAfterAMiss() {
+
+		assertThat(nodeDescriptionStore.getNodeDescription(Actor.class)).isNull();
+
+		NodeDescription<Actor> actorDescription = NodeDescription.of(Actor.class);
+		nodeDescriptionStore.put("Actor", actorDescription);
+
+		assertThat(nodeDescriptionStore.getNodeDescription(Actor.class)).isSameAs(actorDescription);
+	}
+
+	@Test
+	void shouldForgetReplacedNodeDescriptions() {
+
+		NodeDescription<Actor> actorDescription = NodeDescription.of(Actor.class);
+		nodeDescriptionStore.put("Movie", actorDescription);
+
+		assertThat(nodeDescriptionStore.getNodeDescription(Movie.class)).isNull();
+		assertThat(nodeDescriptionStore.getNodeDescription(Actor.class)).isSameAs(actorDescription);
+	}
+
+	@Node
+	static class Movie {
+
+		@Id
+		String title;
+	}
+
+	static class DirectorsCut extends Movie {
+	}
+
+	@Node
+	static class Actor {
+
+		@Id
+		String name;
+	}
+}
@@ -0,0 +1,89 @@
+package org.neo4j.mapper.core.mapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.mapper.core.schema.Id;
+import org.neo4j.mapper.core.schema.Node;
+
+class PropertyFilterTest {
+
+	private final NodeDescription<?> nodeDescription = NodeDescription.of(Person.class);
+
+	@Test
+	void shouldAcceptEverythingWithoutProjectedPaths() {
+
+		PropertyFilter propertyFilter = PropertyFilter.from(Map.of(), nodeDescription);
+
+		assertThat(propertyFilter.isNotFiltering()).isTrue();
+		assertThat(propertyFilter.contains("whatever.nested", String.class)).isTrue();
+	}
+
+	@Test
+	void shouldMatchProjectedPathsExactly() {
+
+		PropertyFilter propertyFilter = PropertyFilter.from(paths(Map.of("name", false, "address.city", false)), nodeDescription);
+
+		assertThat(propertyFilter.isNotFiltering()).isFalse();
+		assertThat(propertyFilter.contains("name", Person.class)).isTrue();
+		assertThat(propertyFilter.contains("address.city", Person.class)).isTrue();
+		assertThat(propertyFilter.contains(RelaxedPropertyPath.withRootType(Person.class).append("address").append("city"))).isTrue();
+		assertThat(propertyFilter.contains("address", Person.class)).isFalse();
+		assertThat(propertyFilter.contains("age", Person.class)).isFalse();
+		assertThat(propertyFilter.contains("address.street", Person.class)).isFalse();
+	}
+
+	@Test
+	void shouldLetTheDeepestProjectedPrefixDecideAboutNestedPaths() {
+
+		Map<String, Boolean> projectedPaths = new LinkedHashMap<>();
+		projectedPaths.put("friends", true);
+		projectedPaths.put("friends.address", false);
+		PropertyFilter propertyFilter = PropertyFilter.from(paths(projectedPaths), nodeDescription);
+
+		assertThat(propertyFilter.contains("friends.name", Person.class)).isTrue();
+		assertThat(propertyFilter.contains("friends.friends.name", Person.class)).isTrue();
+		assertThat(propertyFilter.contains("friends.address.city", Person.class)).isFalse();
+	}
+
+	@Test
+	void shouldOnlyMatchWholeSegments() {
+
+		PropertyFilter propertyFilter = PropertyFilter.from(paths(Map.of("friend", true)), nodeDescription);
+
+		assertThat(propertyFilter.contains("friend.name", Person.class)).isTrue();
+		assertThat(propertyFilter.contains("friends.name", Person.class)).isFalse();
+		assertThat(propertyFilter.contains("frie", Person.class)).isFalse();
+	}
+
+	@Test
+	void shouldRejectUnrelatedTypes() {
+
+		PropertyFilter propertyFilter = PropertyFilter.from(paths(Map.of("name", false)), nodeDescription);
+
+		assertThat(propertyFilter.contains("name", String.class)).isFalse();
+	}
+
+	private static Map<RelaxedPropertyPath, Boolean> paths(Map<String, Boolean> dotPaths) {
+
+		Map<RelaxedPropertyPath, Boolean> paths = new LinkedHashMap<>();
+		dotPaths.forEach((dotPath, projecting) -> {
+			RelaxedPropertyPath path = RelaxedPropertyPath.withRootType(Person.class);
+			for (String segment : dotPath.split("\\.")) {
+				path = path.append(segment);
+			}
+			paths.put(path, projecting);
+		});
+		return paths;
+	}
+
+	@Node
+	static class Person {
+
+		@Id
+		String name;
+	}
+}
@@ -0,0 +1,89 @@
+package org.neo4j.mapper.core.mapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.internal.InternalNode;
+import org.neo4j.driver.internal.InternalRecord;
+import org.neo4j.driver.internal.InternalRelationship;
+import org.neo4j.driver.internal.types.InternalTypeSystem;
+import org.neo4j.driver.internal.value.ListValue;
+import org.neo4j.driver.internal.value.NodeValue;
+import org.neo4j.driver.internal.value.RelationshipValue;
+import org.neo4j.driver.types.Relationship;
+import org.neo4j.driver.types.TypeSystem;
+
+class RecordIndexTest {
+
+	private static final TypeSystem TYPE_SYSTEM = InternalTypeSystem.TYPE_SYSTEM;
+
+	private final RecordIndex recordIndex = RecordIndex.of(
+			new RecordMapAccessor(new InternalRecord(List.of("__srn__", "__sr__"), new Value[] {
+					new ListValue(node(3L, "Person"), node(2L, "Movie"), node(3L, "Person")),
+					new ListValue(
+							relationship(10L, 1L, 2L, "ACTED_IN"),
+							relationship(11L, 1L, 3L, "KNOWS"),
+							relationship(12L, 1L, 2L, "DIRECTED"),
+							relationship(10L, 1L, 2L, "ACTED_IN"))
+			})),
+			TYPE_SYSTEM.NODE(), TYPE_SYSTEM.RELATIONSHIP(), TYPE_SYSTEM.LIST());
+
+	@Test
+	void shouldIndexNodesById() {
+
+		assertThat(recordIndex.getNode(2L)).isNotNull().satisfies(node -> assertThat(node.hasLabel("Movie")).isTrue());
+		assertThat(recordIndex.getNode(1L)).isNull();
+	}
+
+	@Test
+	void shouldKeepPositionOfFirstOccurrence() {
+
+		assertThat(recordIndex.getPosition(3L)).isZero();
+		assertThat(recordIndex.getPosition(2L)).isOne();
+		assertThat(recordIndex.getPosition(1L)).isEqualTo(Integer.MAX_VALUE);
+	}
+
+	@Test
+	void shouldIndexNodesByLabel() {
+
+		assertThat(recordIndex.hasLabel(2L, "Movie")).isTrue();
+		assertThat(recordIndex.hasLabel(3L, "Movie")).isFalse();
+		assertThat(recordIndex.hasLabel(1L, "Movie")).isFalse();
+		assertThat(recordIndex.getLabels(3L)).containsExactly("Person");
+		assertThat(recordIndex.getLabels(1L)).isEmpty();
+	}
+
+	@Test
+	void shouldIndexRelationshipsBySourceAndType() {
+
+		assertThat(recordIndex.getRelationships(1L, false, "ACTED_IN")).extracting(Relationship::id).containsExactly(10L);
+		assertThat(recordIndex.getRelationships(1L, false, "WROTE")).isEmpty();
+		assertThat(recordIndex.getRelationships(2L, false, "ACTED_IN")).isEmpty();
+	}
+
+	@Test
+	void shouldIndexRelationshipsByDirection() {
+
+		assertThat(recordIndex.getRelationships(2L, true, "ACTED_IN")).extracting(Relationship::id).containsExactly(10L);
+		assertThat(recordIndex.getRelationships(2L, true, null)).extracting(Relationship::id).containsExactly(10L, 12L);
+	}
+
+	@Test
+	void shouldReturnAllTypesWithoutType() {
+
+		assertThat(recordIndex.getRelationships(1L, false, null)).extracting(Relationship::id)
+				.containsExactlyInAnyOrder(10L, 11L, 12L);
+	}
+
+	private static Value node(long id, String label) {
+		return new NodeValue(new InternalNode(id, List.of(label), Map.of()));
+	}
+
+	private static Value relationship(long id, long start, long end, String type) {
+		return new RelationshipValue(new InternalRelationship(id, start, end, type));
+	}
+}
@@ -87,6 +87,18 @@ public enum CypherGenerator {
 	private static final SymbolicName RELATIONSHIP_NAME = Cypher.name("relProps");
 	private static final Pattern LOOKS_LIKE_A_FUNCTION = Pattern.compile(".+\\(.*\\)");
 
+	private final StatementCache statementCache = new StatementCache(StatementCache.DEFAULT_MAXIMUM_SIZE);
+
+	/**
+	 * Statements that depend only on node and relationship descriptions are created and rendered once and taken from
+	 * this cache afterwards. Statements with conditions or decorators and ongoing statements are not cached.
+	 *
+	 * @return The cache of created statements
+	 */
+	public StatementCache getStatementCache() {
+		return statementCache;
+	}
+
 	/**
 	 * @param nodeDescription The node description for which a match clause should be generated
 	 * @return An ongoing match
@@ -112,6 +124,16 @@ public enum CypherGenerator {
 	public StatementBuilder.OrderableOngoingReadingAndWith prepareMatchOf(NodeDescription<?> nodeDescription,
 																		  @Nullable Condition condition) {
 
+		StatementBuildEvent event = new StatementBuildEvent();
+		event.begin();
+		StatementBuilder.OrderableOngoingReadingAndWith match = createMatchOf(nodeDescription, condition);
+		event.end("prepareMatchOf", nodeDescription);
+		return match;
+	}
+
+	private StatementBuilder.OrderableOngoingReadingAndWith createMatchOf(NodeDescription<?> nodeDescription,
+			@Nullable Condition condition) {
+
 		Node rootNode = createRootNode(nodeDescription);
 
 		List<Expression> expressions = new ArrayList<>();
@@ -124,6 +146,17 @@ public enum CypherGenerator {
 	public StatementBuilder.OngoingReading prepareMatchOf(NodeDescription<?> nodeDescription,
 														  @Nullable List<PatternElement> initialMatchOn,
 														  @Nullable Condition condition) {
+
+		StatementBuildEvent event = new StatementBuildEvent();
+		event.begin();
+		StatementBuilder.OngoingReading match = createMatchOf(nodeDescription, initialMatchOn, condition);
+		event.end("prepareMatchOf", nodeDescription);
+		return match;
+	}
+
+	private StatementBuilder.OngoingReading createMatchOf(NodeDescription<?> nodeDescription,
+			@Nullable List<PatternElement> initialMatchOn, @Nullable Condition condition) {
+
 		Node rootNode = createRootNode(nodeDescription);
 
 		StatementBuilder.OngoingReadingWithoutWhere match = prepareMatchOfRootNode(rootNode, initialMatchOn);
@@ -140,6 +173,17 @@ public enum CypherGenerator {
 														  RelationshipDescription relationshipDescription, @Nullable List<PatternElement> initialMatchOn,
 														  @Nullable Condition condition) {
 
+		StatementBuildEvent event = new StatementBuildEvent();
+		event.begin();
+		StatementBuilder.OngoingReading match = createMatchOf(nodeDescription, relationshipDescription, initialMatchOn, condition);
+		event.end("prepareMatchOf", nodeDescription);
+		return match;
+	}
+
+	private StatementBuilder.OngoingReading createMatchOf(NodeDescription<?> nodeDescription,
+			RelationshipDescription relationshipDescription, @Nullable List<PatternElement> initialMatchOn,
+			@Nullable Condition condition) {
+
 		Node rootNode = createRootNode(nodeDescription);
 
 		StatementBuilder.OngoingReadingWithoutWhere match = prepareMatchOfRootNode(rootNode, initialMatchOn);
@@ -176,6 +220,42 @@ public enum CypherGenerator {
 				.with(expressions.toArray(new Expression[]{}));
 	}
 
+	/**
+	 * Creates a statement fetching an aggregate whose ids have been collected by one or more statements built with
+	 * {@link #prepareMatchOf(NodeDescription, RelationshipDescription, List, Condition)}. The statement takes three list
+	 * parameters, named {@link Constants#NAME_OF_SYNTHESIZED_ROOT_NODE}, {@link Constants#NAME_OF_SYNTHESIZED_RELATED_NODES}
+	 * and {@link Constants#NAME_OF_SYNTHESIZED_RELATIONS}, containing the ids of the root nodes, the related nodes and
+	 * the relationships. It returns one record per root node, containing the root node, all related nodes and all
+	 * relationships.
+	 *
+	 * @param nodeDescription The node description of the root nodes
+	 * @return A statement having three parameters.
+	 */
+	public Statement prepareMatchOfAggregate(NodeDescription<?> nodeDescription) {
+
+		return statementCache.get("prepareMatchOfAggregate", new Object[] { nodeDescription },
+				() -> rendered(createMatchOfAggregate(nodeDescription)));
+	}
+
+	private Statement createMatchOfAggregate(NodeDescription<?> nodeDescription) {
+
+		Node rootNode = createRootNode(nodeDescription);
+		Node relatedNode = anyNode("relatedNode");
+		Relationship relationship = anyNode().relationshipTo(anyNode()).named("relationship");
+		SymbolicName relatedNodes = Cypher.name(Constants.NAME_OF_SYNTHESIZED_RELATED_NODES);
+
+		return match(rootNode)
+				.where(Functions.id(rootNode).in(parameter(Constants.NAME_OF_SYNTHESIZED_ROOT_NODE)))
+				.optionalMatch(relatedNode)
+				.where(Functions.id(relatedNode).in(parameter(Constants.NAME_OF_SYNTHESIZED_RELATED_NODES)))
+				.with(new Expression[] { rootNode.getRequiredSymbolicName(), Functions.collectDistinct(relatedNode).as(relatedNodes) })
+				.optionalMatch(relationship)
+				.where(Functions.id(relationship).in(parameter(Constants.NAME_OF_SYNTHESIZED_RELATIONS)))
+				.returning(rootNode.getRequiredSymbolicName(), relatedNodes,
+						Functions.collectDistinct(relationship).as(Constants.NAME_OF_SYNTHESIZED_RELATIONS))
+				.build();
+	}
+
 	@NotNull
 	public Node createRootNode(NodeDescription<?> nodeDescription) {
 		String primaryLabel = nodeDescription.getPrimaryLabel();
@@ -213,6 +293,12 @@ public enum CypherGenerator {
 	 */
 	public Statement createStatementReturningDynamicLabels(NodeDescription<?> nodeDescription) {
 
+		return statementCache.get("createStatementReturningDynamicLabels", new Object[] { nodeDescription },
+				() -> rendered(createDynamicLabelsStatement(nodeDescription)));
+	}
+
+	private Statement createDynamicLabelsStatement(NodeDescription<?> nodeDescription) {
+
 		IdDescription idDescription = nodeDescription.getIdDescription();
 		Assert.notNull(idDescription, "Cannot load specific nodes by id without a corresponding attribute.");
 
@@ -222,7 +308,7 @@ public enum CypherGenerator {
 		if (nodeDescription.hasVersionProperty()) {
 
 			GraphPropertyDescription versionProperty = nodeDescription.getRequiredVersionProperty();
-			versionCondition = rootNode.property(versionProperty.getName())
+			versionCondition = rootNode.property(versionProperty.getPropertyName())
 					.isEqualTo(coalesce(parameter(Constants.NAME_OF_VERSION_PARAM), literalOf(0)));
 		} else {
 			versionCondition = Conditions.noCondition();
@@ -246,6 +332,19 @@ public enum CypherGenerator {
 
 	public Statement prepareDeleteOf(NodeDescription<?> nodeDescription, @Nullable Condition condition, boolean count) {
 
+		if (condition == null) {
+			return statementCache.get("prepareDeleteOf", new Object[] { nodeDescription, count },
+					() -> rendered(createDeleteOf(nodeDescription, null, count)));
+		}
+		StatementBuildEvent event = new StatementBuildEvent();
+		event.begin();
+		Statement statement = createDeleteOf(nodeDescription, condition, count);
+		event.end("prepareDeleteOf", nodeDescription);
+		return statement;
+	}
+
+	private Statement createDeleteOf(NodeDescription<?> nodeDescription, @Nullable Condition condition, boolean count) {
+
 		Node rootNode = node(nodeDescription.getPrimaryLabel(), nodeDescription.getAdditionalLabels())
 				.named(Constants.NAME_OF_TYPED_ROOT_NODE.apply(nodeDescription));
 		OngoingUpdate ongoingUpdate = match(rootNode).where(conditionOrNoCondition(condition)).detachDelete(rootNode);
@@ -258,6 +357,16 @@ public enum CypherGenerator {
 	public Statement prepareSaveOf(NodeDescription<?> nodeDescription,
 			UnaryOperator<OngoingMatchAndUpdate> updateDecorator) {
 
+		StatementBuildEvent event = new StatementBuildEvent();
+		event.begin();
+		Statement statement = createSaveOf(nodeDescription, updateDecorator);
+		event.end("prepareSaveOf", nodeDescription);
+		return statement;
+	}
+
+	private Statement createSaveOf(NodeDescription<?> nodeDescription,
+			UnaryOperator<OngoingMatchAndUpdate> updateDecorator) {
+
 		String primaryLabel = nodeDescription.getPrimaryLabel();
 		List<String> additionalLabels = nodeDescription.getAdditionalLabels();
 
@@ -271,7 +380,7 @@ public enum CypherGenerator {
 					.orElseThrow(() -> new MappingException("External id does not correspond to a graph property!"));
 
 			if (nodeDescription.hasVersionProperty()) {
-				Property versionProperty = rootNode.property(nodeDescription.getRequiredVersionProperty().getName());
+				Property versionProperty = rootNode.property(nodeDescription.getRequiredVersionProperty().getPropertyName());
 				String nameOfPossibleExistingNode = "hlp";
 				Node possibleExistingNode = node(primaryLabel, additionalLabels).named(nameOfPossibleExistingNode);
 
@@ -308,7 +417,7 @@ public enum CypherGenerator {
 			Statement updateIfExists;
 
 			if (nodeDescription.hasVersionProperty()) {
-				Property versionProperty = rootNode.property(nodeDescription.getRequiredVersionProperty().getName());
+				Property versionProperty = rootNode.property(nodeDescription.getRequiredVersionProperty().getPropertyName());
 
 				createIfNew = updateDecorator.apply(optionalMatch(possibleExistingNode)
 						.where(possibleExistingNode.internalId().isEqualTo(idParameter))
@@ -346,6 +455,12 @@ public enum CypherGenerator {
 
 	public Statement prepareSaveOfMultipleInstancesOf(NodeDescription<?> nodeDescription) {
 
+		return statementCache.get("prepareSaveOfMultipleInstancesOf", new Object[] { nodeDescription },
+				() -> rendered(createSaveOfMultipleInstancesOf(nodeDescription)));
+	}
+
+	private Statement createSaveOfMultipleInstancesOf(NodeDescription<?> nodeDescription) {
+
 		Assert.isTrue(!nodeDescription.isUsingInternalIds(),
 				"Only entities that use external IDs can be saved in a batch.");
 
@@ -368,6 +483,13 @@ public enum CypherGenerator {
 	@NotNull
 	public Statement prepareSaveOfRelationship(NodeDescription<?> NodeDescription,
 			RelationshipDescription relationship, @Nullable String dynamicRelationshipType) {
+
+		return statementCache.get("prepareSaveOfRelationship", new Object[] { NodeDescription, relationship, dynamicRelationshipType },
+				() -> rendered(createSaveOfRelationship(NodeDescription, relationship, dynamicRelationshipType)));
+	}
+
+	private Statement createSaveOfRelationship(NodeDescription<?> NodeDescription,
+			RelationshipDescription relationship, @Nullable String dynamicRelationshipType) {
 		final Node startNode = NodeDescription.isUsingInternalIds()
 				? anyNode(START_NODE_NAME)
 				: node(NodeDescription.getPrimaryLabel(), NodeDescription.getAdditionalLabels())
@@ -397,6 +519,16 @@ public enum CypherGenerator {
 				 boolean isNew,
 				 @Nullable String dynamicRelationshipType) {
 
+		return statementCache.get("prepareSaveOfRelationshipWithProperties",
+				new Object[] { NodeDescription, relationship, isNew, dynamicRelationshipType },
+				() -> rendered(createSaveOfRelationshipWithProperties(NodeDescription, relationship, isNew, dynamicRelationshipType)));
+	}
+
+	private Statement createSaveOfRelationshipWithProperties(NodeDescription<?> NodeDescription,
+				 RelationshipDescription relationship,
+				 boolean isNew,
+				 @Nullable String dynamicRelationshipType) {
+
 		Assert.isTrue(relationship.hasRelationshipProperties(),
 				"Properties required to create a relationship with properties");
 
@@ -434,6 +566,12 @@ public enum CypherGenerator {
 			NodeDescription<?> NodeDescription,
 			RelationshipDescription relationshipDescription
 	) {
+
+		return statementCache.get("prepareDeleteOfRelationship", new Object[] { NodeDescription, relationshipDescription },
+				() -> rendered(createDeleteOf(NodeDescription, relationshipDescription)));
+	}
+
+	private Statement createDeleteOf(NodeDescription<?> NodeDescription, RelationshipDescription relationshipDescription) {
 		final Node startNode = NodeDescription.isUsingInternalIds() ? anyNode(START_NODE_NAME)
 				: node(NodeDescription.getPrimaryLabel(), NodeDescription.getAdditionalLabels())
 						.named(START_NODE_NAME);
@@ -466,7 +604,8 @@ public enum CypherGenerator {
 	}
 
 	public Collection<Expression> createReturnStatementForMatch(NodeDescription<?> nodeDescription) {
-		return createReturnStatementForMatch(nodeDescription, (pp -> true));
+		return statementCache.get("createReturnStatementForMatch", new Object[] { nodeDescription },
+				() -> Collections.unmodifiableCollection(createProjectionForMatch(nodeDescription, (pp -> true))));
 	}
 
 	/**
@@ -480,6 +619,15 @@ public enum CypherGenerator {
 		if (sort == null || sort.isUnsorted()) {
 			return null;
 		}
+		StatementBuildEvent event = new StatementBuildEvent();
+		event.begin();
+		String fragment = renderOrderByFragment(sort);
+		event.end("createOrderByFragment", null);
+		return fragment;
+	}
+
+	private String renderOrderByFragment(Neo4jSort sort) {
+
 		Statement statement = match(anyNode()).returning("n")
 				.orderBy(sort.streamOrders().filter(Objects::nonNull).map(order -> {
 					String property = order.getProperty().trim();
@@ -521,6 +669,16 @@ public enum CypherGenerator {
 	public Collection<Expression> createReturnStatementForMatch(NodeDescription<?> nodeDescription,
 			Predicate<RelaxedPropertyPath> includeField) {
 
+		StatementBuildEvent event = new StatementBuildEvent();
+		event.begin();
+		Collection<Expression> expressions = createProjectionForMatch(nodeDescription, includeField);
+		event.end("createReturnStatementForMatch", nodeDescription);
+		return expressions;
+	}
+
+	private Collection<Expression> createProjectionForMatch(NodeDescription<?> nodeDescription,
+			Predicate<RelaxedPropertyPath> includeField) {
+
 		List<RelationshipDescription> processedRelationships = new ArrayList<>();
 		if (nodeDescription.containsPossibleCircles(includeField)) {
 			return createGenericReturnStatement();
@@ -620,6 +778,11 @@ public enum CypherGenerator {
 
 		for (RelationshipDescription relationshipDescription : relationships) {
 
+			// lazy relationships are loaded on first access through a query of their own
+			if (relationshipDescription.isLazy()) {
+				continue;
+			}
+
 			String fieldName = relationshipDescription.getFieldName();
 
 			// if we already processed the other way before, do not try to jump in the infinite loop
@@ -694,6 +857,14 @@ public enum CypherGenerator {
 		projectionList.add(projection);
 	}
 
+	/**
+	 * Renders the statement before it is cached, so that all users of the cached instance share the rendered Cypher.
+	 */
+	private static Statement rendered(Statement statement) {
+		statement.getCypher();
+		return statement;
+	}
+
 	private static Condition conditionOrNoCondition(@Nullable Condition condition) {
 		return condition == null ? Conditions.noCondition() : condition;
 	}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.cypher;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.mapper.core.mapping.NodeDescription;
+
+/**
+ * Emitted for each statement, statement fragment or ongoing statement created by the {@link CypherGenerator}. Statements
+ * served from the {@link StatementCache} are not built and therefore not recorded, the cache counts them instead. Only
+ * slow builds are recorded by default. Lower the threshold of {@code org.neo4j.mapper.BuildStatement} in the JFR
+ * settings to see all of them.
+ *
+ * @author Gerrit Meier
+ */
+@Name("org.neo4j.mapper.BuildStatement")
+@Label("Build Statement")
+@Description("Creation of a Cypher statement or fragment by the CypherGenerator")
+@Category({ "Neo4j Mapper", "Cypher" })
+@Threshold("1 ms")
+final class StatementBuildEvent extends Event {
+
+	@Label("Operation")
+	String operation;
+
+	@Label("Entity Type")
+	Class<?> entityType;
+
+	void end(String operation, @Nullable Object argument) {
+
+		end();
+		if (shouldCommit()) {
+			this.operation = operation;
+			this.entityType = argument instanceof NodeDescription<?> nodeDescription ? nodeDescription.getUnderlyingClass() : null;
+			commit();
+		}
+	}
+}
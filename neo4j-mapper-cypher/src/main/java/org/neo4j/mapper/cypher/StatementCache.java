@@ -0,0 +1,214 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.cypher;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.apiguardian.api.API;
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.mapper.core.support.Assert;
+
+/**
+ * A bounded cache of the statements and expressions created by the {@link CypherGenerator}. The generator uses it only
+ * for methods whose result depends on nothing but their arguments, such as node and relationship descriptions, names
+ * and flags. Those arguments are compared by equality, which is identity for the descriptions.
+ * <p>
+ * Statements are rendered before they are cached, and all callers share the same instance afterwards. Cached statements
+ * must therefore not be modified, for example through {@link org.neo4j.cypherdsl.core.Statement#setRenderConstantsAsParameters(boolean)}.
+ * <p>
+ * Lookups don't lock: Hits only record the time of their access on the entry. Once the maximum size has been exceeded,
+ * a miss evicts the least recently used entries. Concurrent misses may exceed the maximum size for a short time.
+ *
+ * @author Gerrit Meier
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "6.0")
+public final class StatementCache {
+
+	/**
+	 * The default number of cached statements. Each node description contributes a few statements at most, so this is
+	 * enough for a few hundred entities.
+	 */
+	static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+	private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+	private final int maximumSize;
+	private final LongSupplier nanoTime;
+
+	/**
+	 * Only serializes evictions, lookups never take it.
+	 */
+	private final Object evictionLock = new Object();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	StatementCache(int maximumSize) {
+		this(maximumSize, System::nanoTime);
+	}
+
+	StatementCache(int maximumSize, LongSupplier nanoTime) {
+
+		Assert.isTrue(maximumSize > 0, "The maximum size must be positive");
+		this.maximumSize = maximumSize;
+		this.nanoTime = nanoTime;
+	}
+
+	/**
+	 * Returns the cached value for the operation and its arguments or creates and caches a new one. The value is
+	 * created without holding a lock, concurrent callers might create the same value more than once. All of them get
+	 * the value that has been cached first.
+	 *
+	 * @param operation The name of the operation
+	 * @param arguments All arguments the value depends on
+	 * @param supplier Creates the value on a miss
+	 * @param <T> The type of the value
+	 * @return The cached or newly created value
+	 */
+	@SuppressWarnings("unchecked")
+	<T> T get(String operation, Object[] arguments, Supplier<T> supplier) {
+
+		Key key = new Key(operation, arguments);
+		Entry entry = entries.get(key);
+		if (entry != null) {
+			entry.lastAccess = nanoTime.getAsLong();
+			hits.increment();
+			return (T) entry.value;
+		}
+
+		misses.increment();
+		StatementBuildEvent event = new StatementBuildEvent();
+		event.begin();
+		Entry newEntry = new Entry(supplier.get(), nanoTime.getAsLong());
+		Entry existingEntry = entries.putIfAbsent(key, newEntry);
+		event.end(operation, firstOf(arguments));
+		if (existingEntry != null) {
+			return (T) existingEntry.value;
+		}
+		if (entries.size() > maximumSize) {
+			evictLeastRecentlyUsed();
+		}
+		return (T) newEntry.value;
+	}
+
+	/**
+	 * Scans all entries for the least recently used one. This is linear in the maximum size, but only happens on misses
+	 * of a full cache, which build a statement anyway.
+	 */
+	private void evictLeastRecentlyUsed() {
+
+		synchronized (evictionLock) {
+			while (entries.size() > maximumSize) {
+				Map.Entry<Key, Entry> eldest = null;
+				for (Map.Entry<Key, Entry> candidate : entries.entrySet()) {
+					if (eldest == null || candidate.getValue().lastAccess - eldest.getValue().lastAccess < 0) {
+						eldest = candidate;
+					}
+				}
+				if (eldest == null) {
+					return;
+				}
+				entries.remove(eldest.getKey(), eldest.getValue());
+			}
+		}
+	}
+
+	@Nullable
+	private static Object firstOf(Object[] arguments) {
+		return arguments.length == 0 ? null : arguments[0];
+	}
+
+	/**
+	 * Removes all cached statements, for example after node descriptions have been replaced.
+	 */
+	public void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * @return The number of cached statements
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return The number of lookups that returned a cached statement
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return The number of lookups that had to create a statement
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "StatementCache{size=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount() + "}";
+	}
+
+	private static final class Entry {
+
+		private final Object value;
+
+		/**
+		 * Written by concurrent hits without locking, eviction only needs an approximate order.
+		 */
+		private volatile long lastAccess;
+
+		Entry(Object value, long lastAccess) {
+			this.value = value;
+			this.lastAccess = lastAccess;
+		}
+	}
+
+	private static final class Key {
+
+		private final String operation;
+		private final Object[] arguments;
+		private final int hashCode;
+
+		Key(String operation, Object[] arguments) {
+			this.operation = operation;
+			this.arguments = arguments;
+			this.hashCode = 31 * operation.hashCode() + Arrays.hashCode(arguments);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key other)) {
+				return false;
+			}
+			return operation.equals(other.operation) && Arrays.equals(arguments, other.arguments);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+}
@@ -7,6 +7,7 @@ import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.Mockito;
 import org.neo4j.cypherdsl.core.Cypher;
+import org.neo4j.cypherdsl.core.Expression;
 import org.neo4j.cypherdsl.core.Statement;
 import org.neo4j.cypherdsl.core.renderer.Renderer;
 import org.neo4j.mapper.core.mapping.Constants;
@@ -15,13 +16,25 @@ import org.neo4j.mapper.core.mapping.NodeDescription;
 import org.neo4j.mapper.core.mapping.RelationshipDescription;
 import org.neo4j.mapper.core.schema.Id;
 import org.neo4j.mapper.core.schema.Node;
+import org.neo4j.mapper.core.schema.Relationship;
+import org.neo4j.mapper.core.schema.Version;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.UnaryOperator;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -229,6 +242,110 @@ class CypherGeneratorTest {
 		assertThat(renderedStatement).doesNotContainPattern(typedRelationshipsPattern);
 	}
 
+	@Test
+	void shouldCreateAggregateFetchQuery() {
+		NodeDescription<?> persistentEntity = NodeDescription.of(Entity1.class);
+
+		Statement statement = CypherGenerator.INSTANCE.prepareMatchOfAggregate(persistentEntity);
+
+		assertThat(statement.getParameterNames()).containsExactlyInAnyOrder(Constants.NAME_OF_SYNTHESIZED_ROOT_NODE,
+				Constants.NAME_OF_SYNTHESIZED_RELATED_NODES, Constants.NAME_OF_SYNTHESIZED_RELATIONS);
+		assertThat(Renderer.getDefaultRenderer().render(statement))
+				.contains("id(relatedNode) IN $__srn__")
+				.contains("id(relationship) IN $__sr__")
+				.endsWith("collect(DISTINCT relationship) AS __sr__");
+	}
+
+	@Test
+	void shouldLeaveLazyRelationshipsOutOfTheProjection() {
+		NodeDescription<?> persistentEntity = NodeDescription.of(EntityWithLazyRelationship.class);
+
+		Collection<Expression> returnStatement = CypherGenerator.INSTANCE
+				.createReturnStatementForMatch(persistentEntity, path -> true);
+		Statement statement = CypherGenerator.INSTANCE.prepareMatchOf(persistentEntity).returning(returnStatement).build();
+
+		assertThat(Renderer.getDefaultRenderer().render(statement)).doesNotContain("RELATED_TO");
+	}
+
+	@Test
+	void shouldServeStatementsWithoutConditionsFromTheCache() {
+		NodeDescription<?> persistentEntity = NodeDescription.of(Entity1.class);
+		StatementCache statementCache = CypherGenerator.INSTANCE.getStatementCache();
+		long hits = statementCache.getHitCount();
+
+		Statement statement = CypherGenerator.INSTANCE.prepareDeleteOf(persistentEntity);
+
+		assertThat(CypherGenerator.INSTANCE.prepareDeleteOf(persistentEntity)).isSameAs(statement);
+		assertThat(CypherGenerator.INSTANCE.prepareDeleteOf(persistentEntity, null, true)).isNotSameAs(statement);
+		assertThat(CypherGenerator.INSTANCE.prepareDeleteOf(NodeDescription.of(Entity1.class))).isNotSameAs(statement);
+		assertThat(CypherGenerator.INSTANCE.prepareDeleteOf(persistentEntity, Cypher.literalTrue().asCondition()))
+				.isNotSameAs(statement);
+		assertThat(statementCache.getHitCount()).isEqualTo(hits + 1);
+	}
+
+	@Test
+	void shouldCheckVersionPropertyWhenSavingVersionedEntities() {
+		NodeDescription<?> persistentEntity = NodeDescription.of(VersionedEntity.class);
+
+		Statement statement = CypherGenerator.INSTANCE.prepareSaveOf(persistentEntity, UnaryOperator.identity());
+
+		assertThat(Renderer.getDefaultRenderer().render(statement))
+				.contains("CREATE (versionedEntity:`VersionedEntity` {version: 0})")
+				.contains("AND versionedEntity.version = $__version__) SET versionedEntity.version = (versionedEntity.version + 1)");
+	}
+
+	@Test
+	void shouldRecordStatementBuildEvents() throws IOException {
+		NodeDescription<?> persistentEntity = NodeDescription.of(Entity2.class);
+
+		List<RecordedEvent> events;
+		try (Recording recording = new Recording()) {
+			recording.enable("org.neo4j.mapper.BuildStatement").withThreshold(Duration.ZERO);
+			recording.start();
+			CypherGenerator.INSTANCE.prepareSaveOf(persistentEntity, UnaryOperator.identity());
+			CypherGenerator.INSTANCE.prepareDeleteOf(persistentEntity);
+			CypherGenerator.INSTANCE.prepareDeleteOf(persistentEntity);
+			recording.stop();
+
+			Path dump = Files.createTempFile("statements", ".jfr");
+			try {
+				recording.dump(dump);
+				events = RecordingFile.readAllEvents(dump);
+			} finally {
+				Files.delete(dump);
+			}
+		}
+
+		assertThat(events)
+				.filteredOn(event -> "prepareSaveOf".equals(event.getString("operation")))
+				.singleElement()
+				.satisfies(event -> assertThat(event.getClass("entityType").getName()).isEqualTo(Entity2.class.getName()));
+		// The second statement is served from the cache and not built again
+		assertThat(events)
+				.filteredOn(event -> "prepareDeleteOf".equals(event.getString("operation")))
+				.hasSize(1);
+	}
+
+	@Node
+	private static class VersionedEntity {
+
+		@Id
+		private String name;
+
+		@Version
+		private Long version;
+	}
+
+	@Node
+	private static class EntityWithLazyRelationship {
+
+		@Id
+		private Long id;
+
+		@Relationship(type = "RELATED_TO", lazy = true)
+		private List<Entity1> related;
+	}
+
 	@Node
 	private static class Entity1 {
 
@@ -0,0 +1,119 @@
+package org.neo4j.mapper.cypher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class StatementCacheTest {
+
+	@Test
+	void shouldCountHitsAndMisses() {
+
+		StatementCache statementCache = new StatementCache(10);
+		AtomicInteger created = new AtomicInteger();
+
+		assertThat(statementCache.<Object>get("op", new Object[] { "a", 1 }, created::incrementAndGet)).isEqualTo(1);
+		assertThat(statementCache.<Object>get("op", new Object[] { "a", 1 }, created::incrementAndGet)).isEqualTo(1);
+		assertThat(statementCache.<Object>get("op", new Object[] { "a", 2 }, created::incrementAndGet)).isEqualTo(2);
+		assertThat(statementCache.<Object>get("other", new Object[] { "a", 1 }, created::incrementAndGet)).isEqualTo(3);
+
+		assertThat(statementCache.getHitCount()).isOne();
+		assertThat(statementCache.getMissCount()).isEqualTo(3);
+		assertThat(statementCache.size()).isEqualTo(3);
+	}
+
+	@Test
+	void shouldEvictLeastRecentlyUsedStatements() {
+
+		AtomicLong ticks = new AtomicLong();
+		StatementCache statementCache = new StatementCache(2, ticks::incrementAndGet);
+
+		statementCache.get("op", new Object[] { 1 }, () -> "1");
+		statementCache.get("op", new Object[] { 2 }, () -> "2");
+		statementCache.get("op", new Object[] { 1 }, () -> "1'");
+		statementCache.get("op", new Object[] { 3 }, () -> "3");
+
+		assertThat(statementCache.size()).isEqualTo(2);
+		assertThat(statementCache.<String>get("op", new Object[] { 1 }, () -> "1''")).isEqualTo("1");
+		assertThat(statementCache.<String>get("op", new Object[] { 2 }, () -> "2'")).isEqualTo("2'");
+	}
+
+	@Test
+	void shouldServeConcurrentHitsWithTheSameInstances() throws Exception {
+
+		StatementCache statementCache = new StatementCache(100);
+		AtomicInteger created = new AtomicInteger();
+		for (int i = 0; i < 10; i++) {
+			int argument = i;
+			statementCache.get("op", new Object[] { argument }, () -> "statement " + argument + " #" + created.incrementAndGet());
+		}
+
+		int numberOfThreads = 8;
+		int lookupsPerThread = 10_000;
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<?>> lookups = new ArrayList<>();
+			for (int thread = 0; thread < numberOfThreads; thread++) {
+				lookups.add(executor.submit(() -> {
+					start.await();
+					for (int i = 0; i < lookupsPerThread; i++) {
+						int argument = i % 10;
+						String statement = statementCache.get("op", new Object[] { argument },
+								() -> "statement " + argument + " #" + created.incrementAndGet());
+						assertThat(statement).isEqualTo("statement " + argument + " #" + (argument + 1));
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> lookup : lookups) {
+				lookup.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(created).hasValue(10);
+		assertThat(statementCache.getHitCount()).isEqualTo((long) numberOfThreads * lookupsPerThread);
+		assertThat(statementCache.getMissCount()).isEqualTo(10);
+	}
+
+	@Test
+	void shouldStayBoundedUnderConcurrentMisses() throws Exception {
+
+		StatementCache statementCache = new StatementCache(16);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> lookups = new ArrayList<>();
+			for (int thread = 0; thread < 4; thread++) {
+				int offset = thread * 1_000;
+				lookups.add(executor.submit(() -> {
+					for (int i = 0; i < 1_000; i++) {
+						int argument = offset + i;
+						statementCache.get("op", new Object[] { argument }, () -> "statement " + argument);
+					}
+					return null;
+				}));
+			}
+			for (Future<?> lookup : lookups) {
+				lookup.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(statementCache.size()).isLessThanOrEqualTo(16);
+		assertThat(statementCache.getMissCount()).isEqualTo(4_000);
+	}
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.executor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apiguardian.api.API;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Value;
+import org.neo4j.mapper.core.mapping.Constants;
+
+/**
+ * The ids of the root nodes, the related nodes and the relationships making up one or more aggregates. The ids are
+ * collected from records returned by statements that synthesize {@link Constants#NAME_OF_SYNTHESIZED_ROOT_NODE},
+ * {@link Constants#NAME_OF_SYNTHESIZED_RELATED_NODES} and {@link Constants#NAME_OF_SYNTHESIZED_RELATIONS}, and are
+ * kept in order of their first occurrence.
+ * <p>
+ * Instances are not thread-safe. Ids collected concurrently are merged afterwards via {@link #merge(AggregateIds)}.
+ *
+ * @author Gerrit Meier
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "6.0")
+public final class AggregateIds {
+
+	private final Set<Long> rootNodeIds = new LinkedHashSet<>();
+	private final Set<Long> relatedNodeIds = new LinkedHashSet<>();
+	private final Set<Long> relationshipIds = new LinkedHashSet<>();
+
+	AggregateIds() {
+	}
+
+	/**
+	 * Collects all ids contained in the given records. Records missing one of the synthesized lists contribute only the
+	 * ones they contain.
+	 *
+	 * @param records The records to collect the ids from
+	 * @return The ids contained in the records
+	 */
+	public static AggregateIds of(Iterable<Record> records) {
+
+		AggregateIds aggregateIds = new AggregateIds();
+		for (Record record : records) {
+			addAll(record, Constants.NAME_OF_SYNTHESIZED_ROOT_NODE, aggregateIds.rootNodeIds);
+			addAll(record, Constants.NAME_OF_SYNTHESIZED_RELATED_NODES, aggregateIds.relatedNodeIds);
+			addAll(record, Constants.NAME_OF_SYNTHESIZED_RELATIONS, aggregateIds.relationshipIds);
+		}
+		return aggregateIds;
+	}
+
+	private static void addAll(Record record, String key, Set<Long> ids) {
+
+		if (!record.containsKey(key)) {
+			return;
+		}
+		Value value = record.get(key);
+		if (!value.isNull()) {
+			ids.addAll(value.asList(Value::asLong));
+		}
+	}
+
+	/**
+	 * Adds all ids of {@code other} to this instance.
+	 *
+	 * @param other The ids to add
+	 * @return This instance
+	 */
+	public AggregateIds merge(AggregateIds other) {
+
+		this.rootNodeIds.addAll(other.rootNodeIds);
+		this.relatedNodeIds.addAll(other.relatedNodeIds);
+		this.relationshipIds.addAll(other.relationshipIds);
+		return this;
+	}
+
+	/**
+	 * Adds the given ids as ids of root nodes.
+	 *
+	 * @param ids The ids to add
+	 * @return This instance
+	 */
+	AggregateIds addRootNodeIds(Collection<Long> ids) {
+
+		this.rootNodeIds.addAll(ids);
+		return this;
+	}
+
+	/**
+	 * Adds the ids of the related nodes and relationships of {@code other} to this instance, but not its root nodes.
+	 *
+	 * @param other The ids to add
+	 * @return This instance
+	 */
+	AggregateIds mergeRelated(AggregateIds other) {
+
+		this.relatedNodeIds.addAll(other.relatedNodeIds);
+		this.relationshipIds.addAll(other.relationshipIds);
+		return this;
+	}
+
+	public Set<Long> getRootNodeIds() {
+		return Collections.unmodifiableSet(rootNodeIds);
+	}
+
+	public Set<Long> getRelatedNodeIds() {
+		return Collections.unmodifiableSet(relatedNodeIds);
+	}
+
+	public Set<Long> getRelationshipIds() {
+		return Collections.unmodifiableSet(relationshipIds);
+	}
+
+	/**
+	 * @return True, if no root node has been found
+	 */
+	public boolean isEmpty() {
+		return rootNodeIds.isEmpty();
+	}
+
+	/**
+	 * @return The parameters for a statement created by {@code CypherGenerator#prepareMatchOfAggregate}
+	 */
+	public Map<String, Object> asParameters() {
+		return Map.of(
+				Constants.NAME_OF_SYNTHESIZED_ROOT_NODE, new ArrayList<>(rootNodeIds),
+				Constants.NAME_OF_SYNTHESIZED_RELATED_NODES, new ArrayList<>(relatedNodeIds),
+				Constants.NAME_OF_SYNTHESIZED_RELATIONS, new ArrayList<>(relationshipIds));
+	}
+
+	@Override
+	public String toString() {
+		return "AggregateIds{rootNodeIds=" + rootNodeIds + ", relatedNodeIds=" + relatedNodeIds + ", relationshipIds="
+				+ relationshipIds + "}";
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.executor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apiguardian.api.API;
+import org.neo4j.cypherdsl.core.Condition;
+import org.neo4j.cypherdsl.core.Cypher;
+import org.neo4j.cypherdsl.core.Functions;
+import org.neo4j.cypherdsl.core.Statement;
+import org.neo4j.mapper.core.convert.NodeReader;
+import org.neo4j.mapper.core.mapping.Constants;
+import org.neo4j.mapper.core.mapping.LazyAssociationLoader;
+import org.neo4j.mapper.core.mapping.MappingContext;
+import org.neo4j.mapper.core.mapping.MappingException;
+import org.neo4j.mapper.core.mapping.NodeDescription;
+import org.neo4j.mapper.core.mapping.RelationshipDescription;
+import org.neo4j.mapper.core.support.Assert;
+import org.neo4j.mapper.cypher.CypherGenerator;
+
+/**
+ * Loads lazy associations through the driver. The ids of the related nodes are fetched with the
+ * {@link CypherGenerator#prepareMatchOf(NodeDescription, RelationshipDescription, List, Condition) statement matching
+ * the lazy relationship} of the source node. The eager relationships of the related nodes are then followed level by
+ * level until no new nodes are found, all statements of one level run concurrently through the {@link FanOutExecutor}.
+ * Lazy relationships of the related nodes are lazy again. Finally, the related nodes are fetched as aggregates and
+ * mapped within the context of the query that mapped the source, so that nodes already mapped there (for example the
+ * source itself) are not mapped onto new instances. Relationships with properties cannot be loaded lazily.
+ *
+ * @author Gerrit Meier
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "6.0")
+public final class DriverLazyAssociationLoader implements LazyAssociationLoader {
+
+	private final FanOutExecutor executor;
+
+	/**
+	 * @param executor The executor to run the statements with
+	 * @return A new loader
+	 */
+	public static DriverLazyAssociationLoader of(FanOutExecutor executor) {
+		return new DriverLazyAssociationLoader(executor);
+	}
+
+	private DriverLazyAssociationLoader(FanOutExecutor executor) {
+
+		Assert.notNull(executor, "Executor must not be null");
+		this.executor = executor;
+	}
+
+	@Override
+	public Collection<?> load(NodeDescription<?> sourceDescription, RelationshipDescription relationshipDescription,
+			long sourceId, NodeReader nodeReader, MappingContext mappingContext) {
+
+		// The targets are loaded as aggregates of their own, relationship properties would get lost on the way
+		if (relationshipDescription.hasRelationshipProperties()) {
+			throw new MappingException(String.format("Cannot load the relationship %s with properties lazily",
+					relationshipDescription.getType()));
+		}
+
+		Condition isSource = Functions.id(CypherGenerator.INSTANCE.createRootNode(sourceDescription))
+				.isEqualTo(Cypher.parameter(Constants.NAME_OF_ID, sourceId));
+		Statement relatedNodes = CypherGenerator.INSTANCE
+				.prepareMatchOf(sourceDescription, relationshipDescription, null, isSource)
+				.returning(CypherGenerator.INSTANCE.createGenericReturnStatement())
+				.build();
+
+		Set<Long> targetIds = executor.fetchAggregateIds(List.of(relatedNodes)).getRelatedNodeIds();
+		if (targetIds.isEmpty()) {
+			return List.of();
+		}
+
+		NodeDescription<?> targetDescription = relationshipDescription.getTarget();
+		AggregateIds aggregateIds = new AggregateIds().addRootNodeIds(targetIds);
+		collectEagerRelationships(targetDescription, targetIds, aggregateIds);
+		return executor.loadAggregates(targetDescription.getUnderlyingClass(), targetDescription, aggregateIds,
+				nodeReader, mappingContext);
+	}
+
+	/**
+	 * Follows the eager relationships of the targets level by level until no new nodes are found, so that the targets
+	 * are populated as deep as they would be when read eagerly. All statements of one level run concurrently.
+	 */
+	private void collectEagerRelationships(NodeDescription<?> targetDescription, Set<Long> targetIds,
+			AggregateIds aggregateIds) {
+
+		// Descriptions don't have value semantics, nodes are therefore tracked per class
+		Map<Class<?>, Set<Long>> visitedNodeIds = new HashMap<>();
+		visitedNodeIds.put(targetDescription.getUnderlyingClass(), new HashSet<>(targetIds));
+		Map<NodeDescription<?>, Set<Long>> level = Map.of(targetDescription, targetIds);
+
+		while (!level.isEmpty()) {
+			List<Statement> statements = new ArrayList<>();
+			List<NodeDescription<?>> relatedDescriptions = new ArrayList<>();
+			level.forEach((nodeDescription, nodeIds) -> {
+				Condition isSource = Functions.id(CypherGenerator.INSTANCE.createRootNode(nodeDescription))
+						.in(Cypher.parameter(Constants.NAME_OF_IDS, new ArrayList<>(nodeIds)));
+				for (RelationshipDescription relationshipDescription : nodeDescription.getRelationships()) {
+					if (relationshipDescription.isLazy()) {
+						continue;
+					}
+					statements.add(CypherGenerator.INSTANCE.prepareMatchOf(nodeDescription, relationshipDescription, null, isSource)
+							.returning(CypherGenerator.INSTANCE.createGenericReturnStatement())
+							.build());
+					relatedDescriptions.add(relationshipDescription.getTarget());
+				}
+			});
+			if (statements.isEmpty()) {
+				return;
+			}
+
+			List<AggregateIds> results = executor.fetchAll(statements, result -> AggregateIds.of(result.list()));
+			Map<NodeDescription<?>, Set<Long>> nextLevel = new LinkedHashMap<>();
+			Map<Class<?>, NodeDescription<?>> descriptionsOfNextLevel = new HashMap<>();
+			for (int i = 0; i < results.size(); i++) {
+				AggregateIds result = results.get(i);
+				aggregateIds.mergeRelated(result);
+
+				NodeDescription<?> relatedDescription = relatedDescriptions.get(i);
+				Class<?> relatedType = relatedDescription.getUnderlyingClass();
+				Set<Long> visited = visitedNodeIds.computeIfAbsent(relatedType, type -> new HashSet<>());
+				for (Long relatedNodeId : result.getRelatedNodeIds()) {
+					if (visited.add(relatedNodeId)) {
+						NodeDescription<?> description = descriptionsOfNextLevel.computeIfAbsent(relatedType, type -> relatedDescription);
+						nextLevel.computeIfAbsent(description, d -> new LinkedHashSet<>()).add(relatedNodeId);
+					}
+				}
+			}
+			level = nextLevel;
+		}
+	}
+}
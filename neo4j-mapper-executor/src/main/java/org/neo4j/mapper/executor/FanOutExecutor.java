@@ -0,0 +1,258 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.executor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.apiguardian.api.API;
+import org.neo4j.cypherdsl.core.Statement;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.SessionConfig;
+import org.neo4j.mapper.core.convert.NodeReader;
+import org.neo4j.mapper.core.mapping.MappingContext;
+import org.neo4j.mapper.core.mapping.NodeDescription;
+import org.neo4j.mapper.core.mapping.RecordMapAccessor;
+import org.neo4j.mapper.core.support.Assert;
+import org.neo4j.mapper.cypher.CypherGenerator;
+
+/**
+ * Runs independent statements concurrently, each one in a session of its own, and joins their results. This is meant
+ * for loading aggregates: Instead of issuing one statement per relationship of the root entity after another, all of
+ * them are in flight at the same time and the aggregate is fetched once all ids are known.
+ * <p>
+ * Each statement blocks one thread of the executor while waiting for the database. If the runtime supports virtual
+ * threads, a virtual-thread-per-task executor is used, otherwise an unbounded pool of daemon threads. A custom executor
+ * can be passed in as well, the number of concurrent sessions is then bounded by that executor (and in any case by the
+ * connection pool of the driver).
+ *
+ * @author Gerrit Meier
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "6.0")
+public final class FanOutExecutor implements AutoCloseable {
+
+	private final Driver driver;
+	private final SessionConfig sessionConfig;
+	private final ExecutorService executorService;
+	private final boolean ownsExecutorService;
+
+	/**
+	 * Creates a new executor using the default session configuration. The executor owns its threads and releases them
+	 * on {@link #close()}.
+	 *
+	 * @param driver The driver to open sessions with
+	 * @return A new executor
+	 */
+	public static FanOutExecutor of(Driver driver) {
+		return new FanOutExecutor(driver, SessionConfig.defaultConfig(), newExecutorService(), true);
+	}
+
+	/**
+	 * Creates a new executor running statements on the given executor service. The executor service is not shut down on
+	 * {@link #close()}.
+	 *
+	 * @param driver The driver to open sessions with
+	 * @param sessionConfig The configuration of each session
+	 * @param executorService The executor service running the statements
+	 * @return A new executor
+	 */
+	public static FanOutExecutor of(Driver driver, SessionConfig sessionConfig, ExecutorService executorService) {
+		return new FanOutExecutor(driver, sessionConfig, executorService, false);
+	}
+
+	private FanOutExecutor(Driver driver, SessionConfig sessionConfig, ExecutorService executorService,
+			boolean ownsExecutorService) {
+
+		Assert.notNull(driver, "Driver must not be null");
+		Assert.notNull(sessionConfig, "Session config must not be null");
+		Assert.notNull(executorService, "Executor service must not be null");
+
+		this.driver = driver;
+		this.sessionConfig = sessionConfig;
+		this.executorService = executorService;
+		this.ownsExecutorService = ownsExecutorService;
+	}
+
+	/**
+	 * Runs all statements concurrently in read transactions of separate sessions. The result of each statement is
+	 * handled inside its transaction, as results are not accessible anymore after the transaction has been closed.
+	 * If one of the statements fails, all others are cancelled and the failure is rethrown.
+	 *
+	 * @param statements The statements to run
+	 * @param resultHandler Consumes the result of one statement, called concurrently
+	 * @param <T> The type of the handled results
+	 * @return The handled results in order of the statements
+	 */
+	public <T> List<T> fetchAll(List<Statement> statements, Function<Result, T> resultHandler) {
+
+		Assert.notNull(statements, "Statements must not be null");
+		Assert.notNull(resultHandler, "Result handler must not be null");
+
+		if (statements.size() == 1) {
+			return List.of(fetch(statements.get(0), resultHandler));
+		}
+
+		List<Future<T>> futures = new ArrayList<>(statements.size());
+		try {
+			for (Statement statement : statements) {
+				futures.add(executorService.submit(() -> fetch(statement, resultHandler)));
+			}
+
+			List<T> results = new ArrayList<>(futures.size());
+			for (Future<T> future : futures) {
+				results.add(future.get());
+			}
+			return results;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the results of " + statements.size() + " statements", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			} else if (cause instanceof Error error) {
+				throw error;
+			}
+			throw new IllegalStateException(cause);
+		} finally {
+			futures.forEach(future -> future.cancel(true));
+		}
+	}
+
+	/**
+	 * Runs statements returning the synthesized id lists (for example the ones created by
+	 * {@link CypherGenerator#prepareMatchOf(NodeDescription, org.neo4j.mapper.core.mapping.RelationshipDescription, List, org.neo4j.cypherdsl.core.Condition)}
+	 * for each relationship of an entity) concurrently and merges their ids.
+	 *
+	 * @param statements The statements to run
+	 * @return The union of all ids
+	 */
+	public AggregateIds fetchAggregateIds(List<Statement> statements) {
+
+		AggregateIds aggregateIds = new AggregateIds();
+		for (AggregateIds partialIds : fetchAll(statements, result -> AggregateIds.of(result.list()))) {
+			aggregateIds.merge(partialIds);
+		}
+		return aggregateIds;
+	}
+
+	/**
+	 * Loads aggregates in two steps: First, all statements collecting ids are run concurrently, then the aggregates
+	 * identified by the union of their ids are fetched with one statement and mapped.
+	 *
+	 * @param targetType The type of the root entities
+	 * @param nodeDescription The description of the root entities
+	 * @param statements The statements collecting the ids of the aggregate
+	 * @param nodeReader The reader mapping the fetched records
+	 * @param <T> The type of the root entities
+	 * @return The mapped root entities, an empty list if no root node has been found
+	 */
+	public <T> List<T> loadAggregates(Class<T> targetType, NodeDescription<?> nodeDescription, List<Statement> statements,
+			NodeReader nodeReader) {
+
+		AggregateIds aggregateIds = fetchAggregateIds(statements);
+		if (aggregateIds.isEmpty()) {
+			return List.of();
+		}
+
+		return fetchAggregates(nodeDescription, aggregateIds, result -> nodeReader.readAll(targetType, result).toList());
+	}
+
+	/**
+	 * Fetches the aggregates identified by the given ids with one statement and maps them within the given context, so
+	 * that nodes already mapped in that context are not mapped onto new instances.
+	 *
+	 * @param targetType The type of the root entities
+	 * @param nodeDescription The description of the root entities
+	 * @param aggregateIds The ids of the root nodes, related nodes and relationships of the aggregates
+	 * @param nodeReader The reader mapping the fetched records
+	 * @param mappingContext The context to map the records in
+	 * @param <T> The type of the root entities
+	 * @return The mapped root entities, an empty list if no root node has been given
+	 */
+	public <T> List<T> loadAggregates(Class<T> targetType, NodeDescription<?> nodeDescription, AggregateIds aggregateIds,
+			NodeReader nodeReader, MappingContext mappingContext) {
+
+		if (aggregateIds.isEmpty()) {
+			return List.of();
+		}
+
+		return fetchAggregates(nodeDescription, aggregateIds, result -> result.list().stream()
+				.map(record -> nodeReader.read(targetType, new RecordMapAccessor(record), mappingContext))
+				.toList());
+	}
+
+	private <T> List<T> fetchAggregates(NodeDescription<?> nodeDescription, AggregateIds aggregateIds,
+			Function<Result, List<T>> mapper) {
+
+		Statement aggregateStatement = CypherGenerator.INSTANCE.prepareMatchOfAggregate(nodeDescription);
+		try (Session session = driver.session(sessionConfig)) {
+			return session.readTransaction(tx -> mapper.apply(tx.run(aggregateStatement.getCypher(), aggregateIds.asParameters())));
+		}
+	}
+
+	private <T> T fetch(Statement statement, Function<Result, T> resultHandler) {
+
+		try (Session session = driver.session(sessionConfig)) {
+			return session.readTransaction(tx -> resultHandler.apply(tx.run(statement.getCypher(), statement.getParameters())));
+		}
+	}
+
+	/**
+	 * Shuts down the threads of this executor if it has created them.
+	 */
+	@Override
+	public void close() {
+		if (ownsExecutorService) {
+			executorService.shutdown();
+		}
+	}
+
+	/**
+	 * Virtual threads are only available from Java 21 on (respectively as a preview feature before), so the factory is
+	 * looked up reflectively.
+	 */
+	static ExecutorService newExecutorService() {
+
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+			return Executors.newCachedThreadPool(new DaemonThreadFactory());
+		}
+	}
+
+	private static final class DaemonThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger threadNumber = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "neo4j-mapper-fan-out-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
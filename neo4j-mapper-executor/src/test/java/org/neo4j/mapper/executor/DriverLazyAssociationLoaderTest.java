@@ -0,0 +1,363 @@
+package org.neo4j.mapper.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.SessionConfig;
+import org.neo4j.driver.Transaction;
+import org.neo4j.driver.TransactionWork;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.internal.InternalNode;
+import org.neo4j.driver.internal.InternalRecord;
+import org.neo4j.driver.internal.InternalRelationship;
+import org.neo4j.driver.internal.types.InternalTypeSystem;
+import org.neo4j.driver.internal.value.NodeValue;
+import org.neo4j.driver.internal.value.RelationshipValue;
+import org.neo4j.driver.types.MapAccessor;
+import org.neo4j.mapper.core.convert.Neo4jPersistentPropertyConverter;
+import org.neo4j.mapper.core.convert.NodeReader;
+import org.neo4j.mapper.core.mapping.Constants;
+import org.neo4j.mapper.core.mapping.ConverterOptions;
+import org.neo4j.mapper.core.mapping.DefaultNeo4jEntityConverter;
+import org.neo4j.mapper.core.mapping.Instantiators;
+import org.neo4j.mapper.core.mapping.MappingContext;
+import org.neo4j.mapper.core.mapping.MappingException;
+import org.neo4j.mapper.core.mapping.Neo4jConversionService;
+import org.neo4j.mapper.core.mapping.NodeDescription;
+import org.neo4j.mapper.core.mapping.NodeDescriptionStore;
+import org.neo4j.mapper.core.mapping.RecordMapAccessor;
+import org.neo4j.mapper.core.mapping.RelationshipDescription;
+import org.neo4j.mapper.core.schema.Id;
+import org.neo4j.mapper.core.schema.Node;
+import org.neo4j.mapper.core.schema.Relationship;
+import org.neo4j.mapper.core.schema.RelationshipId;
+import org.neo4j.mapper.core.schema.RelationshipProperties;
+import org.neo4j.mapper.core.schema.TargetNode;
+
+class DriverLazyAssociationLoaderTest {
+
+	private final Driver driver = mock(Driver.class);
+	private final Session session = mock(Session.class);
+	private final Transaction transaction = mock(Transaction.class);
+	private final NodeReader nodeReader = mock(NodeReader.class);
+	private final MappingContext mappingContext = new MappingContext();
+
+	private final NodeDescription<Director> directorDescription = NodeDescription.of(Director.class);
+	private final RelationshipDescription directed = directorDescription.getRelationships().iterator().next();
+
+	/**
+	 * The results of the statements, the first statement matching cypher and parameters wins.
+	 */
+	private final List<Response> responses = new ArrayList<>();
+
+	DriverLazyAssociationLoaderTest() {
+		when(driver.session(any(SessionConfig.class))).thenReturn(session);
+		when(session.readTransaction(any())).thenAnswer(invocation -> invocation.getArgument(0, TransactionWork.class).execute(transaction));
+		when(transaction.run(anyString(), anyMap())).thenAnswer(invocation -> {
+			String cypher = invocation.getArgument(0);
+			Map<String, Object> parameters = invocation.getArgument(1);
+			return responses.stream()
+					.filter(response -> response.statement.test(cypher, parameters))
+					.findFirst()
+					.map(response -> response.result)
+					.orElseGet(() -> result(List.of()));
+		});
+	}
+
+	@Test
+	void shouldLoadTargetsAsAggregates() {
+
+		Movie theMatrix = new Movie();
+		Movie lostHighway = new Movie();
+		respond(isSource(42L), idRecord(List.of(42L), List.of(10L, 11L), List.of(100L, 101L)));
+		respond(relationshipOf("ACTED_IN", List.of(10L, 11L)), idRecord(List.of(10L, 11L), List.of(20L), List.of(200L)));
+		respond(isAggregate(), idRecord(List.of(), List.of(), List.of()), idRecord(List.of(), List.of(), List.of()));
+		when(nodeReader.read(eq(Movie.class), any(MapAccessor.class), same(mappingContext))).thenReturn(theMatrix, lostHighway);
+
+		try (FanOutExecutor executor = FanOutExecutor.of(driver)) {
+			Collection<?> movies = DriverLazyAssociationLoader.of(executor)
+					.load(directorDescription, directed, 42L, nodeReader, mappingContext);
+
+			assertThat(movies.toArray()).containsExactly(theMatrix, lostHighway);
+		}
+
+		ArgumentCaptor<String> cypher = ArgumentCaptor.forClass(String.class);
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<Map<String, Object>> parameters = ArgumentCaptor.forClass(Map.class);
+		// The ids of the targets, their eager relationship and the aggregate
+		verify(transaction, times(3)).run(cypher.capture(), parameters.capture());
+
+		assertThat(cypher.getAllValues()).noneSatisfy(statement -> assertThat(statement).contains("REVIEWED"));
+		assertThat(parameters.getAllValues().get(2))
+				.containsEntry(Constants.NAME_OF_SYNTHESIZED_ROOT_NODE, List.of(10L, 11L))
+				.containsEntry(Constants.NAME_OF_SYNTHESIZED_RELATED_NODES, List.of(20L))
+				.containsEntry(Constants.NAME_OF_SYNTHESIZED_RELATIONS, List.of(200L));
+		verify(nodeReader, never()).readAll(any(), any(Result.class));
+	}
+
+	@Test
+	void shouldFollowEagerRelationshipsOverSeveralHops() {
+
+		NodeDescription<Studio> studioDescription = NodeDescription.of(Studio.class);
+		respond(isSource(1L), idRecord(List.of(1L), List.of(10L), List.of(100L)));
+		respond(relationshipOf("STARRING", List.of(10L)), idRecord(List.of(10L), List.of(20L, 21L), List.of(200L, 201L)));
+		respond(relationshipOf("BORN_IN", List.of(20L, 21L)), idRecord(List.of(20L, 21L), List.of(30L), List.of(300L, 301L)));
+		respond(isAggregate(), idRecord(List.of(), List.of(), List.of()));
+
+		try (FanOutExecutor executor = FanOutExecutor.of(driver)) {
+			DriverLazyAssociationLoader.of(executor)
+					.load(studioDescription, studioDescription.getRelationships().iterator().next(), 1L, nodeReader, mappingContext);
+		}
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<Map<String, Object>> parameters = ArgumentCaptor.forClass(Map.class);
+		// The ids of the targets, one statement per hop and the aggregate
+		verify(transaction, times(4)).run(anyString(), parameters.capture());
+
+		assertThat(parameters.getValue())
+				.containsEntry(Constants.NAME_OF_SYNTHESIZED_ROOT_NODE, List.of(10L))
+				.containsEntry(Constants.NAME_OF_SYNTHESIZED_RELATED_NODES, List.of(20L, 21L, 30L))
+				.containsEntry(Constants.NAME_OF_SYNTHESIZED_RELATIONS, List.of(200L, 201L, 300L, 301L));
+		verify(nodeReader).read(eq(Film.class), any(MapAccessor.class), same(mappingContext));
+	}
+
+	@Test
+	void shouldMapBackReferencesOntoTheSource() {
+
+		NodeDescriptionStore nodeDescriptionStore = new NodeDescriptionStore();
+		nodeDescriptionStore.put("Author", NodeDescription.of(Author.class));
+		nodeDescriptionStore.put("Book", NodeDescription.of(Book.class));
+
+		Value authorNode = new NodeValue(new InternalNode(1L, List.of("Author"), Map.of("name", Values.value("Ursula K. Le Guin"))));
+		Value bookNode = new NodeValue(new InternalNode(10L, List.of("Book"), Map.of("title", Values.value("The Dispossessed"))));
+		Value wrote = new RelationshipValue(new InternalRelationship(100L, 1L, 10L, "WROTE"));
+		respond(isSource(1L), idRecord(List.of(1L), List.of(10L), List.of(100L)));
+		respond(relationshipOf("WROTE", List.of(10L)), idRecord(List.of(10L), List.of(1L), List.of(100L)));
+		respond(isAggregate(), new InternalRecord(
+				List.of(Constants.NAME_OF_SYNTHESIZED_ROOT_NODE, Constants.NAME_OF_SYNTHESIZED_RELATED_NODES, Constants.NAME_OF_SYNTHESIZED_RELATIONS),
+				new Value[] { bookNode, Values.value(List.of(authorNode)), Values.value(List.of(wrote)) }));
+
+		try (FanOutExecutor executor = FanOutExecutor.of(driver)) {
+			DefaultNeo4jEntityConverter converter = createConverter(nodeDescriptionStore,
+					ConverterOptions.builder().lazyAssociationLoader(DriverLazyAssociationLoader.of(executor)).build());
+
+			Author author = converter.read(Author.class, new RecordMapAccessor(new InternalRecord(List.of("n"), new Value[] { authorNode })));
+
+			assertThat(author.books).hasSize(1);
+			assertThat(author.books.get(0).authors).containsExactly(author);
+		}
+	}
+
+	@Test
+	void shouldNotLoadAggregatesWithoutTargets() {
+
+		respond(isSource(42L), idRecord(List.of(42L), List.of(), List.of()));
+
+		try (FanOutExecutor executor = FanOutExecutor.of(driver)) {
+			Collection<?> movies = DriverLazyAssociationLoader.of(executor)
+					.load(directorDescription, directed, 42L, nodeReader, mappingContext);
+
+			assertThat(movies).isEmpty();
+		}
+		verify(transaction, times(1)).run(anyString(), anyMap());
+		verify(nodeReader, never()).read(any(), any(MapAccessor.class), any(MappingContext.class));
+	}
+
+	@Test
+	void shouldRejectRelationshipsWithProperties() {
+
+		RelationshipDescription reviewed = NodeDescription.of(Critic.class).getRelationships().iterator().next();
+
+		try (FanOutExecutor executor = FanOutExecutor.of(driver)) {
+			DriverLazyAssociationLoader loader = DriverLazyAssociationLoader.of(executor);
+
+			assertThatExceptionOfType(MappingException.class)
+					.isThrownBy(() -> loader.load(NodeDescription.of(Critic.class), reviewed, 42L, nodeReader, mappingContext))
+					.withMessageContaining("REVIEWED");
+		}
+		verify(transaction, never()).run(anyString(), anyMap());
+	}
+
+	private void respond(BiPredicate<String, Map<String, Object>> statement, Record... records) {
+		responses.add(new Response(statement, result(List.of(records))));
+	}
+
+	private static Result result(List<Record> records) {
+
+		Result result = mock(Result.class);
+		when(result.list()).thenReturn(records);
+		return result;
+	}
+
+	private static BiPredicate<String, Map<String, Object>> isSource(long sourceId) {
+		return (cypher, parameters) -> Long.valueOf(sourceId).equals(parameters.get(Constants.NAME_OF_ID));
+	}
+
+	private static BiPredicate<String, Map<String, Object>> relationshipOf(String type, List<Long> sourceIds) {
+		return (cypher, parameters) -> cypher.contains(type) && sourceIds.equals(parameters.get(Constants.NAME_OF_IDS));
+	}
+
+	private static BiPredicate<String, Map<String, Object>> isAggregate() {
+		return (cypher, parameters) -> parameters.containsKey(Constants.NAME_OF_SYNTHESIZED_ROOT_NODE);
+	}
+
+	private static Record idRecord(List<Long> rootNodeIds, List<Long> relatedNodeIds, List<Long> relationshipIds) {
+		return new InternalRecord(List.of("__sn__", "__srn__", "__sr__"), new Value[] {
+				Values.value(rootNodeIds), Values.value(relatedNodeIds), Values.value(relationshipIds) });
+	}
+
+	private static DefaultNeo4jEntityConverter createConverter(NodeDescriptionStore nodeDescriptionStore, ConverterOptions options) {
+
+		return new DefaultNeo4jEntityConverter(
+				Instantiators.usingPersistenceConstructor(),
+				new Neo4jConversionService() {
+					@Override
+					public Object convert(String f, Class<?> componentType) {
+						return f;
+					}
+
+					@Override
+					public Object readValue(Value value, Class<?> type, Neo4jPersistentPropertyConverter<?> converter) {
+						return value == null || value.isNull() ? null : value.asObject();
+					}
+				},
+				nodeDescriptionStore,
+				InternalTypeSystem.TYPE_SYSTEM,
+				options);
+	}
+
+	private record Response(BiPredicate<String, Map<String, Object>> statement, Result result) {
+	}
+
+	@Node
+	static class Director {
+
+		@Id
+		String name;
+
+		@Relationship(type = "DIRECTED", lazy = true)
+		List<Movie> directed;
+	}
+
+	@Node
+	static class Movie {
+
+		@Id
+		String title;
+
+		@Relationship(type = "ACTED_IN", direction = Relationship.Direction.INCOMING)
+		List<Person> actors;
+
+		@Relationship(type = "REVIEWED", direction = Relationship.Direction.INCOMING, lazy = true)
+		List<Person> reviewers;
+	}
+
+	@Node
+	static class Person {
+
+		@Id
+		String name;
+	}
+
+	@Node
+	static class Studio {
+
+		@Id
+		String name;
+
+		@Relationship(type = "PRODUCED", lazy = true)
+		List<Film> films;
+	}
+
+	@Node
+	static class Film {
+
+		@Id
+		String title;
+
+		@Relationship("STARRING")
+		List<Actor> actors;
+	}
+
+	@Node
+	static class Actor {
+
+		@Id
+		String name;
+
+		@Relationship("BORN_IN")
+		City birthplace;
+	}
+
+	@Node
+	static class City {
+
+		@Id
+		String name;
+	}
+
+	@Node
+	static class Author {
+
+		@Id
+		String name;
+
+		@Relationship(type = "WROTE", lazy = true)
+		List<Book> books;
+	}
+
+	@Node
+	static class Book {
+
+		@Id
+		String title;
+
+		@Relationship(type = "WROTE", direction = Relationship.Direction.INCOMING)
+		List<Author> authors;
+	}
+
+	@Node
+	static class Critic {
+
+		@Id
+		String name;
+
+		@Relationship(type = "REVIEWED", lazy = true)
+		List<Review> reviews;
+	}
+
+	@RelationshipProperties
+	static class Review {
+
+		@RelationshipId
+		Long id;
+
+		int rating;
+
+		@TargetNode
+		Movie movie;
+	}
+}
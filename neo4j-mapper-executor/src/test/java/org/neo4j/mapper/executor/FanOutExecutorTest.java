@@ -0,0 +1,117 @@
+package org.neo4j.mapper.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.cypherdsl.core.Cypher;
+import org.neo4j.cypherdsl.core.Statement;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.SessionConfig;
+import org.neo4j.driver.Transaction;
+import org.neo4j.driver.TransactionWork;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.internal.InternalRecord;
+
+class FanOutExecutorTest {
+
+	private final Driver driver = mock(Driver.class);
+	private final Session session = mock(Session.class);
+	private final Transaction transaction = mock(Transaction.class);
+	private final Result result = mock(Result.class);
+
+	FanOutExecutorTest() {
+		when(driver.session(any(SessionConfig.class))).thenReturn(session);
+		when(session.readTransaction(any())).thenAnswer(invocation -> invocation.getArgument(0, TransactionWork.class).execute(transaction));
+		when(transaction.run(anyString(), anyMap())).thenReturn(result);
+	}
+
+	@Test
+	void shouldRunStatementsConcurrentlyInSeparateSessions() {
+
+		List<Statement> statements = List.of(statement(1), statement(2), statement(3));
+		CountDownLatch allRunning = new CountDownLatch(statements.size());
+
+		try (FanOutExecutor executor = FanOutExecutor.of(driver)) {
+			List<String> results = executor.fetchAll(statements, r -> {
+				allRunning.countDown();
+				try {
+					// Only completes if all statements are in flight at the same time
+					assertThat(allRunning.await(10, TimeUnit.SECONDS)).isTrue();
+				} catch (InterruptedException e) {
+					throw new IllegalStateException(e);
+				}
+				return Thread.currentThread().getName();
+			});
+
+			assertThat(results).hasSize(3).doesNotHaveDuplicates();
+		}
+		verify(driver, times(3)).session(any(SessionConfig.class));
+		verify(session, times(3)).close();
+	}
+
+	@Test
+	void shouldMergeAggregateIds() {
+
+		when(result.list()).thenReturn(
+				List.of(idRecord(List.of(1L), List.of(10L, 11L), List.of(100L, 101L))),
+				List.of(idRecord(List.of(1L, 2L), List.of(11L, 12L), List.of(102L))));
+
+		try (FanOutExecutor executor = FanOutExecutor.of(driver)) {
+			AggregateIds aggregateIds = executor.fetchAggregateIds(List.of(statement(1), statement(2)));
+
+			assertThat(aggregateIds.getRootNodeIds()).containsExactlyInAnyOrder(1L, 2L);
+			assertThat(aggregateIds.getRelatedNodeIds()).containsExactlyInAnyOrder(10L, 11L, 12L);
+			assertThat(aggregateIds.getRelationshipIds()).containsExactlyInAnyOrder(100L, 101L, 102L);
+			assertThat(aggregateIds.asParameters()).containsOnlyKeys("__sn__", "__srn__", "__sr__");
+		}
+	}
+
+	@Test
+	void shouldRethrowFailures() {
+
+		try (FanOutExecutor executor = FanOutExecutor.of(driver)) {
+			assertThatIllegalStateException()
+					.isThrownBy(() -> executor.fetchAll(List.of(statement(1), statement(2)), r -> {
+						throw new IllegalStateException("Broken");
+					}))
+					.withMessage("Broken");
+		}
+	}
+
+	@Test
+	void shouldIgnoreMissingIdLists() {
+
+		Record record = new InternalRecord(List.of("__sn__"), new Value[] { Values.value(List.of(1L)) });
+
+		AggregateIds aggregateIds = AggregateIds.of(List.of(record));
+
+		assertThat(aggregateIds.getRootNodeIds()).containsExactly(1L);
+		assertThat(aggregateIds.getRelatedNodeIds()).isEmpty();
+		assertThat(aggregateIds.asParameters()).containsEntry("__sr__", List.of());
+	}
+
+	private static Statement statement(int i) {
+		return Cypher.returning(Cypher.literalOf(i)).build();
+	}
+
+	private static Record idRecord(List<Long> rootNodeIds, List<Long> relatedNodeIds, List<Long> relationshipIds) {
+		return new InternalRecord(List.of("__sn__", "__srn__", "__sr__"), new Value[] {
+				Values.value(rootNodeIds), Values.value(relatedNodeIds), Values.value(relationshipIds) });
+	}
+}
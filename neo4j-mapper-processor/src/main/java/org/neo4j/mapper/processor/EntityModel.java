@@ -0,0 +1,319 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.processor;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+
+/**
+ * What the generated mapper of one entity needs to know: How to call the persistence constructor and how to read and
+ * write each field. The persistence constructor is chosen by the same rules as at runtime (the canonical constructor of
+ * a record, the only declared constructor, the no-args constructor or the first public one).
+ * <p>
+ * Entities whose mapper could not access everything without reflection are rejected with a reason. They keep being
+ * mapped through handles at runtime. This includes final fields of classes that are not set by the persistence
+ * constructor, as only handles can write them afterwards.
+ *
+ * @author Gerrit Meier
+ */
+final class EntityModel {
+
+	private final TypeElement type;
+	private final List<Parameter> constructorParameters;
+	private final List<Property> properties;
+
+	/**
+	 * A parameter of the persistence constructor.
+	 *
+	 * @param name The name of the parameter, matched against the field names by the mapping
+	 * @param type The erased type as a class literal
+	 * @param cast The cast from {@code Object} to the type of the parameter
+	 */
+	record Parameter(String name, String type, String cast) {
+	}
+
+	/**
+	 * A field of the entity.
+	 *
+	 * @param name The name of the field
+	 * @param read The expression reading the field from {@code bean}
+	 * @param write The statement writing {@code value} to the field, {@literal null} for read-only fields
+	 */
+	record Property(String name, String read, String write) {
+	}
+
+	/**
+	 * Thrown for entities that cannot be handled without reflection.
+	 */
+	static final class UnsupportedEntityException extends Exception {
+
+		private static final long serialVersionUID = 1L;
+
+		UnsupportedEntityException(String message) {
+			super(message);
+		}
+	}
+
+	static EntityModel of(TypeElement type, Types types) throws UnsupportedEntityException {
+
+		checkAccessible(type);
+
+		ExecutableElement constructor = findPersistenceConstructor(type, types);
+		if (constructor.getModifiers().contains(Modifier.PRIVATE)) {
+			throw new UnsupportedEntityException("its persistence constructor is private");
+		}
+
+		List<Parameter> constructorParameters = new ArrayList<>();
+		Set<String> constructorParameterNames = new HashSet<>();
+		for (VariableElement parameter : constructor.getParameters()) {
+			TypeMirror parameterType = parameter.asType();
+			constructorParameters.add(new Parameter(parameter.getSimpleName().toString(), classLiteral(parameterType), cast(parameterType, types)));
+			constructorParameterNames.add(parameter.getSimpleName().toString());
+		}
+
+		List<Property> properties = new ArrayList<>();
+		for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+			if (!field.getModifiers().contains(Modifier.STATIC)) {
+				properties.add(property(type, field, constructorParameterNames, types));
+			}
+		}
+
+		return new EntityModel(type, constructorParameters, properties);
+	}
+
+	private EntityModel(TypeElement type, List<Parameter> constructorParameters, List<Property> properties) {
+		this.type = type;
+		this.constructorParameters = constructorParameters;
+		this.properties = properties;
+	}
+
+	private static void checkAccessible(TypeElement type) throws UnsupportedEntityException {
+
+		if (type.getKind() != ElementKind.CLASS && type.getKind() != ElementKind.RECORD) {
+			throw new UnsupportedEntityException("it is not a class");
+		}
+		if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+			throw new UnsupportedEntityException("it is abstract");
+		}
+		if (!type.getTypeParameters().isEmpty()) {
+			throw new UnsupportedEntityException("it is generic");
+		}
+
+		Element element = type;
+		while (element instanceof TypeElement typeElement) {
+			if (typeElement.getModifiers().contains(Modifier.PRIVATE)) {
+				throw new UnsupportedEntityException("it is not visible in its package");
+			}
+			if (typeElement.getNestingKind() == NestingKind.LOCAL || typeElement.getNestingKind() == NestingKind.ANONYMOUS) {
+				throw new UnsupportedEntityException("it is a local class");
+			}
+			boolean isInnerClass = typeElement.getNestingKind() == NestingKind.MEMBER
+					&& typeElement.getKind() == ElementKind.CLASS
+					&& !typeElement.getModifiers().contains(Modifier.STATIC)
+					&& !typeElement.getEnclosingElement().getKind().isInterface();
+			if (isInnerClass) {
+				throw new UnsupportedEntityException("it is an inner class");
+			}
+			element = typeElement.getEnclosingElement();
+		}
+	}
+
+	private static ExecutableElement findPersistenceConstructor(TypeElement type, Types types) throws UnsupportedEntityException {
+
+		List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+
+		if (type.getKind() == ElementKind.RECORD) {
+			List<? extends RecordComponentElement> components = type.getRecordComponents();
+			for (ExecutableElement constructor : constructors) {
+				if (hasParameterTypes(constructor, components, types)) {
+					return constructor;
+				}
+			}
+			throw new UnsupportedEntityException("no canonical constructor has been found");
+		}
+
+		if (constructors.size() == 1) {
+			return constructors.get(0);
+		}
+		for (ExecutableElement constructor : constructors) {
+			if (constructor.getParameters().isEmpty()) {
+				return constructor;
+			}
+		}
+		for (ExecutableElement constructor : constructors) {
+			if (constructor.getModifiers().contains(Modifier.PUBLIC)) {
+				return constructor;
+			}
+		}
+		throw new UnsupportedEntityException("no persistence constructor has been found");
+	}
+
+	private static boolean hasParameterTypes(ExecutableElement constructor, List<? extends RecordComponentElement> components, Types types) {
+
+		List<? extends VariableElement> parameters = constructor.getParameters();
+		if (parameters.size() != components.size()) {
+			return false;
+		}
+		for (int i = 0; i < parameters.size(); i++) {
+			if (!types.isSameType(types.erasure(parameters.get(i).asType()), types.erasure(components.get(i).asType()))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static Property property(TypeElement type, VariableElement field, Set<String> constructorParameterNames, Types types)
+			throws UnsupportedEntityException {
+
+		String name = field.getSimpleName().toString();
+		TypeMirror fieldType = field.asType();
+		boolean isPrivate = field.getModifiers().contains(Modifier.PRIVATE);
+
+		String read;
+		if (type.getKind() == ElementKind.RECORD) {
+			read = "bean." + name + "()";
+		} else if (!isPrivate) {
+			read = "bean." + name;
+		} else {
+			read = findAccessor(type, getterNames(name, fieldType), fieldType, types)
+					.map(getter -> "bean." + getter.getSimpleName() + "()")
+					.orElseThrow(() -> new UnsupportedEntityException("field " + name + " is private and has no getter"));
+		}
+
+		String write;
+		String cast = cast(fieldType, types);
+		if (type.getKind() == ElementKind.RECORD) {
+			write = null;
+		} else if (field.getModifiers().contains(Modifier.FINAL)) {
+			if (!constructorParameterNames.contains(name)) {
+				throw new UnsupportedEntityException("field " + name + " is final and not set by the persistence constructor");
+			}
+			write = null;
+		} else if (!isPrivate) {
+			write = "bean." + name + " = " + cast + " value;";
+		} else {
+			write = findSetter(type, "set" + capitalize(name), fieldType, types)
+					.map(setter -> "bean." + setter.getSimpleName() + "(" + cast + " value);")
+					.orElseThrow(() -> new UnsupportedEntityException("field " + name + " is private and has no setter"));
+		}
+
+		return new Property(name, read, write);
+	}
+
+	private static List<String> getterNames(String name, TypeMirror fieldType) {
+
+		List<String> getterNames = new ArrayList<>();
+		if (fieldType.getKind() == TypeKind.BOOLEAN) {
+			getterNames.add("is" + capitalize(name));
+		}
+		getterNames.add("get" + capitalize(name));
+		return getterNames;
+	}
+
+	private static Optional<ExecutableElement> findAccessor(TypeElement type, List<String> names, TypeMirror fieldType, Types types) {
+
+		return ElementFilter.methodsIn(type.getEnclosedElements()).stream()
+				.filter(EntityModel::isCallable)
+				.filter(method -> names.contains(method.getSimpleName().toString()))
+				.filter(method -> method.getParameters().isEmpty())
+				.filter(method -> types.isSameType(method.getReturnType(), fieldType))
+				.findFirst();
+	}
+
+	private static Optional<ExecutableElement> findSetter(TypeElement type, String name, TypeMirror fieldType, Types types) {
+
+		return ElementFilter.methodsIn(type.getEnclosedElements()).stream()
+				.filter(EntityModel::isCallable)
+				.filter(method -> method.getSimpleName().contentEquals(name))
+				.filter(method -> method.getParameters().size() == 1)
+				.filter(method -> types.isSameType(method.getParameters().get(0).asType(), fieldType))
+				.findFirst();
+	}
+
+	private static boolean isCallable(ExecutableElement method) {
+		return !(method.getModifiers().contains(Modifier.PRIVATE) || method.getModifiers().contains(Modifier.STATIC));
+	}
+
+	private static String capitalize(String name) {
+		return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+	}
+
+	/**
+	 * Casts via {@code Object}, so that the cast compiles for values typed as the entity as well. Primitives are cast to
+	 * their wrapper and unboxed.
+	 */
+	private static String cast(TypeMirror typeMirror, Types types) throws UnsupportedEntityException {
+
+		String target = typeMirror.getKind().isPrimitive()
+				? types.boxedClass((PrimitiveType) typeMirror).getQualifiedName().toString()
+				: erasedName(typeMirror);
+		return "(" + target + ") (Object)";
+	}
+
+	private static String classLiteral(TypeMirror typeMirror) throws UnsupportedEntityException {
+
+		if (typeMirror.getKind().isPrimitive()) {
+			return typeMirror.getKind().name().toLowerCase() + ".class";
+		}
+		return erasedName(typeMirror) + ".class";
+	}
+
+	/**
+	 * Builds the name from the elements, as the string representation of type mirrors contains type annotations.
+	 */
+	private static String erasedName(TypeMirror typeMirror) throws UnsupportedEntityException {
+
+		if (typeMirror.getKind().isPrimitive()) {
+			return typeMirror.getKind().name().toLowerCase();
+		} else if (typeMirror instanceof ArrayType arrayType) {
+			return erasedName(arrayType.getComponentType()) + "[]";
+		} else if (typeMirror instanceof DeclaredType declaredType) {
+			return ((TypeElement) declaredType.asElement()).getQualifiedName().toString();
+		}
+		throw new UnsupportedEntityException("type " + typeMirror + " is not supported");
+	}
+
+	TypeElement getType() {
+		return type;
+	}
+
+	List<Parameter> getConstructorParameters() {
+		return constructorParameters;
+	}
+
+	List<Property> getProperties() {
+		return properties;
+	}
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.processor;
+
+import java.util.List;
+
+import javax.lang.model.element.TypeElement;
+
+/**
+ * Writes the source of the generated mapper of one entity. The mapper implements
+ * {@code org.neo4j.mapper.core.mapping.GeneratedMapper} and its persistence constructor, property access is done by a
+ * nested accessor switching over the field names. All types are referenced by their fully qualified names, so that
+ * they cannot clash with the types of the package the mapper is generated into.
+ *
+ * @author Gerrit Meier
+ */
+final class MapperWriter {
+
+	private static final String MAPPING_PACKAGE = "org.neo4j.mapper.core.mapping.";
+
+	private final EntityModel model;
+	private final StringBuilder source = new StringBuilder();
+
+	MapperWriter(EntityModel model) {
+		this.model = model;
+	}
+
+	/**
+	 * @param type The type of an entity
+	 * @param packageName The name of its package
+	 * @return The simple name of the generated mapper, containing the names of the enclosing classes
+	 */
+	static String simpleNameOfMapper(TypeElement type, String packageName) {
+
+		String qualifiedName = type.getQualifiedName().toString();
+		String nestedName = packageName.isEmpty() ? qualifiedName : qualifiedName.substring(packageName.length() + 1);
+		return nestedName.replace('.', '_') + "_Neo4jMapper";
+	}
+
+	String write(String packageName, String simpleName) {
+
+		String entity = model.getType().getQualifiedName().toString();
+
+		if (!packageName.isEmpty()) {
+			line(0, "package " + packageName + ";");
+			line(0, "");
+		}
+		line(0, "@javax.annotation.processing.Generated(\"" + Neo4jMapperProcessor.class.getName() + "\")");
+		line(0, "@SuppressWarnings({ \"unchecked\", \"rawtypes\" })");
+		line(0, "public final class " + simpleName + " implements " + MAPPING_PACKAGE + "GeneratedMapper<" + entity + ">, "
+				+ MAPPING_PACKAGE + "EntityConstructor<" + entity + "> {");
+		line(0, "");
+
+		List<EntityModel.Parameter> parameters = model.getConstructorParameters();
+		for (int i = 0; i < parameters.size(); i++) {
+			EntityModel.Parameter parameter = parameters.get(i);
+			line(1, "private static final " + MAPPING_PACKAGE + "ConstructorParameter<" + entity + "> PARAMETER_" + i + " = "
+					+ MAPPING_PACKAGE + "ConstructorParameter.of(\"" + parameter.name() + "\", " + parameter.type() + ");");
+		}
+		if (!parameters.isEmpty()) {
+			line(0, "");
+		}
+
+		line(1, "@Override");
+		line(1, "public Class<" + entity + "> getType() {");
+		line(2, "return " + entity + ".class;");
+		line(1, "}");
+		line(0, "");
+
+		line(1, "@Override");
+		line(1, "public " + MAPPING_PACKAGE + "EntityConstructor<" + entity + "> getPersistenceConstructor() {");
+		line(2, "return this;");
+		line(1, "}");
+		line(0, "");
+
+		line(1, "@Override");
+		line(1, "public " + MAPPING_PACKAGE + "PropertyAccessor<" + entity + "> getPropertyAccessor(" + entity + " instance) {");
+		line(2, "return new Accessor(instance);");
+		line(1, "}");
+		line(0, "");
+
+		line(1, "@Override");
+		line(1, "public boolean isConstructorParameter(" + MAPPING_PACKAGE + "GraphPropertyDescription property) {");
+		if (parameters.isEmpty()) {
+			line(2, "return false;");
+		} else {
+			line(2, "switch (property.getFieldName()) {");
+			for (EntityModel.Parameter parameter : parameters) {
+				line(3, "case \"" + parameter.name() + "\":");
+			}
+			line(4, "return true;");
+			line(3, "default:");
+			line(4, "return false;");
+			line(2, "}");
+		}
+		line(1, "}");
+		line(0, "");
+
+		line(1, "@Override");
+		line(1, "public " + entity + " createInstance(" + MAPPING_PACKAGE + "ParameterValueProvider<" + entity + "> parameterValueProvider) {");
+		if (parameters.isEmpty()) {
+			line(2, "return new " + entity + "();");
+		} else {
+			line(2, "return new " + entity + "(");
+			for (int i = 0; i < parameters.size(); i++) {
+				line(4, parameters.get(i).cast() + " parameterValueProvider.getParameterValue(PARAMETER_" + i + ")"
+						+ (i < parameters.size() - 1 ? "," : ");"));
+			}
+		}
+		line(1, "}");
+		line(0, "");
+
+		writeAccessor(entity);
+
+		line(0, "}");
+		return source.toString();
+	}
+
+	private void writeAccessor(String entity) {
+
+		line(1, "private static final class Accessor implements " + MAPPING_PACKAGE + "PropertyAccessor<" + entity + "> {");
+		line(0, "");
+		line(2, "private final " + entity + " bean;");
+		line(0, "");
+		line(2, "Accessor(" + entity + " bean) {");
+		line(3, "this.bean = bean;");
+		line(2, "}");
+		line(0, "");
+
+		line(2, "@Override");
+		line(2, "public Object getProperty(" + MAPPING_PACKAGE + "GraphPropertyDescription graphPropertyDescription) {");
+		line(3, "switch (graphPropertyDescription.getFieldName()) {");
+		for (EntityModel.Property property : model.getProperties()) {
+			line(4, "case \"" + property.name() + "\":");
+			line(5, "return " + property.read() + ";");
+		}
+		line(4, "default:");
+		line(5, "throw noSuchField(graphPropertyDescription);");
+		line(3, "}");
+		line(2, "}");
+		line(0, "");
+
+		line(2, "@Override");
+		line(2, "public void setProperty(" + MAPPING_PACKAGE + "GraphPropertyDescription graphPropertyDescription, Object value) {");
+		line(3, "switch (graphPropertyDescription.getFieldName()) {");
+		for (EntityModel.Property property : model.getProperties()) {
+			line(4, "case \"" + property.name() + "\":");
+			if (property.write() == null) {
+				line(5, "throw new " + MAPPING_PACKAGE + "MappingException(\"Field " + property.name() + " of " + entity
+						+ " is read-only\");");
+			} else {
+				line(5, property.write());
+				line(5, "return;");
+			}
+		}
+		line(4, "default:");
+		line(5, "throw noSuchField(graphPropertyDescription);");
+		line(3, "}");
+		line(2, "}");
+		line(0, "");
+
+		line(2, "@Override");
+		line(2, "public " + entity + " getBean() {");
+		line(3, "return bean;");
+		line(2, "}");
+		line(0, "");
+
+		line(2, "private static " + MAPPING_PACKAGE + "MappingException noSuchField(" + MAPPING_PACKAGE
+				+ "GraphPropertyDescription graphPropertyDescription) {");
+		line(3, "return new " + MAPPING_PACKAGE + "MappingException(\"No field \" + graphPropertyDescription.getFieldName() + \" on "
+				+ entity + "\");");
+		line(2, "}");
+		line(1, "}");
+	}
+
+	private void line(int indentation, String content) {
+		source.append("\t".repeat(content.isEmpty() ? 0 : indentation)).append(content).append('\n');
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2011-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.mapper.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+import org.apiguardian.api.API;
+
+/**
+ * Generates a {@code GeneratedMapper} for each class annotated with {@code @Node} or {@code @RelationshipProperties}.
+ * The mappers call the persistence constructor and access the fields (or their getters and setters) directly, and are
+ * registered as services, so that node descriptions pick them up instead of resolving handles reflectively.
+ * <p>
+ * Entities that cannot be accessed from a class in the same package, for example because they are private or have
+ * private fields without accessors, are skipped with a note and keep being mapped through handles.
+ *
+ * @author Gerrit Meier
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "6.0")
+@SupportedAnnotationTypes({ "org.neo4j.mapper.core.schema.Node", "org.neo4j.mapper.core.schema.RelationshipProperties" })
+public final class Neo4jMapperProcessor extends AbstractProcessor {
+
+	private static final String SERVICE_FILE = "META-INF/services/org.neo4j.mapper.core.mapping.GeneratedMapper";
+
+	private final Set<String> generatedMappers = new LinkedHashSet<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+		if (roundEnv.processingOver()) {
+			if (!generatedMappers.isEmpty()) {
+				writeServiceFile();
+			}
+			return false;
+		}
+
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (element instanceof TypeElement type) {
+					generateMapper(type);
+				}
+			}
+		}
+		// Other processors may want to see the annotations as well
+		return false;
+	}
+
+	private void generateMapper(TypeElement type) {
+
+		String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+		String simpleName = MapperWriter.simpleNameOfMapper(type, packageName);
+		String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+		if (generatedMappers.contains(qualifiedName)) {
+			return;
+		}
+
+		EntityModel model;
+		try {
+			model = EntityModel.of(type, processingEnv.getTypeUtils());
+		} catch (EntityModel.UnsupportedEntityException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+					"No mapper generated for " + type.getQualifiedName() + ", " + e.getMessage(), type);
+			return;
+		}
+
+		try {
+			JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(qualifiedName, type);
+			try (Writer writer = sourceFile.openWriter()) {
+				writer.write(new MapperWriter(model).write(packageName, simpleName));
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					"Could not write the mapper for " + type.getQualifiedName() + ": " + e.getMessage(), type);
+			return;
+		}
+		generatedMappers.add(qualifiedName);
+	}
+
+	private void writeServiceFile() {
+
+		try {
+			FileObject serviceFile = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+			try (Writer writer = serviceFile.openWriter()) {
+				for (String generatedMapper : generatedMappers) {
+					writer.write(generatedMapper);
+					writer.write('\n');
+				}
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					"Could not write " + SERVICE_FILE + ": " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,165 @@
+package org.neo4j.mapper.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.mapper.core.mapping.GraphPropertyDescription;
+import org.neo4j.mapper.core.mapping.MappingException;
+import org.neo4j.mapper.core.mapping.NodeDescription;
+import org.neo4j.mapper.core.mapping.ParameterValueProvider;
+import org.neo4j.mapper.core.mapping.PropertyAccessor;
+import org.neo4j.mapper.core.schema.Id;
+import org.neo4j.mapper.core.schema.Node;
+
+class Neo4jMapperProcessorTest {
+
+	private static final String PREFIX_OF_MAPPERS = "org.neo4j.mapper.processor.Neo4jMapperProcessorTest_";
+
+	@Test
+	void shouldAccessPropertiesThroughGettersAndSetters() {
+
+		NodeDescription<Movie> nodeDescription = NodeDescription.of(Movie.class);
+		Movie movie = nodeDescription.getPersistenceConstructor().createInstance(valuesByName(Map.of()));
+		PropertyAccessor<Movie> propertyAccessor = nodeDescription.getPropertyAccessor(movie);
+
+		propertyAccessor.setProperty(property(nodeDescription, "title"), "The Matrix");
+		propertyAccessor.setProperty(property(nodeDescription, "released"), 1999);
+
+		assertThat(propertyAccessor.getClass().getName()).startsWith(PREFIX_OF_MAPPERS + "Movie_Neo4jMapper");
+		assertThat(movie.getTitle()).isEqualTo("The Matrix");
+		assertThat(movie.getReleased()).isEqualTo(1999);
+		assertThat(propertyAccessor.getProperty(property(nodeDescription, "released"))).isEqualTo(1999);
+	}
+
+	@Test
+	void shouldCallThePersistenceConstructor() {
+
+		NodeDescription<Person> nodeDescription = NodeDescription.of(Person.class);
+		Person person = nodeDescription.getPersistenceConstructor()
+				.createInstance(valuesByName(Map.of("name", "Keanu Reeves", "born", 1964L)));
+		PropertyAccessor<Person> propertyAccessor = nodeDescription.getPropertyAccessor(person);
+
+		assertThat(nodeDescription.getPersistenceConstructor().isConstructorParameter(property(nodeDescription, "born"))).isTrue();
+		assertThat(nodeDescription.getPersistenceConstructor().isConstructorParameter(property(nodeDescription, "nickname"))).isFalse();
+		assertThat(propertyAccessor.getProperty(property(nodeDescription, "name"))).isEqualTo("Keanu Reeves");
+		assertThat(person.born).isEqualTo(1964L);
+
+		assertThatExceptionOfType(MappingException.class)
+				.isThrownBy(() -> propertyAccessor.setProperty(property(nodeDescription, "name"), "Neo"))
+				.withMessageContaining("read-only");
+	}
+
+	@Test
+	void shouldReadRecordComponents() {
+
+		NodeDescription<Actor> nodeDescription = NodeDescription.of(Actor.class);
+		Actor actor = nodeDescription.getPersistenceConstructor()
+				.createInstance(valuesByName(Map.of("name", "Carrie-Anne Moss", "roles", 3)));
+
+		assertThat(actor).isEqualTo(new Actor("Carrie-Anne Moss", 3));
+		assertThat(nodeDescription.getPropertyAccessor(actor).getProperty(property(nodeDescription, "roles"))).isEqualTo(3);
+	}
+
+	@Test
+	void shouldFallBackToHandlesForInaccessibleFields() {
+
+		assertThatExceptionOfType(ClassNotFoundException.class)
+				.isThrownBy(() -> Class.forName(PREFIX_OF_MAPPERS + "Hidden_Neo4jMapper"));
+
+		NodeDescription<Hidden> nodeDescription = NodeDescription.of(Hidden.class);
+		Hidden hidden = new Hidden();
+		nodeDescription.getPropertyAccessor(hidden).setProperty(property(nodeDescription, "secret"), "42");
+
+		assertThat(hidden.secret).isEqualTo("42");
+	}
+
+	@Test
+	void shouldFallBackToHandlesForFinalFieldsOutsideTheConstructor() {
+
+		assertThatExceptionOfType(ClassNotFoundException.class)
+				.isThrownBy(() -> Class.forName(PREFIX_OF_MAPPERS + "Ticket_Neo4jMapper"));
+
+		NodeDescription<Ticket> nodeDescription = NodeDescription.of(Ticket.class);
+		Ticket ticket = nodeDescription.getPersistenceConstructor().createInstance(valuesByName(Map.of()));
+		nodeDescription.getPropertyAccessor(ticket).setProperty(property(nodeDescription, "price"), 42L);
+
+		assertThat(ticket.price).isEqualTo(42L);
+	}
+
+	private static GraphPropertyDescription property(NodeDescription<?> nodeDescription, String fieldName) {
+		return nodeDescription.getGraphProperty(fieldName).orElseThrow();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> ParameterValueProvider<T> valuesByName(Map<String, Object> values) {
+		return parameter -> (T) values.get(parameter.getName());
+	}
+
+	@Node
+	static class Movie {
+
+		@Id
+		private String title;
+
+		private int released;
+
+		String getTitle() {
+			return title;
+		}
+
+		void setTitle(String title) {
+			this.title = title;
+		}
+
+		int getReleased() {
+			return released;
+		}
+
+		void setReleased(int released) {
+			this.released = released;
+		}
+	}
+
+	@Node
+	static class Person {
+
+		@Id
+		final String name;
+
+		final long born;
+
+		String nickname;
+
+		Person(String name, long born) {
+			this.name = name;
+			this.born = born;
+		}
+	}
+
+	@Node
+	static class Ticket {
+
+		@Id
+		String seat;
+
+		final Long price;
+
+		Ticket() {
+			this.price = null;
+		}
+	}
+
+	@Node
+	record Actor(@Id String name, int roles) {
+	}
+
+	@Node
+	static class Hidden {
+
+		@Id
+		private String secret;
+	}
+}